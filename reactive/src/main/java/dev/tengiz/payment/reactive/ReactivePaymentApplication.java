@@ -0,0 +1,22 @@
+package dev.tengiz.payment.reactive;
+
+import dev.tengiz.payment.config.BalanceQueryProperties;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+
+/**
+ * WebFlux and R2DBC build of the transaction and balance endpoints. Besides its own package it scans the
+ * mappers and validators shared with the servlet build.
+ */
+@SpringBootApplication(scanBasePackages = {
+    "dev.tengiz.payment.reactive",
+    "dev.tengiz.payment.mapper",
+    "dev.tengiz.payment.validation"
+})
+@EnableConfigurationProperties(BalanceQueryProperties.class)
+public class ReactivePaymentApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(ReactivePaymentApplication.class, args);
+    }
+}
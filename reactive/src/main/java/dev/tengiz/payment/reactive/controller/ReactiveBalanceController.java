@@ -0,0 +1,67 @@
+package dev.tengiz.payment.reactive.controller;
+
+import dev.tengiz.payment.dto.request.BalanceQueryRequest;
+import dev.tengiz.payment.dto.response.BalanceRangeResponse;
+import dev.tengiz.payment.dto.response.BalanceResponse;
+import dev.tengiz.payment.reactive.service.ReactiveAggregationService;
+import java.time.LocalDate;
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Balance endpoints of {@code BalanceController} on WebFlux.
+ */
+@RestController
+@RequestMapping("/balances")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveBalanceController {
+
+    private final ReactiveAggregationService aggregationService;
+
+    @GetMapping("/{accountId}")
+    public Mono<BalanceResponse> getBalance(
+        @PathVariable @NotBlank String accountId,
+        @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        log.debug("Retrieving balance for account: {} on date: {}", accountId, date);
+        return aggregationService.getBalance(accountId, date);
+    }
+
+    @GetMapping(value = "/{accountId}", params = {"from", "to"})
+    public Mono<BalanceRangeResponse> getBalances(
+        @PathVariable @NotBlank String accountId,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(defaultValue = "false") boolean cumulative
+    ) {
+        log.debug("Retrieving balances for account: {} from: {} to: {}", accountId, from, to);
+        return aggregationService.getBalances(accountId, from, to, cumulative);
+    }
+
+    /**
+     * Spring 5 encodes a {@link Flux} as a JSON array only after collecting it, so unlike the servlet endpoint
+     * the response is not written while rows are read; rows are still fetched in bounded chunks.
+     */
+    @PostMapping(value = "/query", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<BalanceResponse> queryBalances(@Valid @RequestBody BalanceQueryRequest request) {
+        log.debug("Retrieving balances of {} accounts on date: {}", request.getAccountIds().size(), request.getDate());
+        return aggregationService.queryBalances(request.getAccountIds(), request.getDate());
+    }
+}
@@ -0,0 +1,95 @@
+package dev.tengiz.payment.reactive.controller;
+
+import dev.tengiz.payment.dto.response.ErrorResponse;
+import dev.tengiz.payment.exception.ConflictException;
+import dev.tengiz.payment.exception.InvalidRequestException;
+import dev.tengiz.payment.exception.ResourceNotFoundException;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import javax.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+/**
+ * The error bodies of {@code GlobalExceptionHandler}, mapped from the exceptions WebFlux raises instead of the
+ * servlet ones.
+ */
+@RestControllerAdvice
+@Slf4j
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFound(ResourceNotFoundException ex) {
+        log.error("Resource not found: {}", ex.getMessage());
+        return error(HttpStatus.NOT_FOUND, "NOT_FOUND", ex.getMessage(), null);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationException(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach(error ->
+            errors.put(((FieldError) error).getField(), error.getDefaultMessage()));
+        log.error("Validation failed: {}", errors);
+        return error(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", "Validation failed", errors);
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponse> handleConstraintViolation(ConstraintViolationException ex) {
+        log.error("Constraint violation: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, "CONSTRAINT_VIOLATION", ex.getMessage(), null);
+    }
+
+    /**
+     * WebFlux reports both unconvertible parameters and unreadable bodies as {@link ServerWebInputException}.
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleServerWebInput(ServerWebInputException ex) {
+        if (ex.getCause() instanceof TypeMismatchException mismatch) {
+            String name = ex.getMethodParameter() != null ? ex.getMethodParameter().getParameterName()
+                : mismatch.getPropertyName();
+            String message = String.format("Invalid value for parameter '%s': %s", name, mismatch.getValue());
+            log.error("Type mismatch: {}", message);
+            return error(HttpStatus.BAD_REQUEST, "TYPE_MISMATCH", message, null);
+        }
+        log.error("Malformed request: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, "MALFORMED_REQUEST", "Malformed request body", null);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequest(InvalidRequestException ex) {
+        log.error("Invalid request: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, "INVALID_REQUEST", ex.getMessage(), null);
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflict(ConflictException ex) {
+        log.error("Conflict: {}", ex.getMessage());
+        return error(HttpStatus.CONFLICT, "CONFLICT", ex.getMessage(), null);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
+        log.error("Unexpected error", ex);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR", "An unexpected error occurred", null);
+    }
+
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, String code, String message,
+                                                       Map<String, String> details) {
+        ErrorResponse error = ErrorResponse.builder()
+            .status(status.value())
+            .error(code)
+            .message(message)
+            .details(details)
+            .timestamp(OffsetDateTime.now())
+            .build();
+        return ResponseEntity.status(status).body(error);
+    }
+}
@@ -0,0 +1,63 @@
+package dev.tengiz.payment.reactive.controller;
+
+import dev.tengiz.payment.dto.request.BatchTransactionRequest;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.BatchTransactionResponse;
+import dev.tengiz.payment.dto.response.TransactionResponse;
+import dev.tengiz.payment.dto.response.TransactionStatus;
+import dev.tengiz.payment.mapper.TransactionMapper;
+import dev.tengiz.payment.reactive.service.ReactiveAggregationService;
+import dev.tengiz.payment.validation.TransactionRequestValidator;
+import javax.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * JSON transaction endpoints of {@code TransactionController} on WebFlux.
+ */
+@RestController
+@RequestMapping("/transactions")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveTransactionController {
+
+    private final ReactiveAggregationService aggregationService;
+    private final TransactionMapper transactionMapper;
+    private final TransactionRequestValidator transactionRequestValidator;
+
+    @InitBinder("transactionRequest")
+    public void initTransactionRequestBinder(WebDataBinder binder) {
+        binder.setValidator(transactionRequestValidator);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<TransactionResponse>> processTransaction(
+        @Valid @RequestBody TransactionRequest request
+    ) {
+        log.debug("Received transaction request: transactionId={}, accountId={}",
+            request.getTransactionId(), request.getAccountId());
+        return aggregationService.processTransaction(request)
+            .map(response -> ResponseEntity
+                .status(response.getStatus() == TransactionStatus.CREATED ? HttpStatus.CREATED : HttpStatus.OK)
+                .body(response));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<BatchTransactionResponse> processTransactions(@Valid @RequestBody BatchTransactionRequest request) {
+        log.debug("Received transaction batch request: size={}", request.getTransactions().size());
+        return aggregationService.processTransactions(request.getTransactions())
+            .map(transactionMapper::toBatchResponse);
+    }
+}
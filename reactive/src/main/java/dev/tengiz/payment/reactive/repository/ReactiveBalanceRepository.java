@@ -0,0 +1,90 @@
+package dev.tengiz.payment.reactive.repository;
+
+import dev.tengiz.payment.dto.BalanceRecord;
+import dev.tengiz.payment.dto.CurrencyBalance;
+import dev.tengiz.payment.dto.DailyCurrencyBalance;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Balance reads of {@code DailyBalanceRepository} as native SQL: per-currency totals summed over bucket rows.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveBalanceRepository {
+
+    private static final String CURRENCY_BALANCES_SQL = """
+        SELECT currency, SUM(balance) AS balance
+        FROM payment.daily_balance
+        WHERE account_id = $1 AND business_date = $2
+        GROUP BY currency
+        ORDER BY currency
+        """;
+
+    private static final String DAILY_BALANCES_SQL = """
+        SELECT currency, business_date, SUM(balance) AS balance
+        FROM payment.daily_balance
+        WHERE account_id = $1 AND business_date BETWEEN $2 AND $3
+        GROUP BY currency, business_date
+        ORDER BY currency, business_date
+        """;
+
+    private static final String ACCOUNT_BALANCES_SQL = """
+        SELECT account_id, currency, SUM(balance) AS balance
+        FROM payment.daily_balance
+        WHERE account_id = ANY($1) AND business_date = $2
+        GROUP BY account_id, currency
+        ORDER BY account_id, currency
+        """;
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<CurrencyBalance> findCurrencyBalances(String accountId, LocalDate date) {
+        return databaseClient.sql(CURRENCY_BALANCES_SQL)
+            .bind(0, accountId)
+            .bind(1, date)
+            .map((row, metadata) -> CurrencyBalance.builder()
+                .currency(row.get("currency", String.class))
+                .balance(row.get("balance", BigDecimal.class))
+                .build())
+            .all();
+    }
+
+    public Flux<DailyCurrencyBalance> findDailyBalances(String accountId, LocalDate from, LocalDate to) {
+        return databaseClient.sql(DAILY_BALANCES_SQL)
+            .bind(0, accountId)
+            .bind(1, from)
+            .bind(2, to)
+            .map((row, metadata) -> new DailyCurrencyBalance(
+                row.get("currency", String.class),
+                row.get("business_date", LocalDate.class),
+                row.get("balance", BigDecimal.class)))
+            .all();
+    }
+
+    /**
+     * Per-currency totals of many accounts for one date, ordered by account, fetched {@code fetchSize} rows
+     * at a time as the subscriber requests them.
+     */
+    public Flux<BalanceRecord> findAccountBalances(Collection<String> accountIds, LocalDate date, int fetchSize) {
+        if (accountIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql(ACCOUNT_BALANCES_SQL)
+            .filter(statement -> statement.fetchSize(fetchSize))
+            .bind(0, accountIds.toArray(String[]::new))
+            .bind(1, date)
+            .map((row, metadata) -> BalanceRecord.builder()
+                .accountId(row.get("account_id", String.class))
+                .currency(row.get("currency", String.class))
+                .businessDate(date)
+                .balance(row.get("balance", BigDecimal.class))
+                .build())
+            .all();
+    }
+}
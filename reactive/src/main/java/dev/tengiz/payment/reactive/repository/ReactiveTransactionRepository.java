@@ -0,0 +1,133 @@
+package dev.tengiz.payment.reactive.repository;
+
+import dev.tengiz.payment.dto.TransactionInsertResult;
+import dev.tengiz.payment.entity.Transaction;
+import dev.tengiz.payment.money.Money;
+import dev.tengiz.payment.repository.TransactionSql;
+import io.r2dbc.spi.Row;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs the insert statements of the servlet build ({@link TransactionSql}) over R2DBC. The PostgreSQL
+ * driver only understands numbered bind markers, so their {@code ?} placeholders are renumbered once.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveTransactionRepository {
+
+    private static final String SINGLE_SQL = toBindMarkers(TransactionSql.SINGLE);
+    private static final String BATCH_SQL = toBindMarkers(TransactionSql.BATCH);
+
+    /**
+     * Stored rows of the given ids, looked up through the id registry like {@code TransactionRepository.findById}.
+     */
+    private static final String EXISTING_SQL = """
+        SELECT tx.transaction_id, FALSE AS inserted, tx.account_id, tx.currency, tx.amount
+        FROM payment.transaction_ids r
+        JOIN payment.transactions tx ON tx.business_date = r.business_date AND tx.seq = r.seq
+        WHERE r.transaction_id = ANY($1::uuid[])
+        """;
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * @see dev.tengiz.payment.repository.TransactionRepositoryCustom#processTransactionAtomically
+     * @return the inserted or existing row, or empty if a concurrent request inserted the id after the
+     *         statement started
+     */
+    public Mono<TransactionInsertResult> processTransactionAtomically(Transaction tx) {
+        return databaseClient.sql(SINGLE_SQL)
+            .bind(0, tx.getTransactionId())
+            .bind(1, tx.getAccountId())
+            .bind(2, tx.getCurrency())
+            .bind(3, Money.toBigDecimal(tx.getAmount()))
+            .bind(4, tx.getTsUtc())
+            .bind(5, tx.getBusinessDate())
+            .map((row, metadata) -> toInsertResult(row))
+            .one();
+    }
+
+    /**
+     * @see dev.tengiz.payment.repository.TransactionRepositoryCustom#processTransactionsAtomically
+     */
+    public Flux<TransactionInsertResult> processTransactionsAtomically(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return Flux.empty();
+        }
+        int size = transactions.size();
+        String[] ids = new String[size];
+        String[] accounts = new String[size];
+        String[] currencies = new String[size];
+        String[] amounts = new String[size];
+        String[] timestamps = new String[size];
+        String[] businessDates = new String[size];
+        for (int i = 0; i < size; i++) {
+            Transaction tx = transactions.get(i);
+            ids[i] = tx.getTransactionId().toString();
+            accounts[i] = tx.getAccountId();
+            currencies[i] = tx.getCurrency();
+            amounts[i] = Money.toPlainString(tx.getAmount());
+            timestamps[i] = tx.getTsUtc().toString();
+            businessDates[i] = tx.getBusinessDate().toString();
+        }
+        // Text arrays, cast by the statement like the JDBC build does
+        return databaseClient.sql(BATCH_SQL)
+            .bind(0, ids)
+            .bind(1, accounts)
+            .bind(2, currencies)
+            .bind(3, amounts)
+            .bind(4, timestamps)
+            .bind(5, businessDates)
+            .map((row, metadata) -> toInsertResult(row))
+            .all();
+    }
+
+    /**
+     * Stored rows of ids inserted by a concurrent request after a statement took its snapshot.
+     */
+    public Flux<TransactionInsertResult> findExisting(Collection<UUID> transactionIds) {
+        if (transactionIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql(EXISTING_SQL)
+            .bind(0, transactionIds.stream().map(UUID::toString).toArray(String[]::new))
+            .map((row, metadata) -> toInsertResult(row))
+            .all();
+    }
+
+    private static TransactionInsertResult toInsertResult(Row row) {
+        return TransactionInsertResult.builder()
+            .transactionId(row.get("transaction_id", UUID.class))
+            .inserted(Boolean.TRUE.equals(row.get("inserted", Boolean.class)))
+            .accountId(row.get("account_id", String.class))
+            .currency(row.get("currency", String.class))
+            .amount(Money.toUnits(row.get("amount", BigDecimal.class)))
+            .build();
+    }
+
+    /**
+     * Replace the JDBC {@code ?} placeholders with PostgreSQL's {@code $1, $2, ...}. The shared statements
+     * contain no {@code ?} other than placeholders.
+     */
+    static String toBindMarkers(String sql) {
+        StringBuilder result = new StringBuilder(sql.length() + 16);
+        int index = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                result.append('$').append(++index);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
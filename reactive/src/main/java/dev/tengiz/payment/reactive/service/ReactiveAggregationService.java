@@ -0,0 +1,57 @@
+package dev.tengiz.payment.reactive.service;
+
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.BalanceRangeResponse;
+import dev.tengiz.payment.dto.response.BalanceResponse;
+import dev.tengiz.payment.dto.response.TransactionResponse;
+import java.time.LocalDate;
+import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@code AggregationService} with the same semantics and errors.
+ */
+public interface ReactiveAggregationService {
+
+    /**
+     * Process a transaction atomically, updating daily balance
+     * @param request transaction details
+     * @return response indicating success or duplicate, or a {@code ConflictException} error
+     */
+    Mono<TransactionResponse> processTransaction(TransactionRequest request);
+
+    /**
+     * Process a batch of transactions atomically in a single database round-trip
+     * @param requests transaction details
+     * @return one response per request, in request order
+     */
+    Mono<List<TransactionResponse>> processTransactions(List<TransactionRequest> requests);
+
+    /**
+     * Retrieve daily balances for an account
+     * @param accountId account identifier
+     * @param date business date (UTC)
+     * @return balance response with all currencies, or a {@code ResourceNotFoundException} error
+     */
+    Mono<BalanceResponse> getBalance(String accountId, LocalDate date);
+
+    /**
+     * Retrieve per-day balances for an account over a date range in a single query
+     * @param accountId account identifier
+     * @param from first business date (UTC), inclusive
+     * @param to last business date (UTC), inclusive
+     * @param cumulative return running totals since {@code from} instead of daily balances
+     * @return one series per currency, empty if the account had no activity in the range
+     */
+    Mono<BalanceRangeResponse> getBalances(String accountId, LocalDate from, LocalDate to, boolean cumulative);
+
+    /**
+     * Retrieve the balances of many accounts for one date in a single query
+     * @param accountIds account identifiers, at most {@code payment.balance-query.max-accounts}
+     * @param date business date (UTC)
+     * @return one response per account with a balance, ordered by account id, each emitted as soon as its
+     *         rows have been read
+     */
+    Flux<BalanceResponse> queryBalances(List<String> accountIds, LocalDate date);
+}
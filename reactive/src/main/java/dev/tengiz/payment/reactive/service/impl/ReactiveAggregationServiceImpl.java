@@ -0,0 +1,195 @@
+package dev.tengiz.payment.reactive.service.impl;
+
+import dev.tengiz.payment.config.BalanceQueryProperties;
+import dev.tengiz.payment.dto.BalanceRecord;
+import dev.tengiz.payment.dto.CurrencyBalance;
+import dev.tengiz.payment.dto.TransactionInsertResult;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.BalanceRangeResponse;
+import dev.tengiz.payment.dto.response.BalanceResponse;
+import dev.tengiz.payment.dto.response.TransactionResponse;
+import dev.tengiz.payment.entity.Transaction;
+import dev.tengiz.payment.exception.ConflictException;
+import dev.tengiz.payment.exception.InvalidRequestException;
+import dev.tengiz.payment.exception.ResourceNotFoundException;
+import dev.tengiz.payment.mapper.BalanceMapper;
+import dev.tengiz.payment.mapper.TransactionMapper;
+import dev.tengiz.payment.reactive.repository.ReactiveBalanceRepository;
+import dev.tengiz.payment.reactive.repository.ReactiveTransactionRepository;
+import dev.tengiz.payment.reactive.service.ReactiveAggregationService;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Same flow as {@code AggregationServiceImpl} in synchronous aggregation mode. Each insert is a single
+ * statement, so it commits on its own without a surrounding transaction. The servlet build's caches,
+ * hot-account detection and write-behind mode are not part of this variant.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveAggregationServiceImpl implements ReactiveAggregationService {
+
+    /** Longest date range served by {@link #getBalances}. */
+    static final int MAX_RANGE_DAYS = 366;
+
+    private final ReactiveTransactionRepository transactionRepository;
+    private final ReactiveBalanceRepository balanceRepository;
+    private final TransactionMapper transactionMapper;
+    private final BalanceMapper balanceMapper;
+    private final BalanceQueryProperties balanceQueryProperties;
+
+    @Override
+    public Mono<TransactionResponse> processTransaction(TransactionRequest request) {
+        log.debug("Processing transaction: {}", request.getTransactionId());
+
+        Transaction tx = transactionMapper.toTransaction(request);
+        return transactionRepository.processTransactionAtomically(tx)
+            .switchIfEmpty(Mono.defer(() -> findExisting(tx.getTransactionId())))
+            .flatMap(result -> {
+                if (result.isInserted()) {
+                    return Mono.just(transactionMapper.toCreatedResponse(request));
+                }
+                if (result.getAmount() == null) {
+                    return Mono.error(new ConflictException(transactionMapper.toUnverifiableMessage(request)));
+                }
+                if (isConflicting(result, tx)) {
+                    return Mono.error(new ConflictException(transactionMapper.toConflictMessage(request, result)));
+                }
+                log.debug("Duplicate transaction detected: {}", tx.getTransactionId());
+                return Mono.just(transactionMapper.toDuplicateResponse(request));
+            });
+    }
+
+    @Override
+    public Mono<List<TransactionResponse>> processTransactions(List<TransactionRequest> requests) {
+        log.debug("Processing batch of {} transactions", requests.size());
+
+        List<Transaction> transactions = requests.stream()
+            .map(transactionMapper::toTransaction)
+            .collect(Collectors.toList());
+
+        return transactionRepository.processTransactionsAtomically(transactions)
+            .collectMap(TransactionInsertResult::getTransactionId)
+            .flatMap(results -> resolveConcurrentDuplicates(transactions, results))
+            .map(results -> toBatchResponses(requests, transactions, results));
+    }
+
+    private List<TransactionResponse> toBatchResponses(List<TransactionRequest> requests, List<Transaction> transactions,
+                                                       Map<UUID, TransactionInsertResult> results) {
+        List<TransactionResponse> responses = new ArrayList<>(requests.size());
+        Set<UUID> created = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionRequest request = requests.get(i);
+            Transaction tx = transactions.get(i);
+            TransactionInsertResult result = results.get(tx.getTransactionId());
+
+            // Only the first occurrence of an id within the batch is the one that got inserted
+            if (result != null && result.isInserted() && created.add(tx.getTransactionId())) {
+                responses.add(transactionMapper.toCreatedResponse(request));
+            } else if (result == null) {
+                responses.add(transactionMapper.toUnverifiableResponse(request));
+            } else if (isConflicting(result, tx)) {
+                responses.add(transactionMapper.toConflictResponse(request, result));
+            } else {
+                responses.add(transactionMapper.toDuplicateResponse(request));
+            }
+        }
+        log.debug("Batch of {} transactions processed, {} created", requests.size(), created.size());
+        return responses;
+    }
+
+    @Override
+    public Mono<BalanceResponse> getBalance(String accountId, LocalDate date) {
+        log.debug("Retrieving balance for account {} on date {}", accountId, date);
+
+        return balanceRepository.findCurrencyBalances(accountId, date)
+            .collectList()
+            .flatMap(balances -> balances.isEmpty()
+                ? Mono.error(new ResourceNotFoundException(
+                    String.format("No balance found for account %s on date %s", accountId, date)))
+                : Mono.just(balanceMapper.toBalanceResponseFromTotals(accountId, date, balances)));
+    }
+
+    @Override
+    public Mono<BalanceRangeResponse> getBalances(String accountId, LocalDate from, LocalDate to, boolean cumulative) {
+        log.debug("Retrieving balances for account {} from {} to {}", accountId, from, to);
+
+        if (from.isAfter(to)) {
+            return Mono.error(new InvalidRequestException(String.format("from %s is after to %s", from, to)));
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            return Mono.error(new InvalidRequestException(
+                String.format("Date range must not exceed %d days", MAX_RANGE_DAYS)));
+        }
+        return balanceRepository.findDailyBalances(accountId, from, to)
+            .collectList()
+            .map(days -> balanceMapper.toBalanceRangeResponse(accountId, from, to, cumulative, days));
+    }
+
+    @Override
+    public Flux<BalanceResponse> queryBalances(List<String> accountIds, LocalDate date) {
+        if (accountIds.size() > balanceQueryProperties.getMaxAccounts()) {
+            return Flux.error(new InvalidRequestException(String.format(
+                "Balance query must contain at most %d accounts", balanceQueryProperties.getMaxAccounts())));
+        }
+        log.debug("Retrieving balances of {} accounts for date {}", accountIds.size(), date);
+
+        // Rows arrive ordered by account, so each account is complete once the next one starts
+        return balanceRepository.findAccountBalances(new LinkedHashSet<>(accountIds), date,
+                balanceQueryProperties.getFetchSize())
+            .bufferUntilChanged(BalanceRecord::getAccountId)
+            .map(rows -> balanceMapper.toBalanceResponseFromTotals(rows.get(0).getAccountId(), date,
+                rows.stream()
+                    .map(row -> CurrencyBalance.builder().currency(row.getCurrency()).balance(row.getBalance()).build())
+                    .collect(Collectors.toList())));
+    }
+
+    /**
+     * Fallback for an id inserted by a concurrent request after the statement took its snapshot. An id
+     * whose row is still not found is registered in a detached partition and comes back without stored values.
+     */
+    private Mono<TransactionInsertResult> findExisting(UUID txId) {
+        return transactionRepository.findExisting(List.of(txId))
+            .next()
+            .defaultIfEmpty(TransactionInsertResult.builder().transactionId(txId).inserted(false).build());
+    }
+
+    private Mono<Map<UUID, TransactionInsertResult>> resolveConcurrentDuplicates(
+        List<Transaction> transactions, Map<UUID, TransactionInsertResult> results) {
+        Set<UUID> missing = transactions.stream()
+            .map(Transaction::getTransactionId)
+            .filter(txId -> !results.containsKey(txId))
+            .collect(Collectors.toSet());
+        if (missing.isEmpty()) {
+            return Mono.just(results);
+        }
+        Map<UUID, TransactionInsertResult> resolved = new HashMap<>(results);
+        return transactionRepository.findExisting(missing)
+            .doOnNext(existing -> resolved.put(existing.getTransactionId(), existing))
+            .then(Mono.just(resolved));
+    }
+
+    /**
+     * A retry must carry the same amount, account and currency as the stored transaction.
+     */
+    private boolean isConflicting(TransactionInsertResult existing, Transaction provided) {
+        return (existing.getAmount() != null && existing.getAmount() != provided.getAmount())
+            || (existing.getAccountId() != null && !existing.getAccountId().equals(provided.getAccountId()))
+            || (existing.getCurrency() != null && !existing.getCurrency().equals(provided.getCurrency()));
+    }
+}
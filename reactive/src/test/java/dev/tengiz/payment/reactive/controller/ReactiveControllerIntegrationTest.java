@@ -0,0 +1,142 @@
+package dev.tengiz.payment.reactive.controller;
+
+import dev.tengiz.payment.dto.request.BalanceQueryRequest;
+import dev.tengiz.payment.dto.request.BatchTransactionRequest;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+@Testcontainers
+class ReactiveControllerIntegrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void registerDatabaseProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.url", () -> String.format("r2dbc:postgresql://%s:%d/%s",
+            postgres.getHost(), postgres.getFirstMappedPort(), postgres.getDatabaseName()));
+        registry.add("spring.r2dbc.username", postgres::getUsername);
+        registry.add("spring.r2dbc.password", postgres::getPassword);
+        registry.add("spring.flyway.url", postgres::getJdbcUrl);
+        registry.add("payment.balance-query.max-accounts", () -> 100);
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void processTransaction_NewThenRetryThenDifferentAmount() {
+        TransactionRequest request = request("ACC-R1", "250.75");
+
+        post("/transactions", request).expectStatus().isCreated()
+            .expectBody().jsonPath("$.status").isEqualTo("CREATED");
+        post("/transactions", request).expectStatus().isOk()
+            .expectBody().jsonPath("$.status").isEqualTo("DUPLICATE");
+
+        request.setAmount(new BigDecimal("1.00"));
+        post("/transactions", request).expectStatus().isEqualTo(409)
+            .expectBody().jsonPath("$.error").isEqualTo("CONFLICT");
+    }
+
+    @Test
+    void processTransaction_InvalidRequest_Returns400WithFieldErrors() {
+        TransactionRequest request = request("ACC-R2", "10.00");
+        request.setTransactionId("not-a-uuid");
+
+        post("/transactions", request).expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("VALIDATION_ERROR")
+            .jsonPath("$.details.transactionId").exists();
+    }
+
+    @Test
+    void processTransactions_ReportsResultPerTransaction() {
+        TransactionRequest first = request("ACC-R3", "10.00");
+        BatchTransactionRequest batch = BatchTransactionRequest.builder()
+            .transactions(List.of(first, first, request("ACC-R3", "5.00")))
+            .build();
+
+        post("/transactions/batch", batch).expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.created").isEqualTo(2)
+            .jsonPath("$.duplicates").isEqualTo(1)
+            .jsonPath("$.results[1].status").isEqualTo("DUPLICATE");
+    }
+
+    @Test
+    void getBalance_SumsTransactionsOfTheDay() {
+        post("/transactions", request("ACC-R4", "100.00")).expectStatus().isCreated();
+        post("/transactions", request("ACC-R4", "-30.50")).expectStatus().isCreated();
+
+        webTestClient.get().uri("/balances/ACC-R4?date={date}", today())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.balances[0].currency").isEqualTo("USD")
+            .jsonPath("$.balances[0].balance").isEqualTo(69.5);
+
+        webTestClient.get().uri("/balances/ACC-R4?date={date}", today().minusDays(1))
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getBalances_InvalidRange_Returns400() {
+        webTestClient.get().uri("/balances/ACC-R5?from={from}&to={to}", today(), today().minusDays(1))
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody().jsonPath("$.error").isEqualTo("INVALID_REQUEST");
+    }
+
+    @Test
+    void queryBalances_ReturnsAccountsWithBalances() {
+        post("/transactions", request("ACC-R6", "1.00")).expectStatus().isCreated();
+        post("/transactions", request("ACC-R7", "2.00")).expectStatus().isCreated();
+        BalanceQueryRequest query = new BalanceQueryRequest(List.of("ACC-R6", "ACC-R7", "ACC-R8"), today());
+
+        post("/balances/query", query).expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(2)
+            .jsonPath("$[0].accountId").isEqualTo("ACC-R6")
+            .jsonPath("$[1].accountId").isEqualTo("ACC-R7");
+    }
+
+    private WebTestClient.ResponseSpec post(String uri, Object body) {
+        return webTestClient.post().uri(uri)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(body)
+            .exchange();
+    }
+
+    private static TransactionRequest request(String accountId, String amount) {
+        return TransactionRequest.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .accountId(accountId)
+            .amount(new BigDecimal(amount))
+            .currency("USD")
+            .timestamp(OffsetDateTime.now(ZoneOffset.UTC))
+            .build();
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+}
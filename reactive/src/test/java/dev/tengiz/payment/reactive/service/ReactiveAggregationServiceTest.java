@@ -0,0 +1,203 @@
+package dev.tengiz.payment.reactive.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.tengiz.payment.config.BalanceQueryProperties;
+import dev.tengiz.payment.dto.BalanceRecord;
+import dev.tengiz.payment.dto.TransactionInsertResult;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.TransactionResponse;
+import dev.tengiz.payment.dto.response.TransactionStatus;
+import dev.tengiz.payment.exception.ConflictException;
+import dev.tengiz.payment.exception.InvalidRequestException;
+import dev.tengiz.payment.exception.ResourceNotFoundException;
+import dev.tengiz.payment.mapper.BalanceMapper;
+import dev.tengiz.payment.mapper.TransactionMapper;
+import dev.tengiz.payment.money.Money;
+import dev.tengiz.payment.reactive.repository.ReactiveBalanceRepository;
+import dev.tengiz.payment.reactive.repository.ReactiveTransactionRepository;
+import dev.tengiz.payment.reactive.service.impl.ReactiveAggregationServiceImpl;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveAggregationServiceTest {
+
+    @Mock
+    private ReactiveTransactionRepository transactionRepository;
+
+    @Mock
+    private ReactiveBalanceRepository balanceRepository;
+
+    @Spy
+    private TransactionMapper transactionMapper = new TransactionMapper();
+
+    @Spy
+    private BalanceMapper balanceMapper = new BalanceMapper();
+
+    @Spy
+    private BalanceQueryProperties balanceQueryProperties = new BalanceQueryProperties();
+
+    @InjectMocks
+    private ReactiveAggregationServiceImpl aggregationService;
+
+    private TransactionRequest validRequest;
+
+    @BeforeEach
+    void setUp() {
+        validRequest = TransactionRequest.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .accountId("ACC-123")
+            .amount(new BigDecimal("100.50"))
+            .currency("USD")
+            .timestamp(OffsetDateTime.now())
+            .build();
+    }
+
+    @Test
+    void processTransaction_NewTransaction_ReturnsCreated() {
+        when(transactionRepository.processTransactionAtomically(any()))
+            .thenReturn(Mono.just(result(validRequest, true, "100.50")));
+
+        StepVerifier.create(aggregationService.processTransaction(validRequest))
+            .assertNext(response -> assertThat(response.getStatus()).isEqualTo(TransactionStatus.CREATED))
+            .verifyComplete();
+        verify(transactionRepository, never()).findExisting(anyCollection());
+    }
+
+    @Test
+    void processTransaction_DifferentAmount_FailsWithConflict() {
+        when(transactionRepository.processTransactionAtomically(any()))
+            .thenReturn(Mono.just(result(validRequest, false, "99.00")));
+
+        StepVerifier.create(aggregationService.processTransaction(validRequest))
+            .expectError(ConflictException.class)
+            .verify();
+    }
+
+    @Test
+    void processTransaction_InsertedConcurrently_ResolvesDuplicateFromExistingRow() {
+        when(transactionRepository.processTransactionAtomically(any())).thenReturn(Mono.empty());
+        when(transactionRepository.findExisting(anyCollection()))
+            .thenReturn(Flux.just(result(validRequest, false, "100.50")));
+
+        StepVerifier.create(aggregationService.processTransaction(validRequest))
+            .assertNext(response -> assertThat(response.getStatus()).isEqualTo(TransactionStatus.DUPLICATE))
+            .verifyComplete();
+    }
+
+    @Test
+    void processTransaction_RegisteredIdInDetachedPartition_FailsWithConflict() {
+        when(transactionRepository.processTransactionAtomically(any())).thenReturn(Mono.empty());
+        when(transactionRepository.findExisting(anyCollection())).thenReturn(Flux.empty());
+
+        StepVerifier.create(aggregationService.processTransaction(validRequest))
+            .expectErrorSatisfies(error -> assertThat(error)
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("archived partition"))
+            .verify();
+    }
+
+    @Test
+    void processTransactions_RepeatedId_OnlyFirstOccurrenceIsCreated() {
+        TransactionRequest conflicting = TransactionRequest.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .accountId("ACC-123")
+            .amount(new BigDecimal("5"))
+            .currency("USD")
+            .timestamp(OffsetDateTime.now())
+            .build();
+        when(transactionRepository.processTransactionsAtomically(anyList())).thenReturn(Flux.just(
+            result(validRequest, true, "100.50"), result(conflicting, false, "6")));
+
+        StepVerifier.create(aggregationService.processTransactions(List.of(validRequest, validRequest, conflicting)))
+            .assertNext(responses -> assertThat(responses).extracting(TransactionResponse::getStatus)
+                .containsExactly(TransactionStatus.CREATED, TransactionStatus.DUPLICATE, TransactionStatus.CONFLICT))
+            .verifyComplete();
+    }
+
+    @Test
+    void getBalance_NoRows_FailsWithNotFound() {
+        LocalDate date = LocalDate.of(2026, 1, 15);
+        when(balanceRepository.findCurrencyBalances("ACC-123", date)).thenReturn(Flux.empty());
+
+        StepVerifier.create(aggregationService.getBalance("ACC-123", date))
+            .expectError(ResourceNotFoundException.class)
+            .verify();
+    }
+
+    @Test
+    void getBalances_RangeTooLong_FailsWithoutQuerying() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+
+        StepVerifier.create(aggregationService.getBalances("ACC-123", from, from.plusDays(366), false))
+            .expectError(InvalidRequestException.class)
+            .verify();
+        verify(balanceRepository, never()).findDailyBalances(any(), any(), any());
+    }
+
+    @Test
+    void queryBalances_GroupsRowsByAccount() {
+        LocalDate date = LocalDate.of(2026, 1, 15);
+        when(balanceRepository.findAccountBalances(any(), eq(date), anyInt())).thenReturn(Flux.just(
+            record("ACC-1", "EUR", "1.00", date), record("ACC-1", "USD", "2.00", date), record("ACC-2", "USD", "3.00", date)));
+
+        StepVerifier.create(aggregationService.queryBalances(List.of("ACC-1", "ACC-2", "ACC-3"), date))
+            .assertNext(balance -> {
+                assertThat(balance.getAccountId()).isEqualTo("ACC-1");
+                assertThat(balance.getBalances()).hasSize(2);
+            })
+            .assertNext(balance -> assertThat(balance.getAccountId()).isEqualTo("ACC-2"))
+            .verifyComplete();
+    }
+
+    @Test
+    void queryBalances_TooManyAccounts_FailsWithoutQuerying() {
+        balanceQueryProperties.setMaxAccounts(1);
+
+        StepVerifier.create(aggregationService.queryBalances(List.of("ACC-1", "ACC-2"), LocalDate.now()))
+            .expectError(InvalidRequestException.class)
+            .verify();
+        verify(balanceRepository, never()).findAccountBalances(any(), any(), anyInt());
+    }
+
+    private static TransactionInsertResult result(TransactionRequest request, boolean inserted, String amount) {
+        return TransactionInsertResult.builder()
+            .transactionId(UUID.fromString(request.getTransactionId()))
+            .inserted(inserted)
+            .accountId(request.getAccountId())
+            .currency(request.getCurrency())
+            .amount(Money.toUnits(new BigDecimal(amount)))
+            .build();
+    }
+
+    private static BalanceRecord record(String accountId, String currency, String balance, LocalDate date) {
+        return BalanceRecord.builder()
+            .accountId(accountId)
+            .currency(currency)
+            .businessDate(date)
+            .balance(new BigDecimal(balance))
+            .build();
+    }
+}
@@ -0,0 +1,106 @@
+package dev.tengiz.payment.benchmark;
+
+import dev.tengiz.payment.PaymentApplication;
+import dev.tengiz.payment.dto.response.BalanceResponse;
+import dev.tengiz.payment.entity.Transaction;
+import dev.tengiz.payment.mapper.BalanceMapper;
+import dev.tengiz.payment.repository.DailyBalanceRepository;
+import dev.tengiz.payment.repository.TransactionRepository;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Balance read path without the cache: JPA entities mapped to DTOs versus the constructor projection.
+ * Run with the default {@code gc} profiler and compare {@code gc.alloc.rate.norm} (bytes per read).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BalanceReadBenchmark {
+
+    private static final String ACCOUNT_ID = "BENCH-READ";
+    private static final LocalDate DATE = LocalDate.of(2025, 2, 1);
+
+    @Param({"1", "10"})
+    private int currencies;
+
+    private BenchmarkDatabase database;
+    private ConfigurableApplicationContext context;
+    private DailyBalanceRepository dailyBalanceRepository;
+    private BalanceMapper balanceMapper;
+    private TransactionTemplate readOnly;
+    private String accountId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start();
+        context = new SpringApplication(PaymentApplication.class).run(database.springArguments(
+            "--server.port=0",
+            "--logging.level.dev.tengiz.payment=WARN",
+            "--logging.level.org.springframework.web=WARN"
+        ));
+        dailyBalanceRepository = context.getBean(DailyBalanceRepository.class);
+        balanceMapper = context.getBean(BalanceMapper.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        // Separate account per trial so reused databases do not accumulate currencies
+        accountId = ACCOUNT_ID + "-" + currencies + "-" + UUID.randomUUID();
+        List<Transaction> seed = new ArrayList<>();
+        OffsetDateTime timestamp = DATE.atStartOfDay().atOffset(ZoneOffset.UTC);
+        for (int i = 0; i < currencies; i++) {
+            seed.add(Transaction.builder()
+                .transactionId(UUID.randomUUID())
+                .accountId(accountId)
+                .currency(String.format("C%02d", i))
+                .amount(100_000L)
+                .tsUtc(timestamp)
+                .businessDate(DATE)
+                .build());
+        }
+        context.getBean(TransactionRepository.class).processTransactionsAtomically(seed);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        database.close();
+    }
+
+    @Benchmark
+    public BalanceResponse readEntities() {
+        return readOnly.execute(status -> balanceMapper.toBalanceResponse(
+            accountId, DATE, dailyBalanceRepository.findByAccountAndDate(accountId, DATE)));
+    }
+
+    @Benchmark
+    public BalanceResponse readProjection() {
+        return readOnly.execute(status -> balanceMapper.toBalanceResponseFromTotals(
+            accountId, DATE, dailyBalanceRepository.findCurrencyBalances(accountId, DATE)));
+    }
+}
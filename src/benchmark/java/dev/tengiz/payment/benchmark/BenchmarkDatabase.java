@@ -0,0 +1,64 @@
+package dev.tengiz.payment.benchmark;
+
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * PostgreSQL used by database benchmarks: a Testcontainers instance by default, or an existing
+ * database when {@code BENCHMARK_JDBC_URL} (plus {@code BENCHMARK_DB_USERNAME} and
+ * {@code BENCHMARK_DB_PASSWORD}) is set. Environment variables are used because they reach the
+ * forked benchmark JVMs.
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+    private final PostgreSQLContainer<?> container;
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+
+    private BenchmarkDatabase(PostgreSQLContainer<?> container, String jdbcUrl, String username, String password) {
+        this.container = container;
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+    }
+
+    static BenchmarkDatabase start() {
+        String jdbcUrl = System.getenv("BENCHMARK_JDBC_URL");
+        if (jdbcUrl != null) {
+            return new BenchmarkDatabase(null, jdbcUrl,
+                System.getenv().getOrDefault("BENCHMARK_DB_USERNAME", "payment_user"),
+                System.getenv().getOrDefault("BENCHMARK_DB_PASSWORD", "payment_pass"));
+        }
+        PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:15-alpine");
+        container.start();
+        return new BenchmarkDatabase(container, container.getJdbcUrl(), container.getUsername(), container.getPassword());
+    }
+
+    /**
+     * Command line arguments pointing the application at this database, followed by {@code extra}.
+     */
+    String[] springArguments(String... extra) {
+        return Stream.concat(Stream.of(
+            "--spring.datasource.url=" + jdbcUrl,
+            "--spring.datasource.username=" + username,
+            "--spring.datasource.password=" + password
+        ), Stream.of(extra)).toArray(String[]::new);
+    }
+
+    /**
+     * Unpooled data source for benchmarks that work below the application, with plain JDBC.
+     */
+    DataSource dataSource() {
+        return new SimpleDriverDataSource(new org.postgresql.Driver(), jdbcUrl, username, password);
+    }
+
+    @Override
+    public void close() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package dev.tengiz.payment.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.TransactionResponse;
+import dev.tengiz.payment.entity.Transaction;
+import dev.tengiz.payment.logging.LogMarkers;
+import dev.tengiz.payment.logging.SamplingTurboFilter;
+import dev.tengiz.payment.mapper.TransactionMapper;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Request throughput of the in-memory part of {@code POST /transactions} with the log statements the
+ * controller and service emit per request, repeated {@code logsPerRequest} times to raise the log volume.
+ *
+ * <p>The appender writes to a sink that takes {@code sinkMicros} per write, like a contended pipe or disk.
+ * {@code sync-debug} is the previous configuration (DEBUG, synchronous console pattern), {@code async-json} and
+ * {@code async-json-sampled} mirror the prod profile of {@code logback-spring.xml} without and with sampling.
+ * The prod appender never blocks and drops INFO events once its queue runs low, so each iteration prints how many
+ * events were logged, written and discarded; {@code async-json-blocking} is the same appender with nothing
+ * discarded, where request threads wait for queue space once the sink falls behind.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"sync-debug", "async-json", "async-json-blocking", "async-json-sampled"})
+    private String config;
+
+    @Param({"1", "10"})
+    private int logsPerRequest;
+
+    @Param({"20"})
+    private int sinkMicros;
+
+    private final TransactionMapper transactionMapper = new TransactionMapper();
+    private final LongAdder logged = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    private LoggerContext context;
+    private Appender<ILoggingEvent> appender;
+    private org.slf4j.Logger controllerLog;
+    private org.slf4j.Logger serviceLog;
+    private TransactionRequest request;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+
+        appender = switch (config) {
+            case "sync-debug" -> sink(patternEncoder());
+            case "async-json" -> async(sink(jsonEncoder()), true);
+            case "async-json-blocking" -> async(sink(jsonEncoder()), false);
+            case "async-json-sampled" -> {
+                SamplingTurboFilter filter = new SamplingTurboFilter();
+                filter.setSampleRate(100);
+                filter.start();
+                context.addTurboFilter(filter);
+                yield async(sink(jsonEncoder()), true);
+            }
+            default -> throw new IllegalArgumentException("Unknown config " + config);
+        };
+
+        appender.addFilter(new Filter<>() {
+            @Override
+            public FilterReply decide(ILoggingEvent event) {
+                logged.increment();
+                return FilterReply.NEUTRAL;
+            }
+        });
+
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(config.equals("sync-debug") ? Level.DEBUG : Level.INFO);
+        root.addAppender(appender);
+
+        controllerLog = context.getLogger("dev.tengiz.payment.controller.TransactionController");
+        serviceLog = context.getLogger("dev.tengiz.payment.service.impl.AggregationServiceImpl");
+        request = TransactionRequest.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .accountId("ACC-123")
+            .amount(new BigDecimal("150.75"))
+            .currency("USD")
+            .timestamp(OffsetDateTime.of(2025, 1, 30, 12, 34, 56, 0, ZoneOffset.UTC))
+            .build();
+    }
+
+    /**
+     * Waits for the async appender to empty its queue, so every event not written by now was discarded.
+     */
+    @TearDown(org.openjdk.jmh.annotations.Level.Iteration)
+    public void reportDiscardedEvents() {
+        if (appender instanceof AsyncAppender async) {
+            while (async.getNumberOfElementsInQueue() > 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        long loggedEvents = logged.sumThenReset();
+        long writtenEvents = written.sumThenReset();
+        long discarded = loggedEvents - writtenEvents;
+        System.out.printf("%n%s: %,d events logged, %,d written, %,d discarded (%.1f%%)%n", config,
+            loggedEvents, writtenEvents, discarded, loggedEvents == 0 ? 0.0 : 100.0 * discarded / loggedEvents);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public TransactionResponse processTransaction() {
+        for (int i = 0; i < logsPerRequest; i++) {
+            controllerLog.info(LogMarkers.PER_REQUEST,
+                "Received transaction request: transactionId={}, accountId={}, amount={}, currency={}",
+                request.getTransactionId(), request.getAccountId(),
+                request.getAmount(), request.getCurrency());
+            serviceLog.debug("Processing transaction: {}", request.getTransactionId());
+        }
+        Transaction transaction = transactionMapper.toTransaction(request);
+        serviceLog.info(LogMarkers.PER_REQUEST, "Transaction {} processed successfully for account {}",
+            transaction.getTransactionId(), transaction.getAccountId());
+        return transactionMapper.toCreatedResponse(request);
+    }
+
+    private Encoder<ILoggingEvent> patternEncoder() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5p --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> jsonEncoder() {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+        return encoder;
+    }
+
+    private Appender<ILoggingEvent> sink(Encoder<ILoggingEvent> encoder) {
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(new SlowOutputStream(TimeUnit.MICROSECONDS.toNanos(sinkMicros), written));
+        appender.start();
+        return appender;
+    }
+
+    private Appender<ILoggingEvent> async(Appender<ILoggingEvent> delegate, boolean discarding) {
+        AsyncAppender appender = new AsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(8192);
+        appender.setNeverBlock(discarding);
+        if (!discarding) {
+            appender.setDiscardingThreshold(0);
+        }
+        appender.setIncludeCallerData(false);
+        appender.addAppender(delegate);
+        appender.start();
+        return appender;
+    }
+
+    /**
+     * Discards the bytes after parking for a fixed time per write. The encoders write each event with one
+     * call, so the writes count the events that reached the sink.
+     */
+    private static final class SlowOutputStream extends OutputStream {
+
+        private final long writeNanos;
+        private final LongAdder writes;
+
+        private SlowOutputStream(long writeNanos, LongAdder writes) {
+            this.writeNanos = writeNanos;
+            this.writes = writes;
+        }
+
+        @Override
+        public void write(int b) {
+            LockSupport.parkNanos(writeNanos);
+            writes.increment();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            LockSupport.parkNanos(writeNanos);
+            writes.increment();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package dev.tengiz.payment.benchmark;
+
+import dev.tengiz.payment.dto.DailyCurrencyBalance;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.BalanceRangeResponse;
+import dev.tengiz.payment.dto.response.BalanceResponse;
+import dev.tengiz.payment.entity.Transaction;
+import dev.tengiz.payment.entity.DailyBalance;
+import dev.tengiz.payment.mapper.BalanceMapper;
+import dev.tengiz.payment.mapper.TransactionMapper;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 30);
+
+    private final TransactionMapper transactionMapper = new TransactionMapper();
+    private final BalanceMapper balanceMapper = new BalanceMapper();
+    private final OffsetDateTime timestamp = OffsetDateTime.of(2025, 1, 30, 23, 30, 0, 0, ZoneOffset.ofHours(-2));
+
+    @State(Scope.Benchmark)
+    public static class Balances {
+
+        @Param({"1", "10", "300"})
+        private int currencies;
+
+        private List<DailyBalance> rows;
+
+        @Setup
+        public void setUp() {
+            rows = new ArrayList<>(currencies);
+            for (int i = 0; i < currencies; i++) {
+                rows.add(DailyBalance.builder()
+                    .accountId("ACC-123")
+                    .currency(String.format("%03d", i))
+                    .businessDate(DATE)
+                    .balance(new BigDecimal("1250.5000").add(BigDecimal.valueOf(i)))
+                    .build());
+            }
+        }
+    }
+
+    private final TransactionRequest request = TransactionRequest.builder()
+        .transactionId("550e8400-e29b-41d4-a716-446655440000")
+        .accountId("ACC-123")
+        .amount(new BigDecimal("150.75"))
+        .currency("USD")
+        .timestamp(timestamp)
+        .build();
+
+    /** One year of daily totals of a single currency, as read for a cumulative range query. */
+    private final List<DailyCurrencyBalance> days = new ArrayList<>();
+
+    {
+        for (int i = 0; i < 365; i++) {
+            days.add(new DailyCurrencyBalance("USD", DATE.plusDays(i),
+                new BigDecimal("-12.5000").add(BigDecimal.valueOf(i))));
+        }
+    }
+
+    @Benchmark
+    public LocalDate toBusinessDate() {
+        return transactionMapper.toBusinessDate(timestamp);
+    }
+
+    @Benchmark
+    public BalanceResponse toBalanceResponse(Balances balances) {
+        return balanceMapper.toBalanceResponse("ACC-123", DATE, balances.rows);
+    }
+
+    @Benchmark
+    public Transaction toTransaction() {
+        return transactionMapper.toTransaction(request);
+    }
+
+    @Benchmark
+    public BalanceRangeResponse toCumulativeRangeResponse() {
+        return balanceMapper.toBalanceRangeResponse("ACC-123", DATE, DATE.plusDays(364), true, days);
+    }
+}
@@ -0,0 +1,96 @@
+package dev.tengiz.payment.benchmark;
+
+import dev.tengiz.payment.PaymentApplication;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.TransactionResponse;
+import dev.tengiz.payment.service.AggregationService;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * End-to-end {@link AggregationService#processTransaction} against a real PostgreSQL, see
+ * {@link BenchmarkDatabase}. {@code accounts} controls balance row contention: with a single
+ * account every thread upserts the same {@code daily_balance} row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class ProcessTransactionBenchmark {
+
+    @Param({"1", "1000"})
+    private int accounts;
+
+    @Param({"synchronous"})
+    private String aggregationMode;
+
+    private BenchmarkDatabase database;
+    private ConfigurableApplicationContext context;
+    private AggregationService aggregationService;
+    private TransactionRequest duplicate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start();
+
+        SpringApplication application = new SpringApplication(PaymentApplication.class);
+        context = application.run(database.springArguments(
+            "--payment.aggregation.mode=" + aggregationMode,
+            "--server.port=0",
+            "--logging.level.dev.tengiz.payment=WARN",
+            "--logging.level.org.springframework.web=WARN"
+        ));
+        aggregationService = context.getBean(AggregationService.class);
+
+        duplicate = newRequest();
+        aggregationService.processTransaction(duplicate);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        database.close();
+    }
+
+    @Benchmark
+    public TransactionResponse processNewTransaction() {
+        return aggregationService.processTransaction(newRequest());
+    }
+
+    @Benchmark
+    public TransactionResponse processDuplicateTransaction() {
+        return aggregationService.processTransaction(duplicate);
+    }
+
+    private TransactionRequest newRequest() {
+        return TransactionRequest.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .accountId("BENCH-" + ThreadLocalRandom.current().nextInt(accounts))
+            .amount(new BigDecimal("10.2500"))
+            .currency("USD")
+            .timestamp(OffsetDateTime.now())
+            .build();
+    }
+}
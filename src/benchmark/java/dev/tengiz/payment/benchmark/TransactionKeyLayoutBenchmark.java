@@ -0,0 +1,184 @@
+package dev.tengiz.payment.benchmark;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Insert cost of the {@code transactions} storage layouts, see {@link BenchmarkDatabase}. {@code uuid-key} is the
+ * schema up to V4, where both {@code transaction_ids} and the partitions of {@code transactions} are keyed by the
+ * client's random UUID; {@code sequential-key} is V5, where {@code transactions} is keyed by
+ * {@code (business_date, seq)} and only the registry stays UUID-keyed.
+ *
+ * <p>Each operation registers and inserts {@code batchSize} new transactions for today, the part of the write path
+ * that differs between the layouts (the balance upsert is the same for both and left out). The tables are seeded
+ * with {@code seedRows} rows and every iteration starts with a {@code CHECKPOINT}, so the first change to each page
+ * writes a full-page image, as it does in production after every checkpoint. {@code synchronous_commit} is off to
+ * keep the commit flush, identical for both layouts, out of the measurement. The {@code walBytes} and {@code rows}
+ * counters are the WAL generated and the rows inserted, summed over the measurement iterations.
+ *
+ * <p>Every trial drops and re-creates the {@code payment} schema, so {@code BENCHMARK_JDBC_URL} must point at a
+ * scratch database; {@code CHECKPOINT} needs a superuser or {@code pg_checkpoint}.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(1)
+@Fork(1)
+public class TransactionKeyLayoutBenchmark {
+
+    private static final String UUID_KEY_INSERT_SQL = """
+        WITH input AS (
+            SELECT t.transaction_id, CURRENT_DATE AS business_date
+            FROM unnest(?::uuid[]) AS t(transaction_id)
+        ),
+        reg AS (
+            INSERT INTO payment.transaction_ids (transaction_id, business_date)
+            SELECT transaction_id, business_date FROM input
+            ON CONFLICT (transaction_id) DO NOTHING
+            RETURNING transaction_id
+        )
+        INSERT INTO payment.transactions (transaction_id, account_id, currency, amount, ts_utc, business_date)
+        SELECT input.transaction_id, 'BENCH', 'USD', 10.2500, CURRENT_TIMESTAMP, input.business_date
+        FROM input
+        JOIN reg ON reg.transaction_id = input.transaction_id
+        """;
+
+    private static final String SEQUENTIAL_KEY_INSERT_SQL = """
+        WITH input AS (
+            SELECT t.transaction_id, CURRENT_DATE AS business_date, nextval('payment.transactions_seq') AS seq
+            FROM unnest(?::uuid[]) AS t(transaction_id)
+        ),
+        reg AS (
+            INSERT INTO payment.transaction_ids (transaction_id, business_date, seq)
+            SELECT transaction_id, business_date, seq FROM input
+            ON CONFLICT (transaction_id) DO NOTHING
+            RETURNING transaction_id
+        )
+        INSERT INTO payment.transactions (transaction_id, account_id, currency, amount, ts_utc, business_date, seq)
+        SELECT input.transaction_id, 'BENCH', 'USD', 10.2500, CURRENT_TIMESTAMP, input.business_date, input.seq
+        FROM input
+        JOIN reg ON reg.transaction_id = input.transaction_id
+        """;
+
+    private static final String SEED_SQL = """
+        INSERT INTO payment.transactions (transaction_id, account_id, currency, amount, ts_utc, business_date)
+        SELECT gen_random_uuid(), 'SEED-' || mod(g, 1000), 'USD', 10.2500, CURRENT_TIMESTAMP, CURRENT_DATE
+        FROM generate_series(1, %d) g
+        """;
+
+    @Param({"uuid-key", "sequential-key"})
+    private String layout;
+
+    @Param({"1", "100"})
+    private int batchSize;
+
+    @Param({"1000000"})
+    private int seedRows;
+
+    /** Counters reported by JMH; walBytes is added when an iteration ends. */
+    public long walBytes;
+    public long rows;
+
+    private BenchmarkDatabase database;
+    private Connection connection;
+    private PreparedStatement insert;
+    private long startLsn;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+            .setLevel(ch.qos.logback.classic.Level.INFO);
+        database = BenchmarkDatabase.start();
+        boolean sequential = "sequential-key".equals(layout);
+
+        try (Connection con = database.dataSource().getConnection(); Statement st = con.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS payment CASCADE");
+            st.execute("DROP TABLE IF EXISTS public.flyway_schema_history");
+        }
+        Flyway.configure()
+            .dataSource(database.dataSource())
+            .locations("classpath:db/migration")
+            .target(sequential ? "latest" : "4")
+            .load()
+            .migrate();
+
+        connection = database.dataSource().getConnection();
+        try (Statement st = connection.createStatement()) {
+            st.execute(String.format(SEED_SQL, seedRows));
+            st.execute(sequential
+                ? "INSERT INTO payment.transaction_ids SELECT transaction_id, business_date, seq FROM payment.transactions"
+                : "INSERT INTO payment.transaction_ids SELECT transaction_id, business_date FROM payment.transactions");
+            st.execute("VACUUM ANALYZE payment.transactions, payment.transaction_ids");
+            st.execute("SET synchronous_commit = off");
+        }
+        insert = connection.prepareStatement(sequential ? SEQUENTIAL_KEY_INSERT_SQL : UUID_KEY_INSERT_SQL);
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("CHECKPOINT");
+        }
+        walBytes = 0;
+        rows = 0;
+        startLsn = currentLsn();
+    }
+
+    @TearDown(Level.Iteration)
+    public void endIteration() throws SQLException {
+        walBytes = currentLsn() - startLsn;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        database.close();
+    }
+
+    @Benchmark
+    public void insertTransactions() throws SQLException {
+        UUID[] ids = new UUID[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+        Array array = connection.createArrayOf("uuid", ids);
+        insert.setArray(1, array);
+        int inserted = insert.executeUpdate();
+        array.free();
+        rows += inserted;
+    }
+
+    private long currentLsn() throws SQLException {
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT pg_current_wal_insert_lsn() - '0/0'::pg_lsn")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
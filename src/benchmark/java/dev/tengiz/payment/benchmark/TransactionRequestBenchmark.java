@@ -0,0 +1,101 @@
+package dev.tengiz.payment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.validation.TransactionRequestValidator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+/**
+ * Request decoding cost of POST /transactions: Jackson deserialization of {@link TransactionRequest}
+ * followed by the same bean validation {@code @Valid} triggers in the controller, and the hand-written
+ * {@link TransactionRequestValidator} the controller runs instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionRequestBenchmark {
+
+    static final String REQUEST_JSON = """
+        {
+          "transactionId": "550e8400-e29b-41d4-a716-446655440000",
+          "accountId": "ACC-123",
+          "amount": 150.75,
+          "currency": "USD",
+          "timestamp": "2025-01-30T12:34:56Z"
+        }
+        """;
+
+    private ObjectMapper objectMapper;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private TransactionRequest request;
+    private final TransactionRequestValidator handRolledValidator = new TransactionRequestValidator();
+    // Spring creates the binding result for @Valid either way; a valid request leaves it empty
+    private Errors errors;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        request = objectMapper.readValue(REQUEST_JSON, TransactionRequest.class);
+        errors = new BeanPropertyBindingResult(request, "transactionRequest");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public TransactionRequest deserialize() throws Exception {
+        return objectMapper.readValue(REQUEST_JSON, TransactionRequest.class);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<TransactionRequest>> validate() {
+        return validator.validate(request);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<TransactionRequest>> deserializeAndValidate() throws Exception {
+        return validator.validate(objectMapper.readValue(REQUEST_JSON, TransactionRequest.class));
+    }
+
+    @Benchmark
+    public boolean validateHandRolled() {
+        handRolledValidator.validate(request, errors);
+        return errors.hasErrors();
+    }
+
+    @Benchmark
+    public boolean deserializeAndValidateHandRolled() throws Exception {
+        TransactionRequest decoded = objectMapper.readValue(REQUEST_JSON, TransactionRequest.class);
+        Errors decodedErrors = new BeanPropertyBindingResult(decoded, "transactionRequest");
+        handRolledValidator.validate(decoded, decodedErrors);
+        return decodedErrors.hasErrors();
+    }
+}
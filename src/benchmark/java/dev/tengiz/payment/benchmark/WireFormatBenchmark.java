@@ -0,0 +1,81 @@
+package dev.tengiz.payment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tengiz.payment.codec.TransactionBinaryCodec;
+import dev.tengiz.payment.dto.request.BatchTransactionRequest;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Body decoding cost of POST /transactions/batch in JSON and in the binary layout of
+ * {@link TransactionBinaryCodec}, per batch of {@code transactions} requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"1", "100"})
+    private int transactions;
+
+    private ObjectMapper objectMapper;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<TransactionRequest> requests = new ArrayList<>(transactions);
+        OffsetDateTime timestamp = OffsetDateTime.of(2025, 1, 30, 12, 34, 56, 789_000_000, ZoneOffset.UTC);
+        for (int i = 0; i < transactions; i++) {
+            requests.add(TransactionRequest.builder()
+                .transactionId(UUID.randomUUID().toString())
+                .accountId("ACC-" + (100_000 + i))
+                .amount(new BigDecimal("150.75").add(BigDecimal.valueOf(i)))
+                .currency("USD")
+                .timestamp(timestamp.plusSeconds(i))
+                .build());
+        }
+        BatchTransactionRequest batch = new BatchTransactionRequest(requests);
+        json = objectMapper.writeValueAsBytes(batch);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TransactionBinaryCodec.writeBatch(batch, new DataOutputStream(bytes));
+        binary = bytes.toByteArray();
+    }
+
+    @Benchmark
+    public BatchTransactionRequest json() throws Exception {
+        return objectMapper.readValue(json, BatchTransactionRequest.class);
+    }
+
+    @Benchmark
+    public BatchTransactionRequest binary() throws Exception {
+        return TransactionBinaryCodec.readBatch(new DataInputStream(new ByteArrayInputStream(binary)));
+    }
+}
@@ -0,0 +1,57 @@
+package dev.tengiz.payment.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects raw latencies of one operation type on one worker thread; recorders are merged after the run.
+ */
+class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+    private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+    void record(long nanos, int status) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        statuses.merge(status, 1, Integer::sum);
+    }
+
+    void recordError() {
+        errors++;
+    }
+
+    void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = other.latencies[i];
+        }
+        errors += other.errors;
+        other.statuses.forEach((status, n) -> statuses.merge(status, n, Integer::sum));
+    }
+
+    String summary(String name, double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return String.format(
+            "%-16s count=%-8d errors=%-6d throughput=%9.1f/s  p50=%7.2fms  p99=%7.2fms  p999=%7.2fms  max=%7.2fms  statuses=%s",
+            name, count, errors, count / elapsedSeconds,
+            percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+            count == 0 ? 0 : sorted[count - 1] / 1_000_000.0, statuses);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
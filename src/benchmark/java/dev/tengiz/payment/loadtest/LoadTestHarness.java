@@ -0,0 +1,217 @@
+package dev.tengiz.payment.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Closed-loop load generator for {@code POST /transactions} and {@code GET /balances/{accountId}}.
+ * <p>
+ * Accounts are drawn from a Zipf distribution to model hot merchants, a configurable share of writes
+ * replays a recently sent transaction to model client retries, and currencies are mixed. After the run
+ * the harness optionally connects to PostgreSQL and checks that {@code daily_balance} equals the sum of
+ * {@code transactions} for every account touched by this run.
+ * <p>
+ * Options are passed as {@code --name=value}:
+ * <pre>
+ * --base-url=http://localhost:8080  --concurrency=64      --duration=30s
+ * --accounts=1000                   --zipf-exponent=1.1   --duplicate-ratio=0.1
+ * --read-ratio=0.1                  --currencies=USD,EUR,GBP
+ * --jdbc-url=jdbc:postgresql://localhost:5435/payment_db --db-user=payment_user --db-password=payment_pass
+ * --settle=1s (wait before the correctness check, e.g. for write-behind flushes)
+ * </pre>
+ */
+public class LoadTestHarness {
+
+    private static final int RECENT_IDS = 4096;
+
+    private final Map<String, String> options;
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36).toUpperCase();
+    private final AtomicReferenceArray<String> recentBodies = new AtomicReferenceArray<>(RECENT_IDS);
+
+    private final String baseUrl;
+    private final int concurrency;
+    private final Duration duration;
+    private final double duplicateRatio;
+    private final double readRatio;
+    private final String[] currencies;
+    private final ZipfDistribution accounts;
+
+    LoadTestHarness(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = option("base-url", "http://localhost:8080");
+        this.concurrency = Integer.parseInt(option("concurrency", "64"));
+        this.duration = parseDuration(option("duration", "30s"));
+        this.duplicateRatio = Double.parseDouble(option("duplicate-ratio", "0.1"));
+        this.readRatio = Double.parseDouble(option("read-ratio", "0.1"));
+        this.currencies = option("currencies", "USD,EUR,GBP").split(",");
+        this.accounts = new ZipfDistribution(
+            Integer.parseInt(option("accounts", "1000")),
+            Double.parseDouble(option("zipf-exponent", "1.1")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        boolean correct = new LoadTestHarness(options).run();
+        System.exit(correct ? 0 : 1);
+    }
+
+    boolean run() throws Exception {
+        System.out.printf("Run %s: %d workers for %s against %s%n", runId, concurrency, duration, baseUrl);
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + duration.toNanos();
+        long start = System.nanoTime();
+        List<Future<Map<String, LatencyRecorder>>> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(executor.submit(() -> work(deadline)));
+        }
+
+        Map<String, LatencyRecorder> total = new HashMap<>();
+        for (Future<Map<String, LatencyRecorder>> worker : workers) {
+            worker.get().forEach((name, recorder) ->
+                total.computeIfAbsent(name, n -> new LatencyRecorder()).merge(recorder));
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+
+        total.forEach((name, recorder) -> System.out.println(recorder.summary(name, elapsedSeconds)));
+        return checkBalances();
+    }
+
+    private Map<String, LatencyRecorder> work(long deadline) {
+        Map<String, LatencyRecorder> recorders = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            double roll = random.nextDouble();
+            String retry = recentBodies.get(random.nextInt(RECENT_IDS));
+            if (roll < readRatio) {
+                String uri = String.format("%s/balances/%s?date=%s", baseUrl, accountId(), LocalDate.now(ZoneOffset.UTC));
+                send(recorders.computeIfAbsent("GET balance", n -> new LatencyRecorder()),
+                    HttpRequest.newBuilder(URI.create(uri)).GET().build());
+            } else if (roll < readRatio + duplicateRatio && retry != null) {
+                send(recorders.computeIfAbsent("POST duplicate", n -> new LatencyRecorder()), post(retry));
+            } else {
+                String body = newTransaction(random);
+                recentBodies.set(random.nextInt(RECENT_IDS), body);
+                send(recorders.computeIfAbsent("POST new", n -> new LatencyRecorder()), post(body));
+            }
+        }
+        return recorders;
+    }
+
+    private void send(LatencyRecorder recorder, HttpRequest request) {
+        long begin = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            recorder.record(System.nanoTime() - begin, response.statusCode());
+        } catch (Exception e) {
+            recorder.recordError();
+        }
+    }
+
+    private HttpRequest post(String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/transactions"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private String newTransaction(ThreadLocalRandom random) {
+        return String.format(
+            "{\"transactionId\":\"%s\",\"accountId\":\"%s\",\"amount\":%d.%02d,\"currency\":\"%s\",\"timestamp\":\"%s\"}",
+            UUID.randomUUID(), accountId(), random.nextInt(-500, 5000), random.nextInt(100),
+            currencies[random.nextInt(currencies.length)], OffsetDateTime.now(ZoneOffset.UTC));
+    }
+
+    private String accountId() {
+        return "LOAD-" + runId + "-" + accounts.sample();
+    }
+
+    /**
+     * Compare the sum of transactions with daily_balance for every account of this run.
+     */
+    private boolean checkBalances() throws Exception {
+        String jdbcUrl = options.get("jdbc-url");
+        if (jdbcUrl == null) {
+            System.out.println("Balance check skipped, pass --jdbc-url to enable it");
+            return true;
+        }
+        Thread.sleep(parseDuration(option("settle", "1s")).toMillis());
+
+        String sql = """
+            SELECT COUNT(*) AS keys,
+                   COUNT(*) FILTER (WHERE t.expected IS DISTINCT FROM b.actual) AS mismatches
+            FROM (
+                SELECT account_id, currency, business_date, SUM(amount) AS expected
+                FROM payment.transactions
+                WHERE account_id LIKE ?
+                GROUP BY account_id, currency, business_date
+            ) t
+            FULL JOIN (
+                SELECT account_id, currency, business_date, SUM(balance) AS actual
+                FROM payment.daily_balance
+                WHERE account_id LIKE ?
+                GROUP BY account_id, currency, business_date
+            ) b USING (account_id, currency, business_date)
+            """;
+        try (Connection connection = DriverManager.getConnection(
+                jdbcUrl, option("db-user", "payment_user"), option("db-password", "payment_pass"));
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            String pattern = "LOAD-" + runId + "-%";
+            statement.setString(1, pattern);
+            statement.setString(2, pattern);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                long mismatches = rs.getLong("mismatches");
+                System.out.printf("Balance check: %d balance rows, %d mismatches%n", rs.getLong("keys"), mismatches);
+                return mismatches == 0;
+            }
+        }
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
@@ -0,0 +1,14 @@
+package dev.tengiz.payment.aggregation;
+
+import java.time.LocalDate;
+import lombok.Value;
+
+/**
+ * Identity of a single {@code payment.daily_balance} row.
+ */
+@Value
+public class BalanceKey {
+    String accountId;
+    String currency;
+    LocalDate businessDate;
+}
@@ -0,0 +1,145 @@
+package dev.tengiz.payment.aggregation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.tengiz.payment.config.AggregationProperties;
+import dev.tengiz.payment.repository.DailyBalanceRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves hot accounts to bucketed daily balance rows.
+ * <p>
+ * Statically configured bucket counts are written to {@code payment.account_balance_buckets} on
+ * startup. With auto-promotion enabled, the duration of every synchronous balance upsert is recorded
+ * per account; upserts on the same row queue behind each other's row lock, so a rising average is
+ * the lock wait the database would report. Once an account's moving average crosses the threshold
+ * it is promoted in the background and its later transactions spread over the bucket rows.
+ */
+@Component
+@Slf4j
+public class HotAccountDetector implements MeterBinder {
+
+    /** Weight of the newest sample in the moving average. */
+    private static final double SMOOTHING = 0.1;
+
+    private final DailyBalanceRepository dailyBalanceRepository;
+    private final AggregationProperties.HotAccounts settings;
+    private final long thresholdNanos;
+    private final Cache<String, UpsertTimings> timings;
+    private final Set<String> promoted = ConcurrentHashMap.newKeySet();
+    private final Executor promoter;
+
+    @Autowired
+    public HotAccountDetector(DailyBalanceRepository dailyBalanceRepository, AggregationProperties properties) {
+        this(dailyBalanceRepository, properties.getHotAccounts(), properties.getHotAccounts().isAutoPromote()
+            ? Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "hot-account-promoter");
+                thread.setDaemon(true);
+                return thread;
+            })
+            : null);
+    }
+
+    HotAccountDetector(DailyBalanceRepository dailyBalanceRepository,
+                       AggregationProperties.HotAccounts settings,
+                       Executor promoter) {
+        this.dailyBalanceRepository = dailyBalanceRepository;
+        this.settings = settings;
+        this.thresholdNanos = settings.getLockWaitThreshold().toNanos();
+        this.timings = Caffeine.newBuilder()
+            .maximumSize(settings.getTrackedAccounts())
+            .build();
+        this.promoter = promoter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void applyConfiguredBuckets() {
+        settings.getBuckets().forEach((accountId, bucketCount) -> {
+            dailyBalanceRepository.configureBuckets(accountId, bucketCount);
+            promoted.add(accountId);
+            log.info("Account {} configured with {} balance buckets", accountId, bucketCount);
+        });
+    }
+
+    /**
+     * @return whether the account's balances are spread over buckets, configured or promoted by this instance
+     */
+    public boolean isBucketed(String accountId) {
+        return promoted.contains(accountId);
+    }
+
+    /**
+     * Record how long a balance upsert for the account took.
+     */
+    public void record(String accountId, long elapsedNanos) {
+        if (promoter == null || promoted.contains(accountId)) {
+            return;
+        }
+        UpsertTimings accountTimings = timings.get(accountId, id -> new UpsertTimings());
+        if (accountTimings.add(elapsedNanos, settings.getMinSamples(), thresholdNanos) && promoted.add(accountId)) {
+            promoter.execute(() -> promote(accountId, accountTimings.averageNanos()));
+        }
+    }
+
+    private void promote(String accountId, long averageNanos) {
+        try {
+            if (dailyBalanceRepository.promoteToBuckets(accountId, settings.getBucketCount()) > 0) {
+                log.info("Account {} promoted to {} balance buckets, average upsert {} ms",
+                    accountId, settings.getBucketCount(), averageNanos / 1_000_000);
+            }
+            timings.invalidate(accountId);
+        } catch (RuntimeException e) {
+            // Let the account be detected again on a later transaction
+            promoted.remove(accountId);
+            log.error("Failed to promote account {} to balance buckets", accountId, e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("payment.hot.accounts.bucketed", promoted, Set::size)
+            .description("Accounts with bucketed balances, configured or promoted by this instance")
+            .register(registry);
+        Gauge.builder("payment.hot.accounts.tracked", timings, Cache::estimatedSize)
+            .description("Accounts whose upsert timings are tracked for auto-promotion")
+            .register(registry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (promoter instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static final class UpsertTimings {
+        private double averageNanos;
+        private int samples;
+
+        /**
+         * @return whether the moving average is above the threshold with enough samples behind it
+         */
+        synchronized boolean add(long elapsedNanos, int minSamples, long thresholdNanos) {
+            averageNanos = samples == 0 ? elapsedNanos : averageNanos + SMOOTHING * (elapsedNanos - averageNanos);
+            samples++;
+            return samples >= minSamples && averageNanos > thresholdNanos;
+        }
+
+        synchronized long averageNanos() {
+            return (long) averageNanos;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package dev.tengiz.payment.aggregation;
+
+import dev.tengiz.payment.config.AggregationProperties;
+import dev.tengiz.payment.dto.TransactionInsertResult;
+import dev.tengiz.payment.entity.Transaction;
+import dev.tengiz.payment.metrics.AggregationMetrics;
+import dev.tengiz.payment.repository.TransactionRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Group commit for single transactions: concurrent callers of {@link #processTransactionAtomically} are
+ * collected into a batch and inserted with one {@link TransactionRepository#processTransactionsAtomically}
+ * statement, which commits on its own, and every caller gets its own row back.
+ * <p>
+ * A worker takes the first waiting transaction and keeps collecting until {@code maxBatchSize} are
+ * waiting or {@code maxWait} has passed, so under load a whole batch shares one round-trip and one WAL
+ * flush, and an idle service adds at most {@code maxWait} of latency. If the batch statement fails, its
+ * transactions are retried one by one so a single bad row only fails its own caller.
+ */
+@Component
+@Slf4j
+public class InsertCoalescer {
+
+    private final TransactionRepository transactionRepository;
+    private final AggregationMetrics aggregationMetrics;
+    private final AggregationProperties.Coalescing settings;
+    private final boolean enabled;
+
+    private final BlockingQueue<PendingInsert> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService workers;
+    private volatile boolean running;
+
+    public InsertCoalescer(TransactionRepository transactionRepository,
+                           AggregationMetrics aggregationMetrics,
+                           AggregationProperties properties) {
+        this.transactionRepository = transactionRepository;
+        this.aggregationMetrics = aggregationMetrics;
+        this.settings = properties.getCoalescing();
+        this.enabled = settings.isEnabled() && properties.getMode() == AggregationProperties.Mode.SYNCHRONOUS;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = enabled ? Executors.newFixedThreadPool(settings.getWorkers(), r -> {
+            Thread thread = new Thread(r, "insert-coalescer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < settings.getWorkers(); i++) {
+            workers.execute(this::collectBatches);
+        }
+        log.info("Insert coalescing enabled, up to {} transactions per statement within {}",
+            settings.getMaxBatchSize(), settings.getMaxWait());
+    }
+
+    /**
+     * Same contract as {@link TransactionRepository#processTransactionAtomically}; blocks until the batch
+     * holding the transaction is committed.
+     */
+    public Optional<TransactionInsertResult> processTransactionAtomically(Transaction transaction) {
+        if (!running) {
+            return transactionRepository.processTransactionAtomically(transaction);
+        }
+        PendingInsert pending = new PendingInsert(transaction);
+        queue.add(pending);
+        if (!running && queue.remove(pending)) {
+            // Stopped after the check above; no worker will pick it up
+            return transactionRepository.processTransactionAtomically(transaction);
+        }
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void collectBatches() {
+        List<PendingInsert> batch = new ArrayList<>(settings.getMaxBatchSize());
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + settings.getMaxWait().toNanos();
+                while (batch.size() < settings.getMaxBatchSize()) {
+                    queue.drainTo(batch, settings.getMaxBatchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= settings.getMaxBatchSize() || remaining <= 0) {
+                        break;
+                    }
+                    PendingInsert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!batch.isEmpty()) {
+                execute(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Insert a batch and complete every caller with the row of its transaction id.
+     */
+    void execute(List<PendingInsert> batch) {
+        aggregationMetrics.recordCoalescedBatch(batch.size());
+        List<TransactionInsertResult> results;
+        try {
+            List<Transaction> transactions = new ArrayList<>(batch.size());
+            batch.forEach(pending -> transactions.add(pending.transaction));
+            results = transactionRepository.processTransactionsAtomically(transactions);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            log.warn("Coalesced insert of {} transactions failed, retrying them one by one", batch.size(), e);
+            batch.forEach(this::executeSingle);
+            return;
+        }
+
+        Map<UUID, TransactionInsertResult> byId = new HashMap<>();
+        results.forEach(result -> byId.put(result.getTransactionId(), result));
+        for (PendingInsert pending : batch) {
+            UUID txId = pending.transaction.getTransactionId();
+            TransactionInsertResult result = byId.get(txId);
+            pending.result.complete(Optional.ofNullable(result));
+            if (result != null && result.isInserted()) {
+                // A later caller with the same id sees the first one's row as already existing
+                byId.put(txId, TransactionInsertResult.builder()
+                    .transactionId(txId)
+                    .inserted(false)
+                    .accountId(result.getAccountId())
+                    .currency(result.getCurrency())
+                    .amount(result.getAmount())
+                    .build());
+            }
+        }
+    }
+
+    private void executeSingle(PendingInsert pending) {
+        try {
+            pending.result.complete(transactionRepository.processTransactionAtomically(pending.transaction));
+        } catch (RuntimeException e) {
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        workers.shutdownNow();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+        // Callers that queued while the workers stopped
+        List<PendingInsert> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(this::executeSingle);
+    }
+
+    static final class PendingInsert {
+
+        final Transaction transaction;
+        final CompletableFuture<Optional<TransactionInsertResult>> result = new CompletableFuture<>();
+
+        PendingInsert(Transaction transaction) {
+            this.transaction = transaction;
+        }
+    }
+}
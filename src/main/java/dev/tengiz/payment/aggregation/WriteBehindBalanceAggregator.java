@@ -0,0 +1,213 @@
+package dev.tengiz.payment.aggregation;
+
+import dev.tengiz.payment.cache.BalanceCache;
+import dev.tengiz.payment.config.AggregationProperties;
+import dev.tengiz.payment.repository.TransactionRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Accumulates balance deltas of transactions inserted in write-behind mode and flushes them to
+ * {@code payment.daily_balance} in one batched upsert every flush interval or max pending deltas.
+ * <p>
+ * Pending deltas are kept in a {@link ConcurrentHashMap} keyed by balance row, so concurrent requests
+ * only contend when they hit the same hash bin. The map holds transaction ids rather than sums: the
+ * durable record of what still has to be applied is the {@code balance_applied} flag in
+ * {@code payment.transactions}, and the flush sums exactly the rows it flips. At most max tracked
+ * deltas are held in memory, so a database outage cannot exhaust the heap: further rows simply stay
+ * pending. Those, and rows left pending by an instance that crashed and never came back, are applied
+ * by a recovery sweep every recovery interval once they are older than that interval. Rows left
+ * pending by a crash are also applied on startup.
+ */
+@Component
+@Slf4j
+public class WriteBehindBalanceAggregator {
+
+    private final TransactionRepository transactionRepository;
+    private final BalanceCache balanceCache;
+    private final AggregationProperties.WriteBehind settings;
+    private final boolean enabled;
+
+    private final Map<BalanceKey, List<UUID>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicBoolean overflowing = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+
+    public WriteBehindBalanceAggregator(TransactionRepository transactionRepository,
+                                        BalanceCache balanceCache,
+                                        AggregationProperties properties) {
+        this.transactionRepository = transactionRepository;
+        this.balanceCache = balanceCache;
+        this.settings = properties.getWriteBehind();
+        this.enabled = properties.getMode() == AggregationProperties.Mode.WRITE_BEHIND;
+        this.scheduler = enabled ? Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "balance-flusher");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        List<BalanceKey> recovered = transactionRepository.applyAllPendingBalances();
+        recovered.forEach(this::evictCached);
+        log.info("Write-behind aggregation enabled, recovered {} pending balance rows", recovered.size());
+
+        long intervalMs = settings.getFlushInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        long recoveryMs = settings.getRecoveryInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::recoverSafely, recoveryMs, recoveryMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Register the delta of a freshly inserted transaction once the surrounding transaction commits,
+     * so rolled back inserts never reach the flush.
+     */
+    public void addAfterCommit(BalanceKey key, UUID transactionId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(key, transactionId);
+                }
+            });
+        } else {
+            add(key, transactionId);
+        }
+    }
+
+    void add(BalanceKey key, UUID transactionId) {
+        if (!track(key, transactionId)) {
+            if (overflowing.compareAndSet(false, true)) {
+                log.warn("{} balance deltas pending, further ones are left to the recovery sweep",
+                    settings.getMaxTrackedDeltas());
+            }
+            return;
+        }
+        if (pendingCount.get() >= settings.getMaxPendingDeltas()
+            && !scheduler.isShutdown()
+            && flushScheduled.compareAndSet(false, true)) {
+            scheduler.execute(this::flushSafely);
+        }
+    }
+
+    /**
+     * @return false when max tracked deltas are already pending; the row then stays pending in the
+     *         database until the recovery sweep applies it
+     */
+    private boolean track(BalanceKey key, UUID transactionId) {
+        if (pendingCount.incrementAndGet() > settings.getMaxTrackedDeltas()) {
+            pendingCount.decrementAndGet();
+            return false;
+        }
+        pending.compute(key, (k, ids) -> {
+            List<UUID> result = ids == null ? new ArrayList<>() : ids;
+            result.add(transactionId);
+            return result;
+        });
+        return true;
+    }
+
+    /**
+     * Apply all deltas accumulated so far in a single statement. Deltas of a failed flush are put
+     * back and retried with the next one, as far as max tracked deltas allows.
+     *
+     * @return balance rows that were updated
+     */
+    public synchronized List<BalanceKey> flush() {
+        flushScheduled.set(false);
+        Map<BalanceKey, List<UUID>> drained = new HashMap<>();
+        for (BalanceKey key : pending.keySet()) {
+            List<UUID> ids = pending.remove(key);
+            if (ids != null) {
+                drained.put(key, ids);
+            }
+        }
+        if (drained.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> transactionIds = new ArrayList<>();
+        drained.values().forEach(transactionIds::addAll);
+        pendingCount.addAndGet(-transactionIds.size());
+
+        try {
+            List<BalanceKey> updated = transactionRepository.applyPendingBalances(transactionIds);
+            updated.forEach(this::evictCached);
+            overflowing.set(false);
+            log.debug("Flushed {} balance deltas into {} balance rows", transactionIds.size(), updated.size());
+            return updated;
+        } catch (RuntimeException e) {
+            drained.forEach((key, ids) -> ids.forEach(id -> track(key, id)));
+            throw e;
+        }
+    }
+
+    /**
+     * Apply pending rows older than the recovery interval: deltas that did not fit in memory and
+     * those of instances that went away without flushing.
+     *
+     * @return balance rows that were updated
+     */
+    public List<BalanceKey> recover() {
+        List<BalanceKey> updated = transactionRepository.applyStalePendingBalances(settings.getRecoveryInterval());
+        updated.forEach(this::evictCached);
+        if (!updated.isEmpty()) {
+            log.info("Recovery sweep applied stale pending balance deltas to {} balance rows", updated.size());
+        }
+        return updated;
+    }
+
+    private void evictCached(BalanceKey key) {
+        balanceCache.evict(key.getAccountId(), key.getBusinessDate());
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush pending balance deltas, will retry", e);
+        }
+    }
+
+    private void recoverSafely() {
+        try {
+            recover();
+        } catch (RuntimeException e) {
+            log.error("Failed to apply stale pending balance deltas, will retry", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        scheduler.shutdown();
+        scheduler.awaitTermination(settings.getFlushInterval().toMillis() * 10, TimeUnit.MILLISECONDS);
+        flushSafely();
+    }
+}
@@ -0,0 +1,159 @@
+package dev.tengiz.payment.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import dev.tengiz.payment.config.CacheProperties;
+import dev.tengiz.payment.dto.response.BalanceResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded read-through cache of {@link BalanceResponse} keyed by (accountId, date).
+ * <p>
+ * Entries for today's business date expire quickly, past dates are kept longer since they are only
+ * touched by late transactions. Writers evict the affected entry after commit; because loads run
+ * through {@link Cache#get}, an eviction racing with an in-flight load waits for it and removes the
+ * loaded value, so a stale balance is never left behind by this instance. That holds only if loads see every
+ * committed write; a balance loaded from a lagging replica is kept no longer than the caller allows.
+ */
+@Component
+@Slf4j
+public class BalanceCache implements MeterBinder {
+
+    private final Cache<Key, Entry> cache;
+    private final Clock clock;
+
+    @Autowired
+    public BalanceCache(CacheProperties properties) {
+        this(properties.getBalance(), Ticker.systemTicker(), Clock.systemUTC());
+    }
+
+    BalanceCache(CacheProperties.Balance settings, Ticker ticker, Clock clock) {
+        this.clock = clock;
+        this.cache = settings.isEnabled()
+            ? Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfter(new BusinessDateExpiry(settings.getTtl(), settings.getPastDateTtl()))
+                .ticker(ticker)
+                .recordStats()
+                .build()
+            : null;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Publishes hit, miss, eviction and size metrics of the cache when it is enabled.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "balance");
+        }
+    }
+
+    /**
+     * Return the cached balance or load and cache it. Exceptions thrown by the loader are propagated
+     * and nothing is cached.
+     */
+    public BalanceResponse get(String accountId, LocalDate date, Supplier<BalanceResponse> loader) {
+        return get(accountId, date, loader, () -> null);
+    }
+
+    /**
+     * Like {@link #get(String, LocalDate, Supplier)}, but a loaded balance is kept for at most what
+     * {@code maxTtl} returns once the load is done, or the usual time to live when it returns null.
+     */
+    public BalanceResponse get(String accountId, LocalDate date, Supplier<BalanceResponse> loader,
+                               Supplier<Duration> maxTtl) {
+        if (cache == null) {
+            return loader.get();
+        }
+        return cache.get(new Key(accountId, date), key -> new Entry(loader.get(), maxTtl.get())).getResponse();
+    }
+
+    public void evict(String accountId, LocalDate date) {
+        if (cache != null) {
+            cache.invalidate(new Key(accountId, date));
+        }
+    }
+
+    /**
+     * Evict once the surrounding transaction commits, so readers cannot re-cache the old balance
+     * between eviction and commit.
+     */
+    public void evictAfterCommit(String accountId, LocalDate date) {
+        if (cache == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(accountId, date);
+                }
+            });
+        } else {
+            evict(accountId, date);
+        }
+    }
+
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+
+    @Value
+    private static class Key {
+        String accountId;
+        LocalDate date;
+    }
+
+    @Value
+    private static class Entry {
+        BalanceResponse response;
+        Duration maxTtl;
+    }
+
+    private class BusinessDateExpiry implements Expiry<Key, Entry> {
+
+        private final long ttlNanos;
+        private final long pastDateTtlNanos;
+
+        BusinessDateExpiry(Duration ttl, Duration pastDateTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.pastDateTtlNanos = pastDateTtl == null ? Long.MAX_VALUE : pastDateTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Key key, Entry value, long currentTime) {
+            long nanos = key.getDate().isBefore(LocalDate.now(clock)) ? pastDateTtlNanos : ttlNanos;
+            return value.getMaxTtl() == null ? nanos : Math.min(nanos, value.getMaxTtl().toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Entry value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package dev.tengiz.payment.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import dev.tengiz.payment.config.CacheProperties;
+import dev.tengiz.payment.dto.TransactionInsertResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded cache of recently stored transactions keyed by transaction id, used to answer client
+ * retries without a database round-trip.
+ * <p>
+ * The cache only ever answers "duplicate": a miss falls through to the database, so an id can never
+ * be wrongly treated as new. The reverse is guarded by adding ids only once their row is committed,
+ * either after the inserting transaction commits or when the database reported the row as existing.
+ * Entries keep the stored amount, account and currency, so conflicting retries are still rejected.
+ */
+@Component
+public class RecentTransactionCache implements MeterBinder {
+
+    private final Cache<UUID, TransactionInsertResult> cache;
+
+    @Autowired
+    public RecentTransactionCache(CacheProperties properties) {
+        this(properties.getRecentTransactions(), Ticker.systemTicker());
+    }
+
+    RecentTransactionCache(CacheProperties.RecentTransactions settings, Ticker ticker) {
+        this.cache = settings.isEnabled()
+            ? Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getTtl())
+                .ticker(ticker)
+                .recordStats()
+                .build()
+            : null;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Publishes hit, miss, eviction and size metrics of the cache when it is enabled.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "recent-transactions");
+        }
+    }
+
+    /**
+     * @return the stored transaction, or null if the id was not seen recently
+     */
+    public TransactionInsertResult find(UUID transactionId) {
+        return cache == null ? null : cache.getIfPresent(transactionId);
+    }
+
+    /**
+     * Remember a transaction whose row is already committed.
+     */
+    public void put(TransactionInsertResult stored) {
+        if (cache != null && stored.getTransactionId() != null && stored.getAmount() != null) {
+            cache.put(stored.getTransactionId(), TransactionInsertResult.builder()
+                .transactionId(stored.getTransactionId())
+                .inserted(false)
+                .accountId(stored.getAccountId())
+                .currency(stored.getCurrency())
+                .amount(stored.getAmount())
+                .build());
+        }
+    }
+
+    /**
+     * Remember a transaction once the surrounding transaction commits; nothing is remembered on rollback.
+     */
+    public void putAfterCommit(TransactionInsertResult stored) {
+        if (cache == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(stored);
+                }
+            });
+        } else {
+            put(stored);
+        }
+    }
+
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+}
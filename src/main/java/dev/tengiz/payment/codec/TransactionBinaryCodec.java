@@ -0,0 +1,145 @@
+package dev.tengiz.payment.codec;
+
+import dev.tengiz.payment.dto.request.BatchTransactionRequest;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.money.Money;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fixed-layout binary encoding of {@link TransactionRequest}, big-endian:
+ *
+ * <pre>
+ * offset  size  field
+ *      0     8  transactionId, most significant bits
+ *      8     8  transactionId, least significant bits
+ *     16     8  amount in {@link Money} units of 0.0001
+ *     24     8  timestamp, microseconds since the epoch (UTC)
+ *     32     3  currency, ASCII
+ *     35     1  accountId length n, unsigned
+ *     36     n  accountId, ASCII
+ * </pre>
+ *
+ * A batch is a 4-byte record count followed by the records. Decoded requests go through the same validation
+ * as JSON ones; the encoding itself only guarantees that amounts have at most 4 decimals.
+ */
+public final class TransactionBinaryCodec {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-payment-transaction";
+
+    private static final int MAX_STRING_LENGTH = 255;
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    private TransactionBinaryCodec() {
+    }
+
+    public static TransactionRequest read(DataInput in) throws IOException {
+        long mostSigBits = in.readLong();
+        long leastSigBits = in.readLong();
+        long amount = in.readLong();
+        long micros = in.readLong();
+        String currency = readAscii(in, 3);
+        String accountId = readAscii(in, in.readUnsignedByte());
+        return TransactionRequest.builder()
+            .transactionId(new UUID(mostSigBits, leastSigBits).toString())
+            .accountId(accountId)
+            .amount(Money.toBigDecimal(amount))
+            .currency(currency)
+            .timestamp(OffsetDateTime.ofInstant(Instant.ofEpochSecond(
+                Math.floorDiv(micros, MICROS_PER_SECOND),
+                Math.floorMod(micros, MICROS_PER_SECOND) * 1000), ZoneOffset.UTC))
+            .build();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the record count is negative or above the batch limit
+     */
+    public static BatchTransactionRequest readBatch(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > BatchTransactionRequest.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must contain at most " + BatchTransactionRequest.MAX_BATCH_SIZE
+                + " transactions, got " + count);
+        }
+        List<TransactionRequest> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(read(in));
+        }
+        return new BatchTransactionRequest(transactions);
+    }
+
+    /**
+     * @throws IllegalArgumentException if a field is missing or does not fit the layout, e.g. an amount
+     *                                  with more than 4 decimals or an account id longer than 255 characters
+     */
+    public static void write(TransactionRequest request, DataOutput out) throws IOException {
+        UUID transactionId = UUID.fromString(require(request.getTransactionId(), "transactionId"));
+        out.writeLong(transactionId.getMostSignificantBits());
+        out.writeLong(transactionId.getLeastSignificantBits());
+        out.writeLong(toUnits(require(request.getAmount(), "amount")));
+        out.writeLong(toEpochMicros(require(request.getTimestamp(), "timestamp")));
+        String currency = require(request.getCurrency(), "currency");
+        if (currency.length() != 3) {
+            throw new IllegalArgumentException("Currency must have 3 characters: " + currency);
+        }
+        writeAscii(currency, out);
+        String accountId = require(request.getAccountId(), "accountId");
+        if (accountId.length() > MAX_STRING_LENGTH) {
+            throw new IllegalArgumentException("Account ID is longer than " + MAX_STRING_LENGTH + " characters");
+        }
+        out.writeByte(accountId.length());
+        writeAscii(accountId, out);
+    }
+
+    public static void writeBatch(BatchTransactionRequest batch, DataOutput out) throws IOException {
+        List<TransactionRequest> transactions = require(batch.getTransactions(), "transactions");
+        out.writeInt(transactions.size());
+        for (TransactionRequest request : transactions) {
+            write(request, out);
+        }
+    }
+
+    private static long toUnits(BigDecimal amount) {
+        try {
+            return Money.toUnits(amount);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount does not fit 4 decimals in a long: " + amount, e);
+        }
+    }
+
+    private static long toEpochMicros(OffsetDateTime timestamp) {
+        Instant instant = timestamp.toInstant();
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), MICROS_PER_SECOND), instant.getNano() / 1000);
+    }
+
+    private static String readAscii(DataInput in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static void writeAscii(String value, DataOutput out) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c > 0x7F) {
+                throw new IllegalArgumentException("Not an ASCII string: " + value);
+            }
+            out.writeByte(c);
+        }
+    }
+
+    private static <T> T require(T value, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,70 @@
+package dev.tengiz.payment.codec;
+
+import dev.tengiz.payment.dto.request.BatchTransactionRequest;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and writes {@link TransactionRequest} and {@link BatchTransactionRequest} bodies of content type
+ * {@value TransactionBinaryCodec#MEDIA_TYPE_VALUE}. Spring Boot adds converter beans to the MVC converters,
+ * so {@code @Valid @RequestBody} works as for JSON.
+ */
+@Component
+public class TransactionBinaryHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(TransactionBinaryCodec.MEDIA_TYPE_VALUE);
+
+    public TransactionBinaryHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == TransactionRequest.class || clazz == BatchTransactionRequest.class;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputMessage.getBody()));
+        try {
+            Object body = clazz == TransactionRequest.class
+                ? TransactionBinaryCodec.read(in)
+                : TransactionBinaryCodec.readBatch(in);
+            if (in.read() != -1) {
+                throw new HttpMessageNotReadableException("Unexpected bytes after the last transaction", inputMessage);
+            }
+            return body;
+        } catch (EOFException e) {
+            throw new HttpMessageNotReadableException("Truncated transaction body", e, inputMessage);
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputMessage.getBody()));
+        try {
+            if (body instanceof TransactionRequest request) {
+                TransactionBinaryCodec.write(request, out);
+            } else {
+                TransactionBinaryCodec.writeBatch((BatchTransactionRequest) body, out);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotWritableException(e.getMessage(), e);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,70 @@
+package dev.tengiz.payment.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "payment.aggregation")
+public class AggregationProperties {
+
+    /**
+     * How daily balances are maintained for single transactions.
+     */
+    private Mode mode = Mode.SYNCHRONOUS;
+
+    private WriteBehind writeBehind = new WriteBehind();
+
+    private HotAccounts hotAccounts = new HotAccounts();
+
+    private Coalescing coalescing = new Coalescing();
+
+    public enum Mode {
+        /** Balance row is upserted in the same statement that inserts the transaction. */
+        SYNCHRONOUS,
+        /** Transaction is inserted synchronously, balance deltas are flushed in batches. */
+        WRITE_BEHIND
+    }
+
+    @Data
+    public static class WriteBehind {
+        /** Maximum time a balance delta stays unflushed. */
+        private Duration flushInterval = Duration.ofMillis(200);
+        /** Number of pending deltas that triggers an early flush. */
+        private int maxPendingDeltas = 1000;
+        /** Number of pending deltas held in memory; further ones are left to the recovery sweep. */
+        private int maxTrackedDeltas = 100_000;
+        /** Age after which a pending row is applied by the recovery sweep, whichever instance inserted it. */
+        private Duration recoveryInterval = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class HotAccounts {
+        /** Bucket counts applied on startup, keyed by account id. */
+        private Map<String, Integer> buckets = new HashMap<>();
+        /** Whether accounts whose balance upserts get slow are promoted to buckets automatically. */
+        private boolean autoPromote = false;
+        /** Average upsert time above which an account is considered hot. */
+        private Duration lockWaitThreshold = Duration.ofMillis(50);
+        /** Samples an account needs before its average is trusted. */
+        private int minSamples = 50;
+        /** Bucket count given to automatically promoted accounts. */
+        private int bucketCount = 8;
+        /** Maximum number of accounts whose upsert timings are tracked. */
+        private int trackedAccounts = 10_000;
+    }
+
+    @Data
+    public static class Coalescing {
+        /** Whether concurrent single transactions are inserted together in one statement (synchronous mode). */
+        private boolean enabled = false;
+        /** Longest time the first transaction of a batch waits for others to join. */
+        private Duration maxWait = Duration.ofMillis(2);
+        /** Number of transactions that closes a batch before {@code maxWait}. */
+        private int maxBatchSize = 64;
+        /** Threads executing batches; each holds one connection while its statement runs. */
+        private int workers = 4;
+    }
+}
@@ -0,0 +1,15 @@
+package dev.tengiz.payment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "payment.balance-query")
+public class BalanceQueryProperties {
+
+    /** Most accounts accepted by one bulk balance query. */
+    private int maxAccounts = 5000;
+
+    /** Rows fetched per database round-trip while streaming query results. */
+    private int fetchSize = 500;
+}
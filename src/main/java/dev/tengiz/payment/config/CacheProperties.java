@@ -0,0 +1,34 @@
+package dev.tengiz.payment.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "payment.cache")
+public class CacheProperties {
+
+    private Balance balance = new Balance();
+
+    private RecentTransactions recentTransactions = new RecentTransactions();
+
+    @Data
+    public static class Balance {
+        private boolean enabled = true;
+        /** Maximum number of (account, date) entries kept. */
+        private long maximumSize = 10_000;
+        /** Time to live for today's (and future) business dates, which are still being written. */
+        private Duration ttl = Duration.ofSeconds(5);
+        /** Time to live for past business dates; unset keeps them until evicted by size. */
+        private Duration pastDateTtl = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class RecentTransactions {
+        private boolean enabled = false;
+        /** Maximum number of transaction ids remembered. */
+        private long maximumSize = 100_000;
+        /** How long an id is remembered after it was last written or seen. */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,29 @@
+package dev.tengiz.payment.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "payment.execution")
+public class ExecutionProperties {
+
+    /**
+     * Run Tomcat request handling (and therefore service calls) on virtual threads. Requires Java 21+.
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * Connections that may be checked out concurrently in virtual-thread mode; callers beyond this
+     * queue on a fair semaphore instead of in the connection pool.
+     */
+    private int maxConcurrentConnections = 10;
+
+    /**
+     * Like {@link #maxConcurrentConnections}, for the replica pool when read replica routing is enabled.
+     */
+    private int replicaMaxConcurrentConnections = 10;
+
+    /** How long a caller waits for a connection permit before failing. */
+    private Duration connectionPermitTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,12 @@
+package dev.tengiz.payment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "payment.export")
+public class ExportProperties {
+
+    /** Rows fetched per round-trip by the server-side cursor of an export. */
+    private int fetchSize = 1000;
+}
@@ -0,0 +1,15 @@
+package dev.tengiz.payment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "payment.import")
+public class ImportProperties {
+
+    /** Lines copied and merged per database transaction. */
+    private int chunkSize = 10000;
+
+    /** Rejected and conflicting lines listed in an import response; further ones are only counted. */
+    private int maxReportedLines = 1000;
+}
@@ -0,0 +1,45 @@
+package dev.tengiz.payment.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "payment.ingestion")
+public class IngestionProperties {
+
+    /**
+     * How {@code POST /transactions} stores a transaction.
+     */
+    private Mode mode = Mode.SYNCHRONOUS;
+
+    private Log log = new Log();
+
+    public enum Mode {
+        /** The request waits for the database statement and returns its outcome. */
+        SYNCHRONOUS,
+        /** The request is appended to the local log and answered with 202; a consumer drains it to the database. */
+        LOG
+    }
+
+    @Data
+    public static class Log {
+        /** Directory of the segment files and the consumer offset; must survive restarts. */
+        private Path directory = Path.of("data", "ingestion-log");
+        /**
+         * Directory of the records the database rejected even when stored one by one; {@code dead-letter} under
+         * {@link #directory} when not set.
+         */
+        private Path deadLetterDirectory;
+        /** Size of a segment file; drained segments are deleted. */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        /** Transactions written to the database per statement. */
+        private int drainBatchSize = 1000;
+        /** Pause of the consumer when the log is drained, and after a failed batch. */
+        private Duration drainInterval = Duration.ofMillis(50);
+        /** Maximum number of transactions whose ingestion status is remembered. */
+        private long statusCacheSize = 1_000_000;
+    }
+}
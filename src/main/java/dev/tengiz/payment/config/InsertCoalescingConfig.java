@@ -0,0 +1,34 @@
+package dev.tengiz.payment.config;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Coalesced inserts run on the connections of the coalescer's workers, so a request waiting for its batch
+ * must not hold a connection of its own. The data source is wrapped in a {@link LazyConnectionDataSourceProxy},
+ * which opens the request transaction without fetching a pooled connection until the first statement runs.
+ * Without it every waiting request would pin an idle connection, and a full pool would leave the workers
+ * none to execute the batch with.
+ */
+@Configuration
+@ConditionalOnProperty(name = "payment.aggregation.coalescing.enabled", havingValue = "true")
+public class InsertCoalescingConfig {
+
+    @Bean
+    public static BeanPostProcessor lazyConnectionDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                    && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                    return new LazyConnectionDataSourceProxy(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
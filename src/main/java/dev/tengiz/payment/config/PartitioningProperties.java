@@ -0,0 +1,19 @@
+package dev.tengiz.payment.config;
+
+import java.time.Period;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "payment.partitioning")
+public class PartitioningProperties {
+
+    /** Number of monthly transaction partitions kept ready, starting with the current month. */
+    private int monthsAhead = 3;
+
+    /** Age after which monthly partitions are detached for archival; unset keeps them attached. */
+    private Period retention;
+
+    /** When partition maintenance runs, in addition to startup. */
+    private String cron = "0 15 2 * * *";
+}
@@ -0,0 +1,35 @@
+package dev.tengiz.payment.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Read replica for read-only transactions. The replica pool itself is sized under
+ * {@code payment.replica.hikari}, like {@code spring.datasource.hikari} for the primary.
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.replica")
+public class ReplicaProperties {
+
+    /** Whether read-only transactions are routed to the replica. */
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    /** Replay lag above which reads fall back to the primary. */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /** How often the replay lag is measured. */
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    /**
+     * Reads of the last this many business dates stay on the primary, as those balances still change; 1 keeps
+     * only today's, 0 sends every date to the replica.
+     */
+    private int primaryDays = 1;
+}
@@ -0,0 +1,73 @@
+package dev.tengiz.payment.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import dev.tengiz.payment.datasource.ReplicaLagMonitor;
+import dev.tengiz.payment.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Replaces Boot's single pool with a primary and a replica pool behind a {@link ReplicaRoutingDataSource}, so
+ * balance reads no longer compete with ingestion for the primary's connections. The application data source
+ * is a {@link LazyConnectionDataSourceProxy}; the routing decision needs the read-only flag of the transaction,
+ * which is bound only after the connection has been requested.
+ */
+@Configuration
+@ConditionalOnProperty(name = "payment.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("payment.replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername());
+        dataSource.setPassword(properties.getPassword());
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                              ReplicaProperties properties) {
+        return new ReplicaLagMonitor(replica, properties.getLagCheckInterval());
+    }
+
+    /**
+     * A binder rather than a registry dependency: the registry's own binders need the data source.
+     */
+    @Bean
+    public MeterBinder replicaLagMetrics(ReplicaLagMonitor replicaLagMonitor) {
+        return registry -> Gauge.builder("payment.replica.lag", replicaLagMonitor, ReplicaLagMonitor::lagSeconds)
+            .description("Replay lag of the read replica, -1 while unknown")
+            .baseUnit("seconds")
+            .register(registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor, ReplicaProperties properties) {
+        return new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor, properties));
+    }
+}
@@ -0,0 +1,99 @@
+package dev.tengiz.payment.config;
+
+import dev.tengiz.payment.datasource.ThrottlingDataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Virtual-thread execution mode: Tomcat dispatches every request (and Spring MVC async work) to a new
+ * virtual thread, and the data source is guarded by a fair semaphore so blocked JDBC callers queue
+ * cheaply. The project still compiles for Java 17, the executor is looked up at runtime.
+ */
+@Configuration
+@ConditionalOnProperty(name = "payment.execution.virtual-threads", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+            log.info("Request handling runs on virtual threads");
+            return executor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(
+                "payment.execution.virtual-threads requires Java 21+, running on " + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create virtual thread executor", e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    @Bean
+    public static BeanPostProcessor throttlingDataSourcePostProcessor(Environment environment) {
+        Binder binder = Binder.get(environment);
+        ExecutionProperties properties = binder.bind("payment.execution", ExecutionProperties.class)
+            .orElseGet(ExecutionProperties::new);
+        boolean replicaEnabled = binder.bind("payment.replica.enabled", Boolean.class).orElse(false);
+        return new ThrottlingDataSourcePostProcessor(properties, replicaEnabled);
+    }
+
+    /**
+     * Ordered, so the semaphore wraps the pool itself and sits beneath the other data source wrappers: it
+     * should count pooled connections, not logical ones. With replica routing each pool gets its own
+     * semaphore, so reads waiting for the replica never queue behind ingestion on the primary.
+     */
+    static final class ThrottlingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Map<String, Integer> limits;
+        private final Duration permitTimeout;
+
+        ThrottlingDataSourcePostProcessor(ExecutionProperties properties, boolean replicaEnabled) {
+            this.limits = replicaEnabled
+                ? Map.of("primaryDataSource", properties.getMaxConcurrentConnections(),
+                    "replicaDataSource", properties.getReplicaMaxConcurrentConnections())
+                : Map.of("dataSource", properties.getMaxConcurrentConnections());
+            this.permitTimeout = properties.getConnectionPermitTimeout();
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            Integer limit = limits.get(beanName);
+            if (limit != null && bean instanceof DataSource dataSource && !(bean instanceof ThrottlingDataSource)) {
+                return new ThrottlingDataSource(dataSource, limit, permitTimeout);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
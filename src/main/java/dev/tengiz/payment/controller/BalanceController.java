@@ -1,6 +1,13 @@
 package dev.tengiz.payment.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tengiz.payment.config.BalanceQueryProperties;
+import dev.tengiz.payment.dto.request.BalanceQueryRequest;
+import dev.tengiz.payment.dto.response.BalanceRangeResponse;
 import dev.tengiz.payment.dto.response.BalanceResponse;
+import dev.tengiz.payment.exception.InvalidRequestException;
+import dev.tengiz.payment.logging.LogMarkers;
 import dev.tengiz.payment.service.AggregationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,12 +17,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 
 @RestController
@@ -27,6 +39,8 @@ import java.time.LocalDate;
 public class BalanceController {
 
     private final AggregationService aggregationService;
+    private final ObjectMapper objectMapper;
+    private final BalanceQueryProperties balanceQueryProperties;
 
     @GetMapping("/{accountId}")
     @Operation(
@@ -44,8 +58,68 @@ public class BalanceController {
         @Parameter(description = "Date in YYYY-MM-DD format", required = true)
         @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
     ) {
-        log.info("Retrieving balance for account: {} on date: {}", accountId, date);
+        log.info(LogMarkers.PER_REQUEST, "Retrieving balance for account: {} on date: {}", accountId, date);
         BalanceResponse response = aggregationService.getBalance(accountId, date);
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping(value = "/{accountId}", params = {"from", "to"})
+    @Operation(
+        summary = "Get daily balances for an account over a date range",
+        description = "Retrieve per-day balances of every currency between two dates (inclusive, at most 366 days) "
+            + "in a single query. Days without activity are omitted."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Balances retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid request parameters")
+    })
+    public ResponseEntity<BalanceRangeResponse> getBalances(
+        @Parameter(description = "Account identifier", required = true)
+        @PathVariable @NotBlank String accountId,
+        @Parameter(description = "First date in YYYY-MM-DD format", required = true)
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @Parameter(description = "Last date in YYYY-MM-DD format", required = true)
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @Parameter(description = "Return running totals since 'from' instead of daily balances")
+        @RequestParam(defaultValue = "false") boolean cumulative
+    ) {
+        log.info(LogMarkers.PER_REQUEST, "Retrieving balances for account: {} from: {} to: {}", accountId, from, to);
+        BalanceRangeResponse response = aggregationService.getBalances(accountId, from, to, cumulative);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/query", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Get daily balances for many accounts",
+        description = "Retrieve the balances of many accounts for one date in a single query. The JSON array is "
+            + "streamed while rows are read; accounts without a balance on the date are omitted."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Balances retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid request or too many accounts")
+    })
+    public ResponseEntity<StreamingResponseBody> queryBalances(@Valid @RequestBody BalanceQueryRequest request) {
+        log.info(LogMarkers.PER_REQUEST, "Retrieving balances of {} accounts on date: {}",
+            request.getAccountIds().size(), request.getDate());
+        // Checked before streaming starts: once the body runs, the 200 status may already be committed
+        if (request.getAccountIds().size() > balanceQueryProperties.getMaxAccounts()) {
+            throw new InvalidRequestException(String.format(
+                "Balance query must contain at most %d accounts", balanceQueryProperties.getMaxAccounts()));
+        }
+        StreamingResponseBody body = out -> {
+            // Not closed on failure: closing would commit the response before the error can be rendered
+            JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+            json.writeStartArray();
+            aggregationService.queryBalances(request.getAccountIds(), request.getDate(), balance -> {
+                try {
+                    json.writeObject(balance);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            json.writeEndArray();
+            json.close();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
@@ -0,0 +1,115 @@
+package dev.tengiz.payment.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.tengiz.payment.exception.InvalidRequestException;
+import dev.tengiz.payment.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Bulk exports written as newline-delimited JSON while the database cursor is read. Writes block
+ * when the client reads slowly, which in turn pauses fetching, so memory use stays constant.
+ */
+@RestController
+@RequestMapping("/exports")
+@Slf4j
+@Validated
+@Tag(name = "Exports", description = "Streaming bulk export endpoints")
+public class ExportController {
+
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ExportService exportService;
+    private final ObjectWriter recordWriter;
+
+    public ExportController(ExportService exportService, ObjectMapper objectMapper) {
+        this.exportService = exportService;
+        // Flushing is left to the output buffer instead of once per record
+        this.recordWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @GetMapping("/transactions")
+    @Operation(
+        summary = "Export transactions",
+        description = "Stream the transactions of a business date range as NDJSON, optionally for one account. "
+            + "Rows are not sorted."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed"),
+        @ApiResponse(responseCode = "400", description = "Invalid request parameters")
+    })
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+        @Parameter(description = "Account identifier; all accounts when omitted")
+        @RequestParam(required = false) String accountId,
+        @Parameter(description = "First business date in YYYY-MM-DD format", required = true)
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @Parameter(description = "Last business date in YYYY-MM-DD format", required = true)
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.info("Exporting transactions for account: {} from: {} to: {}", accountId, from, to);
+        // Checked before streaming starts, afterwards the NDJSON content type is already committed
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException(String.format("from %s is after to %s", from, to));
+        }
+        return ndjson(out -> exportService.exportTransactions(accountId, from, to, out));
+    }
+
+    @GetMapping("/balances")
+    @Operation(
+        summary = "Export balances",
+        description = "Stream every account's per-currency balance on a business date as NDJSON, "
+            + "ordered by account and currency"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed"),
+        @ApiResponse(responseCode = "400", description = "Invalid request parameters")
+    })
+    public ResponseEntity<StreamingResponseBody> exportBalances(
+        @Parameter(description = "Business date in YYYY-MM-DD format", required = true)
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        log.info("Exporting balances for date: {}", date);
+        return ndjson(out -> exportService.exportBalances(date, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<Object>> export) {
+        StreamingResponseBody body = out -> {
+            // Not closed on failure: closing would commit the response before the error can be rendered
+            JsonGenerator json = recordWriter.getFactory().createGenerator(out);
+            // Records are terminated by a newline instead of separated by the default space
+            json.setRootValueSeparator(null);
+            export.accept(record -> writeLine(json, record));
+            json.close();
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(JsonGenerator json, Object record) {
+        try {
+            recordWriter.writeValue(json, record);
+            json.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dev.tengiz.payment.controller;
+
+import dev.tengiz.payment.dto.request.ImportFormat;
+import dev.tengiz.payment.dto.response.ImportResponse;
+import dev.tengiz.payment.service.ImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.InputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/imports")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Imports", description = "Bulk transaction import endpoints")
+public class ImportController {
+
+    private final ImportService importService;
+
+    @PostMapping(value = "/transactions", consumes = "text/csv")
+    @Operation(
+        summary = "Import transactions from CSV",
+        description = "Stream a CSV file with a header line naming the transactionId, accountId, amount, currency "
+            + "and timestamp columns. Rows are loaded with COPY and merged with the idempotency and conflict "
+            + "rules of POST /transactions."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished, see counts and rejected lines"),
+        @ApiResponse(responseCode = "400", description = "Missing or invalid CSV header")
+    })
+    public ResponseEntity<ImportResponse> importCsv(InputStream body) {
+        log.info("Received CSV transaction import");
+        return ResponseEntity.ok(importService.importTransactions(body, ImportFormat.CSV));
+    }
+
+    @PostMapping(value = "/transactions", consumes = "application/x-ndjson")
+    @Operation(
+        summary = "Import transactions from NDJSON",
+        description = "Stream one transaction request JSON object per line. Rows are loaded with COPY and merged "
+            + "with the idempotency and conflict rules of POST /transactions."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished, see counts and rejected lines")
+    })
+    public ResponseEntity<ImportResponse> importNdjson(InputStream body) {
+        log.info("Received NDJSON transaction import");
+        return ResponseEntity.ok(importService.importTransactions(body, ImportFormat.NDJSON));
+    }
+}
@@ -1,19 +1,32 @@
 package dev.tengiz.payment.controller;
 
+import dev.tengiz.payment.codec.TransactionBinaryCodec;
+import dev.tengiz.payment.dto.request.BatchTransactionRequest;
 import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.BatchTransactionResponse;
 import dev.tengiz.payment.dto.response.TransactionResponse;
 import dev.tengiz.payment.dto.response.TransactionStatus;
+import dev.tengiz.payment.logging.LogMarkers;
+import dev.tengiz.payment.mapper.TransactionMapper;
 import dev.tengiz.payment.service.AggregationService;
+import dev.tengiz.payment.service.IngestionService;
+import dev.tengiz.payment.validation.TransactionRequestValidator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -28,15 +41,30 @@ import org.springframework.web.bind.annotation.RestController;
 public class TransactionController {
 
     private final AggregationService aggregationService;
+    private final IngestionService ingestionService;
+    private final TransactionMapper transactionMapper;
+    private final TransactionRequestValidator transactionRequestValidator;
 
-    @PostMapping
+    /**
+     * {@code @Valid} on the single-transaction body runs the hand-written validator instead of Hibernate
+     * Validator; the resulting errors are the same.
+     */
+    @InitBinder("transactionRequest")
+    public void initTransactionRequestBinder(WebDataBinder binder) {
+        binder.setValidator(transactionRequestValidator);
+    }
+
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, TransactionBinaryCodec.MEDIA_TYPE_VALUE})
     @Operation(
         summary = "Process a new transaction",
-        description = "Atomically process a transaction and update daily balance"
+        description = "Atomically process a transaction and update daily balance. The body is JSON or the "
+            + "fixed binary layout of " + TransactionBinaryCodec.MEDIA_TYPE_VALUE + ". In log ingestion mode the "
+            + "transaction is only appended to the durable ingestion log and stored asynchronously"
     )
     @ApiResponses(
         value = {
             @ApiResponse(responseCode = "201", description = "Transaction created successfully"),
+            @ApiResponse(responseCode = "202", description = "Transaction appended to the ingestion log (log mode)"),
             @ApiResponse(responseCode = "200", description = "Duplicate transaction (idempotent)"),
             @ApiResponse(responseCode = "409", description = "Conflict: same transactionId with different amount"),
             @ApiResponse(responseCode = "400", description = "Invalid request"),
@@ -46,12 +74,63 @@ public class TransactionController {
     public ResponseEntity<TransactionResponse> processTransaction(
         @Valid @RequestBody TransactionRequest request
     ) {
-        log.info("Received transaction request: transactionId={}, accountId={}, amount={}, currency={}",
+        log.info(LogMarkers.PER_REQUEST,
+            "Received transaction request: transactionId={}, accountId={}, amount={}, currency={}",
             request.getTransactionId(), request.getAccountId(),
             request.getAmount(), request.getCurrency());
 
+        if (ingestionService.isEnabled()) {
+            // A retry of a stored transaction is answered as a duplicate instead of being appended again
+            TransactionResponse response = ingestionService.enqueue(request);
+            HttpStatus status = response.getStatus() == TransactionStatus.ACCEPTED ? HttpStatus.ACCEPTED : HttpStatus.OK;
+            return ResponseEntity.status(status).body(response);
+        }
         TransactionResponse response = aggregationService.processTransaction(request);
         HttpStatus status = response.getStatus() == TransactionStatus.CREATED ? HttpStatus.CREATED : HttpStatus.OK;
         return ResponseEntity.status(status).body(response);
     }
+
+    @PostMapping(
+        value = "/batch",
+        consumes = {MediaType.APPLICATION_JSON_VALUE, TransactionBinaryCodec.MEDIA_TYPE_VALUE}
+    )
+    @Operation(
+        summary = "Process a batch of transactions",
+        description = "Atomically process up to " + BatchTransactionRequest.MAX_BATCH_SIZE
+            + " transactions (JSON or " + TransactionBinaryCodec.MEDIA_TYPE_VALUE + ") in a single database "
+            + "round-trip, returning a result per transaction"
+    )
+    @ApiResponses(
+        value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-transaction status"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+        }
+    )
+    public ResponseEntity<BatchTransactionResponse> processTransactions(
+        @Valid @RequestBody BatchTransactionRequest request
+    ) {
+        log.info(LogMarkers.PER_REQUEST, "Received transaction batch request: size={}",
+            request.getTransactions().size());
+
+        List<TransactionResponse> results = aggregationService.processTransactions(request.getTransactions());
+        return ResponseEntity.ok(transactionMapper.toBatchResponse(results));
+    }
+
+    @GetMapping("/{transactionId}/status")
+    @Operation(
+        summary = "Get the status of a transaction",
+        description = "ACCEPTED while the transaction waits in the ingestion log, then the outcome of storing it. "
+            + "Transactions the service no longer tracks are reported as CREATED if they are stored"
+    )
+    @ApiResponses(
+        value = {
+            @ApiResponse(responseCode = "200", description = "Transaction status"),
+            @ApiResponse(responseCode = "400", description = "Invalid transaction id"),
+            @ApiResponse(responseCode = "404", description = "Unknown transaction")
+        }
+    )
+    public ResponseEntity<TransactionResponse> getTransactionStatus(@PathVariable String transactionId) {
+        return ResponseEntity.ok(ingestionService.getStatus(transactionId));
+    }
 }
@@ -0,0 +1,71 @@
+package dev.tengiz.payment.datasource;
+
+import java.time.LocalDate;
+
+/**
+ * Newest business date the current thread is about to read, so {@link ReplicaRoutingDataSource} can keep reads
+ * of dates that are still being written on the primary. Reads without a date go wherever the lag allows. The
+ * routing data source records on the binding whether it sent the read to the replica, so callers can tell a
+ * result that may miss writes committed within the replica's lag.
+ */
+public final class ReadDateContext {
+
+    private static final ThreadLocal<Read> CURRENT = new ThreadLocal<>();
+
+    private ReadDateContext() {
+    }
+
+    /**
+     * Bind {@code newestDate} until the returned scope is closed, which restores the previous binding.
+     */
+    public static Scope open(LocalDate newestDate) {
+        return bind(new Read(newestDate));
+    }
+
+    public static LocalDate current() {
+        Read read = CURRENT.get();
+        return read == null ? null : read.newestDate;
+    }
+
+    /**
+     * Whether a connection of the current binding was routed to the replica.
+     */
+    public static boolean isReplicaRead() {
+        Read read = CURRENT.get();
+        return read != null && read.replica;
+    }
+
+    static void markReplicaRead() {
+        Read read = CURRENT.get();
+        if (read != null) {
+            read.replica = true;
+        }
+    }
+
+    private static Scope bind(Read read) {
+        Read previous = CURRENT.get();
+        CURRENT.set(read);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    private static final class Read {
+        private final LocalDate newestDate;
+        private boolean replica;
+
+        private Read(LocalDate newestDate) {
+            this.newestDate = newestDate;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,96 @@
+package dev.tengiz.payment.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Measures the replay lag of the replica in the background. The lag is unknown until the first check succeeds
+ * and again whenever a check fails, and an unknown lag counts as too large: reads then stay on the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /**
+     * Zero when the replica has replayed everything it received (an idle primary would otherwise look like a
+     * growing lag) or is not a standby at all; NULL when it has not replayed a transaction yet.
+     */
+    static final String LAG_SQL = """
+        SELECT CASE
+                   WHEN NOT pg_is_in_recovery() THEN 0
+                   WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                   ELSE (EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000)::bigint
+               END
+        """;
+
+    static final long UNKNOWN = -1;
+
+    private final DataSource replica;
+    private final Duration checkInterval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long lagMillis = UNKNOWN;
+
+    public ReplicaLagMonitor(DataSource replica, Duration checkInterval) {
+        this.replica = replica;
+        this.checkInterval = checkInterval;
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Whether the last measured lag is known and at most {@code maxLag}.
+     */
+    public boolean isWithin(Duration maxLag) {
+        long lag = lagMillis;
+        return lag != UNKNOWN && lag <= maxLag.toMillis();
+    }
+
+    /**
+     * Last measured lag in seconds, or -1 while it is unknown.
+     */
+    public double lagSeconds() {
+        long lag = lagMillis;
+        return lag == UNKNOWN ? -1 : lag / 1000.0;
+    }
+
+    void check() {
+        long previous = lagMillis;
+        lagMillis = measure();
+        if ((previous == UNKNOWN) != (lagMillis == UNKNOWN)) {
+            log.info("Replica lag is {}", lagMillis == UNKNOWN ? "unknown, reading from the primary" : lagMillis + " ms");
+        }
+    }
+
+    private long measure() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_SQL)) {
+            if (rs.next()) {
+                long lag = rs.getLong(1);
+                return rs.wasNull() ? UNKNOWN : lag;
+            }
+            return UNKNOWN;
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Could not measure replica lag: {}", e.getMessage());
+            return UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dev.tengiz.payment.datasource;
+
+import dev.tengiz.payment.config.ReplicaProperties;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica pool while its lag is within bounds and the read does not cover
+ * a business date that is still being written ({@link ReadDateContext}); everything else goes to the primary.
+ * Replica reads are recorded on the bound {@link ReadDateContext}.
+ * <p>
+ * The read-only flag of a transaction is only bound after the transaction manager has asked for a connection,
+ * so this data source must be used behind a {@code LazyConnectionDataSourceProxy}, which defers the lookup to
+ * the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReplicaProperties properties;
+    private final Clock clock;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    ReplicaProperties properties) {
+        this(primary, replica, lagMonitor, properties, Clock.systemUTC());
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                             ReplicaProperties properties, Clock clock) {
+        this.lagMonitor = lagMonitor;
+        this.properties = properties;
+        this.clock = clock;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Target determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            || !lagMonitor.isWithin(properties.getMaxLag())
+            || isStillWritten(ReadDateContext.current())) {
+            return Target.PRIMARY;
+        }
+        ReadDateContext.markReplicaRead();
+        return Target.REPLICA;
+    }
+
+    /**
+     * Business dates are UTC dates, see {@code TransactionMapper}.
+     */
+    private boolean isStillWritten(LocalDate date) {
+        return date != null && properties.getPrimaryDays() > 0
+            && date.isAfter(LocalDate.now(clock).minusDays(properties.getPrimaryDays()));
+    }
+}
@@ -0,0 +1,18 @@
+package dev.tengiz.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalancePoint {
+    private LocalDate date;
+    private BigDecimal balance;
+}
@@ -0,0 +1,23 @@
+package dev.tengiz.payment.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Balance of one account and currency on a business date, summed over bucket rows, as written by the
+ * export endpoints.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceRecord {
+    private String accountId;
+    private String currency;
+    private LocalDate businessDate;
+    private BigDecimal balance;
+}
@@ -0,0 +1,20 @@
+package dev.tengiz.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Balances of one currency over a date range, one point per business date with activity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CurrencyBalanceSeries {
+    private String currency;
+    private List<BalancePoint> points;
+}
@@ -0,0 +1,31 @@
+package dev.tengiz.payment.dto;
+
+import dev.tengiz.payment.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Balance of one currency on one business date, summed over bucket rows.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyCurrencyBalance {
+    private String currency;
+    private LocalDate businessDate;
+    /** In {@link Money} units. */
+    private long balance;
+
+    /**
+     * JPQL constructor expression over {@code SUM(balance)}.
+     */
+    public DailyCurrencyBalance(String currency, LocalDate businessDate, BigDecimal balance) {
+        this(currency, businessDate, Money.toUnits(balance));
+    }
+}
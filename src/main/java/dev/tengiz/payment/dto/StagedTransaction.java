@@ -0,0 +1,19 @@
+package dev.tengiz.payment.dto;
+
+import dev.tengiz.payment.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A parsed and normalized transaction of an import file, with the line it was read from.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StagedTransaction {
+    private long lineNumber;
+    private Transaction transaction;
+}
@@ -0,0 +1,26 @@
+package dev.tengiz.payment.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of merging one chunk of staged transactions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionImportResult {
+    private long created;
+    private long duplicates;
+    /** Lines whose id already exists with a different account, currency or amount. */
+    private List<Long> conflictLines;
+    /**
+     * Lines whose id the merge did not insert but whose stored row it could not see: inserted concurrently
+     * after the statement took its snapshot, or kept in a detached partition. They are compared separately.
+     */
+    private List<Long> unresolvedLines;
+}
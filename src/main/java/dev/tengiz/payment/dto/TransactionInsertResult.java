@@ -0,0 +1,24 @@
+package dev.tengiz.payment.dto;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a set-based insert for a single transaction id: either the row that was
+ * inserted by the statement, or the row that already existed before it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionInsertResult {
+    private UUID transactionId;
+    private boolean inserted;
+    private String accountId;
+    private String currency;
+    /** In {@link dev.tengiz.payment.money.Money} units; null when the row could not be read. */
+    private Long amount;
+}
@@ -0,0 +1,26 @@
+package dev.tengiz.payment.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A stored transaction as written by the export endpoints.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionRecord {
+    private UUID transactionId;
+    private String accountId;
+    private String currency;
+    private BigDecimal amount;
+    private OffsetDateTime timestamp;
+    private LocalDate businessDate;
+}
@@ -0,0 +1,24 @@
+package dev.tengiz.payment.dto.request;
+
+import java.time.LocalDate;
+import java.util.List;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceQueryRequest {
+
+    @NotEmpty(message = "Account IDs are required")
+    private List<@NotBlank(message = "Account ID must not be blank") String> accountIds;
+
+    @NotNull(message = "Date is required")
+    private LocalDate date;
+}
@@ -0,0 +1,24 @@
+package dev.tengiz.payment.dto.request;
+
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTransactionRequest {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    @NotEmpty(message = "Transactions are required")
+    @Size(max = MAX_BATCH_SIZE, message = "Batch must contain at most " + MAX_BATCH_SIZE + " transactions")
+    @Valid
+    private List<TransactionRequest> transactions;
+}
@@ -0,0 +1,8 @@
+package dev.tengiz.payment.dto.request;
+
+public enum ImportFormat {
+    /** Header line naming the {@code TransactionRequest} fields, then one transaction per line. */
+    CSV,
+    /** One {@code TransactionRequest} JSON object per line. */
+    NDJSON
+}
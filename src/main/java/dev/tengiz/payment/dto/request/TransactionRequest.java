@@ -1,9 +1,12 @@
 package dev.tengiz.payment.dto.request;
 
+import dev.tengiz.payment.money.Money;
 import dev.tengiz.payment.validation.ValidCurrency;
 import dev.tengiz.payment.validation.ValidUUID;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Digits;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -20,6 +23,9 @@ import lombok.NoArgsConstructor;
 @Builder
 public class TransactionRequest {
 
+    public static final String AMOUNT_RANGE_MESSAGE =
+        "Amount must be between " + Money.MIN_VALUE + " and " + Money.MAX_VALUE;
+
     @NotBlank(message = "Transaction ID is required")
     @ValidUUID(message = "Transaction ID must be a valid UUID")
     private String transactionId;
@@ -32,6 +38,8 @@ public class TransactionRequest {
 
     @NotNull(message = "Amount is required")
     @Digits(integer = 15, fraction = 4, message = "Amount must have max 15 integer and 4 decimal digits")
+    @DecimalMin(value = Money.MIN_VALUE, message = TransactionRequest.AMOUNT_RANGE_MESSAGE)
+    @DecimalMax(value = Money.MAX_VALUE, message = TransactionRequest.AMOUNT_RANGE_MESSAGE)
     private BigDecimal amount;
 
     @NotBlank(message = "Currency is required")
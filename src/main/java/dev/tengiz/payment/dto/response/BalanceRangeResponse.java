@@ -0,0 +1,23 @@
+package dev.tengiz.payment.dto.response;
+
+import dev.tengiz.payment.dto.CurrencyBalanceSeries;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceRangeResponse {
+    private String accountId;
+    private LocalDate from;
+    private LocalDate to;
+    /** Whether points hold the running total since {@code from} instead of the daily balance. */
+    private boolean cumulative;
+    private List<CurrencyBalanceSeries> series;
+}
@@ -0,0 +1,18 @@
+package dev.tengiz.payment.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTransactionResponse {
+    private int created;
+    private int duplicates;
+    private int conflicts;
+    private List<TransactionResponse> results;
+}
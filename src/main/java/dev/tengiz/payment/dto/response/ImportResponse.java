@@ -0,0 +1,34 @@
+package dev.tengiz.payment.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportResponse {
+    private long linesRead;
+    private long created;
+    private long duplicates;
+    private long conflicts;
+    /** Lines that could not be parsed or failed validation. */
+    private long rejected;
+    /** Details of the first rejected and conflicting lines, up to {@code payment.import.max-reported-lines}. */
+    private List<RejectedLine> rejectedLines;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RejectedLine {
+        private long lineNumber;
+        private String transactionId;
+        private String reason;
+    }
+}
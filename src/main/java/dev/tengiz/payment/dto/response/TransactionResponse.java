@@ -15,4 +15,6 @@ public class TransactionResponse {
     private String transactionId;
     private TransactionStatus status;
     private String message;
+    /** Position in the ingestion log of an {@link TransactionStatus#ACCEPTED} transaction. */
+    private Long offset;
 }
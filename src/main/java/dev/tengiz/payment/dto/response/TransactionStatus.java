@@ -1,6 +1,11 @@
 package dev.tengiz.payment.dto.response;
 
 public enum TransactionStatus {
+    /** Appended to the ingestion log, not yet stored in the database. */
+    ACCEPTED,
     CREATED,
-    DUPLICATE
+    DUPLICATE,
+    CONFLICT,
+    /** Rejected by the database when drained from the ingestion log and moved to its dead-letter log. */
+    FAILED
 }
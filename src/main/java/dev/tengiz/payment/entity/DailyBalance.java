@@ -38,6 +38,14 @@ public class DailyBalance {
     @Column(name = "business_date")
     private LocalDate businessDate;
 
+    /**
+     * Sub-balance row of a hot account; the account balance is the sum over all buckets.
+     */
+    @Id
+    @Column(nullable = false)
+    @Builder.Default
+    private Short bucket = 0;
+
     @Column(nullable = false, precision = 19, scale = 4)
     private BigDecimal balance;
 
@@ -57,5 +65,6 @@ public class DailyBalance {
         private String accountId;
         private String currency;
         private LocalDate businessDate;
+        private Short bucket;
     }
 }
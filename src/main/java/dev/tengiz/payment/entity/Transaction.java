@@ -1,13 +1,15 @@
 package dev.tengiz.payment.entity;
 
-import java.math.BigDecimal;
+import dev.tengiz.payment.money.MoneyConverter;
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.Id;
-import javax.persistence.PrePersist;
+import javax.persistence.IdClass;
 import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,6 +17,14 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
+/**
+ * Row of {@code payment.transactions}, keyed by {@code (business_date, seq)} like the table.
+ * <p>
+ * Read-only: rows are written by the statements in {@code TransactionRepositoryCustom}, which also register
+ * the id in {@code payment.transaction_ids}, the registry that enforces idempotency and locates a row by
+ * {@code transaction_id}. Persisting or deleting through JPA would bypass it, so {@code TransactionRepository}
+ * only exposes lookups through the registry.
+ */
 @Entity
 @Table(name = "transactions", schema = "payment")
 @Data
@@ -22,10 +32,20 @@ import lombok.ToString;
 @AllArgsConstructor
 @Builder
 @ToString
+@IdClass(Transaction.TransactionId.class)
 public class Transaction {
 
     @Id
-    @Column(name = "transaction_id")
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+
+    /** Assigned by the database on insert; null until then. */
+    @Id
+    @Column(name = "seq")
+    private Long seq;
+
+    /** Client id, unique through {@code transaction_ids}. */
+    @Column(name = "transaction_id", nullable = false)
     private UUID transactionId;
 
     @Column(name = "account_id", nullable = false, length = 64)
@@ -34,25 +54,27 @@ public class Transaction {
     @Column(nullable = false, length = 3)
     private String currency;
 
+    /** In {@link dev.tengiz.payment.money.Money} units. */
     @Column(nullable = false, precision = 19, scale = 4)
-    private BigDecimal amount;
+    @Convert(converter = MoneyConverter.class)
+    private long amount;
 
     @Column(name = "ts_utc", nullable = false)
     private OffsetDateTime tsUtc;
 
-    @Column(name = "business_date", nullable = false)
-    private LocalDate businessDate;
-
-    @Column(name = "created_at", nullable = false, updatable = false)
+    @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt;
 
-    @PrePersist
-    protected void onCreate() {
-        if (createdAt == null) {
-            createdAt = OffsetDateTime.now();
-        }
-        if (businessDate == null && tsUtc != null) {
-            businessDate = tsUtc.toLocalDate();
-        }
+    /** False while the amount still has to be added to the daily balance (write-behind mode). */
+    @Column(name = "balance_applied", nullable = false)
+    @Builder.Default
+    private boolean balanceApplied = true;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TransactionId implements Serializable {
+        private LocalDate businessDate;
+        private Long seq;
     }
 }
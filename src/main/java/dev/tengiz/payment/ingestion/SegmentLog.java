@@ -0,0 +1,363 @@
+package dev.tengiz.payment.ingestion;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only log of records in memory-mapped segment files, with a single consumer position.
+ * <p>
+ * Offsets are byte positions in the whole log, so they only grow: a segment file is named after the offset
+ * of its first record, and a new segment starts at the end offset of the previous one. A record is an
+ * {@code int} payload length, the CRC32C of the payload and the payload; a length of zero marks the
+ * unwritten end of a segment.
+ * <p>
+ * {@link #append} returns once the record is on disk. Appending threads only copy into the mapping; a
+ * single flusher thread forces everything appended so far and wakes all of them, so concurrent appends
+ * share one fsync (group commit). On open, the last segment is scanned and the log ends before the first
+ * record that is incomplete or fails its checksum.
+ */
+@Slf4j
+public class SegmentLog implements Closeable {
+
+    static final int HEADER_SIZE = 8;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CONSUMER_OFFSET_FILE = "consumer.offset";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final Thread flusher;
+
+    // Guarded by lock
+    private Segment active;
+    private long endOffset;
+    private boolean closed;
+    private RuntimeException flushFailure;
+
+    private volatile long durableOffset;
+    private volatile long committedOffset;
+
+    public SegmentLog(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        open();
+        this.flusher = new Thread(this::flushLoop, "segment-log-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    private void open() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SEGMENT_SUFFIX)) {
+                    long base = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                    segments.put(base, Segment.map(file, base, segmentSize));
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, Segment.map(segmentFile(0L), 0L, segmentSize));
+        }
+        active = segments.lastEntry().getValue();
+        endOffset = active.base + scanEnd(active);
+        durableOffset = endOffset;
+
+        Path offsetFile = directory.resolve(CONSUMER_OFFSET_FILE);
+        long committed = Files.exists(offsetFile)
+            ? ByteBuffer.wrap(Files.readAllBytes(offsetFile)).getLong()
+            : segments.firstKey();
+        committedOffset = Math.max(segments.firstKey(), Math.min(committed, endOffset));
+        log.info("Opened segment log {} with {} segments, offsets {} to {}",
+            directory, segments.size(), committedOffset, endOffset);
+    }
+
+    /**
+     * @return position after the last complete record of the segment
+     */
+    private int scanEnd(Segment segment) {
+        int position = 0;
+        while (position + HEADER_SIZE <= segment.size) {
+            int length = segment.buffer.getInt(position);
+            if (length <= 0 || length > segment.size - position - HEADER_SIZE
+                || checksum(segment.buffer, position + HEADER_SIZE, length) != segment.buffer.getInt(position + 4)) {
+                break;
+            }
+            position += HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    /**
+     * Append a record and wait until it is durable.
+     *
+     * @return offset of the record
+     * @throws IllegalStateException if the log is closed or a previous flush failed
+     */
+    public long append(byte[] payload) throws IOException {
+        int size = HEADER_SIZE + payload.length;
+        if (payload.length == 0) {
+            throw new IllegalArgumentException("Record must not be empty");
+        }
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit a segment");
+        }
+        long offset;
+        lock.lock();
+        try {
+            ensureWritable();
+            if (endOffset - active.base + size > active.size) {
+                roll();
+            }
+            int position = (int) (endOffset - active.base);
+            active.buffer.putInt(position + 4, checksum(payload));
+            active.buffer.put(position + HEADER_SIZE, payload);
+            // Written last, so a scan never sees the length of a record whose payload is not there yet
+            active.buffer.putInt(position, payload.length);
+            offset = endOffset;
+            endOffset += size;
+            appended.signal();
+
+            while (durableOffset < offset + size) {
+                if (flushFailure != null) {
+                    throw new IllegalStateException("Segment log is not writable after a failed flush", flushFailure);
+                }
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return offset;
+    }
+
+    private void ensureWritable() {
+        if (flushFailure != null) {
+            throw new IllegalStateException("Segment log is not writable after a failed flush", flushFailure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Segment log is closed");
+        }
+    }
+
+    /**
+     * Start a new segment at the end offset. Called with the lock held; the full segment is forced first,
+     * so everything before the new segment is durable.
+     */
+    private void roll() throws IOException {
+        active.force((int) (durableOffset - active.base), (int) (endOffset - active.base));
+        durableOffset = endOffset;
+        flushed.signalAll();
+        active = Segment.map(segmentFile(endOffset), endOffset, segmentSize);
+        segments.put(endOffset, active);
+    }
+
+    private void flushLoop() {
+        while (true) {
+            Segment segment;
+            long from;
+            long to;
+            lock.lock();
+            try {
+                while (!closed && flushFailure == null && endOffset == durableOffset) {
+                    appended.awaitUninterruptibly();
+                }
+                if (flushFailure != null || endOffset == durableOffset) {
+                    return;
+                }
+                segment = active;
+                from = Math.max(durableOffset, segment.base);
+                to = endOffset;
+            } finally {
+                lock.unlock();
+            }
+
+            RuntimeException failure = null;
+            try {
+                segment.force((int) (from - segment.base), (int) (to - segment.base));
+            } catch (RuntimeException e) {
+                log.error("Failed to flush segment log {}", directory, e);
+                failure = e;
+            }
+
+            lock.lock();
+            try {
+                if (failure != null) {
+                    flushFailure = failure;
+                } else if (to > durableOffset) {
+                    durableOffset = to;
+                }
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Read up to {@code maxRecords} durable records starting at {@code offset}, which must be the offset
+     * of a record or the end of the log.
+     */
+    public List<Entry> read(long offset, int maxRecords) {
+        List<Entry> entries = new ArrayList<>();
+        long limit = durableOffset;
+        while (offset < limit && entries.size() < maxRecords) {
+            Map.Entry<Long, Segment> floor = segments.floorEntry(offset);
+            if (floor == null) {
+                throw new IllegalArgumentException("Offset " + offset + " was already deleted");
+            }
+            Segment segment = floor.getValue();
+            int position = (int) (offset - segment.base);
+            int length = segment.buffer.getInt(position);
+            byte[] payload = new byte[length];
+            segment.buffer.get(position + HEADER_SIZE, payload);
+            long next = offset + HEADER_SIZE + length;
+            entries.add(new Entry(offset, next, payload));
+            offset = next;
+        }
+        return entries;
+    }
+
+    /**
+     * Offset the consumer continues from after a restart.
+     */
+    public long committedOffset() {
+        return committedOffset;
+    }
+
+    /**
+     * Durably store the consumer position and delete the segments that lie entirely before it.
+     */
+    public void commit(long offset) throws IOException {
+        Path offsetFile = directory.resolve(CONSUMER_OFFSET_FILE);
+        Path tempFile = directory.resolve(CONSUMER_OFFSET_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, offset));
+            channel.force(true);
+        }
+        Files.move(tempFile, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committedOffset = offset;
+
+        Map.Entry<Long, Segment> first = segments.firstEntry();
+        Long next = segments.higherKey(first.getKey());
+        while (next != null && next <= offset) {
+            segments.remove(first.getKey());
+            Files.deleteIfExists(first.getValue().file);
+            first = segments.firstEntry();
+            next = segments.higherKey(first.getKey());
+        }
+    }
+
+    /**
+     * Offset after the last durable record.
+     */
+    public long durableOffset() {
+        return durableOffset;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Stop accepting appends and wait for the flusher to make everything appended so far durable.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Path segmentFile(long base) {
+        return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static int checksum(ByteBuffer buffer, int position, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * A record read from the log.
+     */
+    @Value
+    public static class Entry {
+        long offset;
+        /** Offset of the following record, i.e. the position to commit once this one is processed. */
+        long nextOffset;
+        byte[] payload;
+    }
+
+    private static final class Segment {
+
+        final Path file;
+        final long base;
+        final int size;
+        final MappedByteBuffer buffer;
+
+        private Segment(Path file, long base, MappedByteBuffer buffer) {
+            this.file = file;
+            this.base = base;
+            this.size = buffer.capacity();
+            this.buffer = buffer;
+        }
+
+        /**
+         * Map an existing segment with its current size, or create it with {@code size} bytes.
+         */
+        static Segment map(Path file, long base, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long length = channel.size() > 0 ? channel.size() : size;
+                return new Segment(file, base, channel.map(FileChannel.MapMode.READ_WRITE, 0, length));
+            }
+        }
+
+        void force(int from, int to) {
+            if (to > from) {
+                buffer.force(from, to - from);
+            }
+        }
+    }
+}
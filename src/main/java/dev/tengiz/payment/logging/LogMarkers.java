@@ -0,0 +1,19 @@
+package dev.tengiz.payment.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * SLF4J markers shared by the logging configuration in {@code logback-spring.xml}.
+ */
+public final class LogMarkers {
+
+    /**
+     * Logs written once per HTTP request or transaction. {@link SamplingTurboFilter} keeps only a sample of
+     * them when {@code payment.logging.request-sample-rate} is above 1.
+     */
+    public static final Marker PER_REQUEST = MarkerFactory.getMarker("PER_REQUEST");
+
+    private LogMarkers() {
+    }
+}
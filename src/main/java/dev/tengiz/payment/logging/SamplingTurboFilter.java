@@ -0,0 +1,44 @@
+package dev.tengiz.payment.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Marker;
+
+/**
+ * Passes one in {@code sampleRate} log events carrying the {@code PER_REQUEST} marker and denies the rest
+ * before their message is formatted, so per-request logs cost a counter increment at high volume. Events
+ * at WARN and above, and events without the marker, are never dropped.
+ *
+ * <p>Level checks such as {@code isInfoEnabled(marker)} are answered as if sampling was off, so they do
+ * not consume a sample.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final AtomicLong counter = new AtomicLong();
+
+    private int sampleRate = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (sampleRate <= 1 || format == null || marker == null || level.isGreaterOrEqual(Level.WARN)
+            || !marker.contains(LogMarkers.PER_REQUEST)) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % sampleRate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Keep one in {@code sampleRate} per-request events; 1 or less keeps all of them.
+     */
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+}
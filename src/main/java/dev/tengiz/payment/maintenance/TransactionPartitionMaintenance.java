@@ -0,0 +1,63 @@
+package dev.tengiz.payment.maintenance;
+
+import dev.tengiz.payment.config.PartitioningProperties;
+import dev.tengiz.payment.repository.TransactionRepository;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps monthly partitions of {@code payment.transactions} created ahead of time, so inserts never
+ * fall into the default partition, and detaches partitions older than the configured retention.
+ * Runs on startup and daily; concurrent runs from several instances are serialized in the database.
+ */
+@Component
+@Slf4j
+public class TransactionPartitionMaintenance {
+
+    private final TransactionRepository transactionRepository;
+    private final PartitioningProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public TransactionPartitionMaintenance(TransactionRepository transactionRepository, PartitioningProperties properties) {
+        this(transactionRepository, properties, Clock.systemUTC());
+    }
+
+    TransactionPartitionMaintenance(TransactionRepository transactionRepository, PartitioningProperties properties, Clock clock) {
+        this.transactionRepository = transactionRepository;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${payment.partitioning.cron:0 15 2 * * *}", zone = "UTC")
+    public void run() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            // Next run retries; partitions are created months ahead
+            log.error("Transaction partition maintenance failed", e);
+        }
+    }
+
+    void maintain() {
+        LocalDate today = LocalDate.now(clock);
+        int created = transactionRepository.ensurePartitions(today, properties.getMonthsAhead());
+        if (created > 0) {
+            log.info("Created {} transaction partitions", created);
+        }
+        if (properties.getRetention() != null) {
+            List<String> detached = transactionRepository.detachPartitionsBefore(today.minus(properties.getRetention()));
+            if (!detached.isEmpty()) {
+                log.info("Detached transaction partitions {}", detached);
+            }
+        }
+    }
+}
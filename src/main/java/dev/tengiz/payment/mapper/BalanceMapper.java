@@ -1,30 +1,82 @@
 package dev.tengiz.payment.mapper;
 
+import dev.tengiz.payment.dto.BalancePoint;
 import dev.tengiz.payment.dto.CurrencyBalance;
+import dev.tengiz.payment.dto.CurrencyBalanceSeries;
+import dev.tengiz.payment.dto.DailyCurrencyBalance;
+import dev.tengiz.payment.dto.response.BalanceRangeResponse;
 import dev.tengiz.payment.dto.response.BalanceResponse;
 import dev.tengiz.payment.entity.DailyBalance;
+import dev.tengiz.payment.money.Money;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Component;
 
 @Component
 public class BalanceMapper {
 
+    /**
+     * Maps balance rows to one entry per currency, summing the bucket rows of hot accounts.
+     * Currencies keep the order of the input rows.
+     */
     public List<CurrencyBalance> toCurrencyBalances(List<DailyBalance> balances) {
-        return balances.stream()
-            .map(db -> CurrencyBalance.builder()
-                .currency(db.getCurrency())
-                .balance(db.getBalance())
+        Map<String, BigDecimal> totals = new LinkedHashMap<>();
+        balances.forEach(db -> totals.merge(db.getCurrency(), db.getBalance(), BigDecimal::add));
+        return totals.entrySet().stream()
+            .map(total -> CurrencyBalance.builder()
+                .currency(total.getKey())
+                .balance(total.getValue())
                 .build())
             .collect(Collectors.toList());
     }
 
     public BalanceResponse toBalanceResponse(String accountId, LocalDate date, List<DailyBalance> balances) {
+        return toBalanceResponseFromTotals(accountId, date, toCurrencyBalances(balances));
+    }
+
+    public BalanceResponse toBalanceResponseFromTotals(String accountId, LocalDate date, List<CurrencyBalance> totals) {
         return BalanceResponse.builder()
             .accountId(accountId)
             .date(date)
-            .balances(toCurrencyBalances(balances))
+            .balances(totals)
+            .build();
+    }
+
+    /**
+     * Groups per-day totals ordered by currency and date into one series per currency. With
+     * {@code cumulative} each point holds the running total since the start of the range.
+     */
+    public BalanceRangeResponse toBalanceRangeResponse(String accountId, LocalDate from, LocalDate to,
+                                                      boolean cumulative, List<DailyCurrencyBalance> days) {
+        List<CurrencyBalanceSeries> series = new ArrayList<>();
+        CurrencyBalanceSeries current = null;
+        long runningTotal = 0;
+        for (DailyCurrencyBalance day : days) {
+            if (current == null || !current.getCurrency().equals(day.getCurrency())) {
+                current = CurrencyBalanceSeries.builder()
+                    .currency(day.getCurrency())
+                    .points(new ArrayList<>())
+                    .build();
+                series.add(current);
+                runningTotal = 0;
+            }
+            runningTotal = Money.add(runningTotal, day.getBalance());
+            current.getPoints().add(BalancePoint.builder()
+                .date(day.getBusinessDate())
+                .balance(Money.toBigDecimal(cumulative ? runningTotal : day.getBalance()))
+                .build());
+        }
+        return BalanceRangeResponse.builder()
+            .accountId(accountId)
+            .from(from)
+            .to(to)
+            .cumulative(cumulative)
+            .series(series)
             .build();
     }
 }
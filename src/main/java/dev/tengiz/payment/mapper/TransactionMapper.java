@@ -1,11 +1,17 @@
 package dev.tengiz.payment.mapper;
 
+import dev.tengiz.payment.dto.TransactionInsertResult;
 import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.BatchTransactionResponse;
 import dev.tengiz.payment.dto.response.TransactionResponse;
 import dev.tengiz.payment.dto.response.TransactionStatus;
+import dev.tengiz.payment.entity.Transaction;
+import dev.tengiz.payment.money.Money;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -18,6 +24,17 @@ public class TransactionMapper {
         return timestamp.atZoneSameInstant(ZoneOffset.UTC).toLocalDate();
     }
 
+    public Transaction toTransaction(TransactionRequest request) {
+        return Transaction.builder()
+            .transactionId(UUID.fromString(request.getTransactionId()))
+            .accountId(request.getAccountId())
+            .currency(request.getCurrency().toUpperCase())
+            .amount(Money.toUnits(request.getAmount()))
+            .tsUtc(request.getTimestamp())
+            .businessDate(toBusinessDate(request.getTimestamp()))
+            .build();
+    }
+
     public TransactionResponse toCreatedResponse(TransactionRequest request) {
         return TransactionResponse.builder()
             .transactionId(request.getTransactionId())
@@ -33,4 +50,90 @@ public class TransactionMapper {
             .message("Transaction already processed")
             .build();
     }
+
+    public TransactionResponse toAcceptedResponse(TransactionRequest request, long offset) {
+        return TransactionResponse.builder()
+            .transactionId(request.getTransactionId())
+            .status(TransactionStatus.ACCEPTED)
+            .message("Transaction accepted for processing")
+            .offset(offset)
+            .build();
+    }
+
+    public TransactionResponse toStoredResponse(String transactionId) {
+        return TransactionResponse.builder()
+            .transactionId(transactionId)
+            .status(TransactionStatus.CREATED)
+            .message("Transaction stored")
+            .build();
+    }
+
+    public TransactionResponse toFailedResponse(TransactionRequest request, long offset) {
+        return TransactionResponse.builder()
+            .transactionId(request.getTransactionId())
+            .status(TransactionStatus.FAILED)
+            .message("Transaction could not be stored and was moved to the dead-letter log")
+            .offset(offset)
+            .build();
+    }
+
+    public TransactionResponse toConflictResponse(TransactionRequest request, TransactionInsertResult existing) {
+        return TransactionResponse.builder()
+            .transactionId(request.getTransactionId())
+            .status(TransactionStatus.CONFLICT)
+            .message(toConflictMessage(request, existing))
+            .build();
+    }
+
+    /**
+     * Answer for a retried id that is registered but whose row cannot be read, because its partition was
+     * detached for archival: the request cannot be verified to be a duplicate, so it is not reported as one.
+     */
+    public TransactionResponse toUnverifiableResponse(TransactionRequest request) {
+        return TransactionResponse.builder()
+            .transactionId(request.getTransactionId())
+            .status(TransactionStatus.CONFLICT)
+            .message(toUnverifiableMessage(request))
+            .build();
+    }
+
+    public String toUnverifiableMessage(TransactionRequest request) {
+        return String.format(
+            "Transaction %s already exists in an archived partition and cannot be compared with this request",
+            request.getTransactionId());
+    }
+
+    /**
+     * Describes how a retried request differs from the stored transaction, amount first.
+     */
+    public String toConflictMessage(TransactionRequest request, TransactionInsertResult existing) {
+        if (existing.getAmount() != null && existing.getAmount() != Money.toUnits(request.getAmount())) {
+            return String.format(
+                "Transaction %s already exists with a different amount. Existing=%s, Provided=%s",
+                request.getTransactionId(), Money.toBigDecimal(existing.getAmount()), request.getAmount());
+        }
+        return String.format(
+            "Transaction %s already exists with a different account or currency. Existing=%s/%s, Provided=%s/%s",
+            request.getTransactionId(), existing.getAccountId(), existing.getCurrency(),
+            request.getAccountId(), request.getCurrency().toUpperCase());
+    }
+
+    public BatchTransactionResponse toBatchResponse(List<TransactionResponse> results) {
+        int created = 0;
+        int duplicates = 0;
+        int conflicts = 0;
+        for (TransactionResponse result : results) {
+            switch (result.getStatus()) {
+                case CREATED -> created++;
+                case DUPLICATE -> duplicates++;
+                case CONFLICT -> conflicts++;
+            }
+        }
+        return BatchTransactionResponse.builder()
+            .created(created)
+            .duplicates(duplicates)
+            .conflicts(conflicts)
+            .results(results)
+            .build();
+    }
 }
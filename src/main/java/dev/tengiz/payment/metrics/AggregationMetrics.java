@@ -0,0 +1,94 @@
+package dev.tengiz.payment.metrics;
+
+import dev.tengiz.payment.dto.response.TransactionStatus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Timers of the transaction and balance hot paths. All timers publish percentile histograms, so p99 can
+ * be computed across instances in Prometheus.
+ */
+@Component
+public class AggregationMetrics {
+
+    /** Mode tag of {@link #recordInsert}. */
+    public static final String SYNCHRONOUS = "synchronous";
+    public static final String WRITE_BEHIND = "write-behind";
+    public static final String COALESCED = "coalesced";
+
+    /** Source tag of {@link #recordDuplicateCheck}. */
+    public static final String CACHE = "cache";
+    public static final String DATABASE = "database";
+
+    private final MeterRegistry registry;
+
+    public AggregationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * End-to-end processing of a single transaction, by outcome.
+     */
+    public void recordTransaction(TransactionStatus status, long elapsedNanos) {
+        timer("payment.transactions.process", "Single transaction processing", "status", status.name())
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Database time of the atomic insert statement, including the balance upsert in synchronous mode
+     * and the wait for the batch to fill in coalesced mode.
+     */
+    public void recordInsert(String mode, long elapsedNanos) {
+        timer("payment.transactions.insert", "Atomic transaction insert statement", "mode", mode)
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Number of single transactions inserted together by one coalesced statement.
+     */
+    public void recordCoalescedBatch(int size) {
+        DistributionSummary.builder("payment.transactions.coalesced.batch")
+            .description("Single transactions per coalesced insert statement")
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(size);
+    }
+
+    /**
+     * Lookup of the stored transaction for a retried id, from the recent transaction cache or the
+     * fallback query for rows committed concurrently.
+     */
+    public void recordDuplicateCheck(String source, long elapsedNanos) {
+        timer("payment.transactions.duplicate.check", "Stored transaction lookup for a retried id", "source", source)
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Balance upsert duration of an account with bucketed balances. Upserts on the same row queue on
+     * its lock, so this is the lock wait of the hottest accounts; other accounts are not tagged to
+     * keep the number of series bounded.
+     */
+    public void recordHotAccountUpsert(String accountId, long elapsedNanos) {
+        timer("payment.balances.hot.upsert", "Balance upsert of a hot account", "account", accountId)
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Single-date balance read, by whether a balance was found.
+     */
+    public void recordBalanceRead(boolean found, long elapsedNanos) {
+        timer("payment.balances.read", "Single-date balance read", "result", found ? "found" : "not_found")
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String name, String description, String tagKey, String tagValue) {
+        return Timer.builder(name)
+            .description(description)
+            .tag(tagKey, tagValue)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+}
@@ -0,0 +1,55 @@
+package dev.tengiz.payment.money;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point amounts as a {@code long} count of 0.0001 units, the scale of the {@code NUMERIC(19,4)} columns.
+ * Amounts are held in this form between the JSON and JDBC edges, so adding them does not allocate. The range
+ * is ±922,337,203,685,477.5807; arithmetic that leaves it throws {@link ArithmeticException}.
+ */
+public final class Money {
+
+    public static final int SCALE = 4;
+
+    /** Bounds of a representable amount, as {@code @DecimalMin}/{@code @DecimalMax} values. */
+    public static final String MIN_VALUE = "-922337203685477.5808";
+    public static final String MAX_VALUE = "922337203685477.5807";
+
+    private static final long UNITS_PER_ONE = 10_000L;
+
+    private Money() {
+    }
+
+    /**
+     * @throws ArithmeticException if the amount has more than 4 significant decimals or is out of range
+     */
+    public static long toUnits(BigDecimal amount) {
+        return amount.movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long units) {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    public static long add(long units, long other) {
+        return Math.addExact(units, other);
+    }
+
+    /**
+     * Same as {@code toBigDecimal(units).toPlainString()}, e.g. {@code -0.5000}, without the intermediate
+     * {@link BigDecimal}.
+     */
+    public static String toPlainString(long units) {
+        long integer = units / UNITS_PER_ONE;
+        int fraction = (int) Math.abs(units % UNITS_PER_ONE);
+        StringBuilder text = new StringBuilder(24);
+        if (units < 0) {
+            text.append('-');
+        }
+        text.append(Math.abs(integer)).append('.');
+        for (int divisor = 1000; divisor > 0; divisor /= 10) {
+            text.append((char) ('0' + fraction / divisor % 10));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package dev.tengiz.payment.money;
+
+import java.math.BigDecimal;
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Maps {@code NUMERIC(19,4)} columns to {@link Money} units on JPA entities.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long units) {
+        return units == null ? null : Money.toBigDecimal(units);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal amount) {
+        return amount == null ? null : Money.toUnits(amount);
+    }
+}
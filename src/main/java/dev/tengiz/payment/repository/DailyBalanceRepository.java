@@ -1,16 +1,85 @@
 package dev.tengiz.payment.repository;
 
+import dev.tengiz.payment.dto.CurrencyBalance;
+import dev.tengiz.payment.dto.DailyCurrencyBalance;
 import dev.tengiz.payment.entity.DailyBalance;
 import java.time.LocalDate;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface DailyBalanceRepository extends JpaRepository<DailyBalance, DailyBalance.DailyBalanceId> {
+public interface DailyBalanceRepository extends JpaRepository<DailyBalance, DailyBalance.DailyBalanceId>,
+        DailyBalanceRepositoryCustom {
 
-    @Query("SELECT db FROM DailyBalance db WHERE db.accountId = :accountId AND db.businessDate = :date ORDER BY db.currency")
+    /**
+     * Returns every bucket row of the account for the date, ordered by currency. Hot accounts have
+     * several rows per currency which callers must sum.
+     */
+    @Query("SELECT db FROM DailyBalance db WHERE db.accountId = :accountId AND db.businessDate = :date ORDER BY db.currency, db.bucket")
     List<DailyBalance> findByAccountAndDate(@Param("accountId") String accountId, @Param("date") LocalDate date);
+
+    /**
+     * Per-currency totals of the account for the date, summed over bucket rows. Rows are constructed
+     * straight into DTOs, so no entities are hydrated or tracked by the persistence context.
+     */
+    @Query("""
+        SELECT new dev.tengiz.payment.dto.CurrencyBalance(db.currency, SUM(db.balance))
+        FROM DailyBalance db
+        WHERE db.accountId = :accountId AND db.businessDate = :date
+        GROUP BY db.currency
+        ORDER BY db.currency
+        """)
+    List<CurrencyBalance> findCurrencyBalances(@Param("accountId") String accountId, @Param("date") LocalDate date);
+
+    /**
+     * Per-day, per-currency totals of the account between {@code from} and {@code to} inclusive,
+     * ordered by currency and date. Served by one range scan of {@code idx_bal_account_date}.
+     */
+    @Query("""
+        SELECT new dev.tengiz.payment.dto.DailyCurrencyBalance(db.currency, db.businessDate, SUM(db.balance))
+        FROM DailyBalance db
+        WHERE db.accountId = :accountId AND db.businessDate BETWEEN :from AND :to
+        GROUP BY db.currency, db.businessDate
+        ORDER BY db.currency, db.businessDate
+        """)
+    List<DailyCurrencyBalance> findDailyBalances(
+        @Param("accountId") String accountId,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
+
+    /**
+     * Set the number of bucket rows the account writes to. Lowering it is safe: rows in buckets above
+     * the new count stop receiving increments but are still summed on read.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO payment.account_balance_buckets (account_id, bucket_count, updated_at)
+        VALUES (:accountId, :bucketCount, CURRENT_TIMESTAMP)
+        ON CONFLICT (account_id)
+        DO UPDATE SET
+            bucket_count = EXCLUDED.bucket_count,
+            updated_at = CURRENT_TIMESTAMP
+        """, nativeQuery = true)
+    int configureBuckets(@Param("accountId") String accountId, @Param("bucketCount") int bucketCount);
+
+    /**
+     * Same as {@link #configureBuckets} but never overrides an explicitly configured count.
+     *
+     * @return 1 if the account was promoted, 0 if it already had a bucket count
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO payment.account_balance_buckets (account_id, bucket_count, updated_at)
+        VALUES (:accountId, :bucketCount, CURRENT_TIMESTAMP)
+        ON CONFLICT (account_id) DO NOTHING
+        """, nativeQuery = true)
+    int promoteToBuckets(@Param("accountId") String accountId, @Param("bucketCount") int bucketCount);
 }
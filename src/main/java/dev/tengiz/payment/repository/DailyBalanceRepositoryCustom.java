@@ -0,0 +1,33 @@
+package dev.tengiz.payment.repository;
+
+import dev.tengiz.payment.dto.BalanceRecord;
+import dev.tengiz.payment.dto.CurrencyBalance;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+public interface DailyBalanceRepositoryCustom {
+
+    /**
+     * Per-currency totals of several accounts on one date, read with a single
+     * {@code account_id = ANY(?)} query ordered by account and currency. Rows are handed to the
+     * consumer while the result set is read, so callers must run inside a transaction for the
+     * fetch size to take effect.
+     *
+     * @param accountIds accounts to read; accounts without a balance on the date produce no rows
+     * @param fetchSize rows fetched per round-trip
+     * @param consumer receives the account id and its balance in one currency
+     */
+    void streamCurrencyBalances(Collection<String> accountIds, LocalDate date, int fetchSize,
+                                BiConsumer<String, CurrencyBalance> consumer);
+
+    /**
+     * Every account's per-currency totals on one date, ordered by account and currency. Rows are read
+     * through a server-side cursor and handed to the consumer one at a time, so memory use does not
+     * depend on the number of accounts. Callers must run inside a transaction.
+     *
+     * @param fetchSize rows fetched per round-trip
+     */
+    void streamBalanceRecords(LocalDate date, int fetchSize, Consumer<BalanceRecord> consumer);
+}
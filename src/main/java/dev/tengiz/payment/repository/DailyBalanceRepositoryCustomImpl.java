@@ -0,0 +1,78 @@
+package dev.tengiz.payment.repository;
+
+import dev.tengiz.payment.dto.BalanceRecord;
+import dev.tengiz.payment.dto.CurrencyBalance;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class DailyBalanceRepositoryCustomImpl implements DailyBalanceRepositoryCustom {
+
+    /**
+     * Sums bucket rows per account and currency. Both the primary key and {@code idx_bal_account_date}
+     * lead with account_id, so every account in the array is a single index lookup.
+     */
+    private static final String CURRENCY_BALANCES_SQL = """
+        SELECT account_id, currency, SUM(balance) AS balance
+        FROM payment.daily_balance
+        WHERE account_id = ANY(?) AND business_date = ?
+        GROUP BY account_id, currency
+        ORDER BY account_id, currency
+        """;
+
+    /**
+     * Reads only the requested day through {@code idx_bal_date_account}. The index also returns the day in
+     * account and currency order, so on large days bucket rows can be summed while scanning it without a sort.
+     */
+    private static final String BALANCE_RECORDS_SQL = """
+        SELECT account_id, currency, business_date, SUM(balance) AS balance
+        FROM payment.daily_balance
+        WHERE business_date = ?
+        GROUP BY account_id, currency, business_date
+        ORDER BY account_id, currency
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void streamCurrencyBalances(Collection<String> accountIds, LocalDate date, int fetchSize,
+                                       BiConsumer<String, CurrencyBalance> consumer) {
+        if (accountIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(CURRENCY_BALANCES_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setArray(1, con.createArrayOf("varchar", accountIds.toArray()));
+            ps.setObject(2, date);
+            return ps;
+        }, rs -> {
+            consumer.accept(rs.getString("account_id"), CurrencyBalance.builder()
+                .currency(rs.getString("currency"))
+                .balance(rs.getBigDecimal("balance"))
+                .build());
+        });
+    }
+
+    @Override
+    public void streamBalanceRecords(LocalDate date, int fetchSize, Consumer<BalanceRecord> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(BALANCE_RECORDS_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setObject(1, date);
+            return ps;
+        }, rs -> {
+            consumer.accept(BalanceRecord.builder()
+                .accountId(rs.getString("account_id"))
+                .currency(rs.getString("currency"))
+                .businessDate(rs.getObject("business_date", LocalDate.class))
+                .balance(rs.getBigDecimal("balance"))
+                .build());
+        });
+    }
+}
@@ -1,57 +1,59 @@
 package dev.tengiz.payment.repository;
 
 import dev.tengiz.payment.entity.Transaction;
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Read-only on the JPA side, see {@link Transaction}: inserts go through {@link TransactionRepositoryCustom} so
+ * that every row is registered in {@code transaction_ids}.
+ */
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
+public interface TransactionRepository
+    extends org.springframework.data.repository.Repository<Transaction, Transaction.TransactionId>,
+    TransactionRepositoryCustom {
 
     /**
-     * Atomically insert transaction and update daily balance using CTE.
-     * Ensures idempotency (by transaction_id) and atomic balance increment.
+     * {@code transactions} has no index on {@code transaction_id}; by-id lookups go through the
+     * {@code transaction_ids} registry, which holds each row's {@code (business_date, seq)} key.
+     */
+    String BY_ID_FROM = """
+        FROM payment.transaction_ids r
+        JOIN payment.transactions tx ON tx.business_date = r.business_date AND tx.seq = r.seq
+        """;
+
+    @Query(value = "SELECT tx.* " + BY_ID_FROM + "WHERE r.transaction_id = :id", nativeQuery = true)
+    Optional<Transaction> findById(@Param("id") UUID id);
+
+    @Query(value = "SELECT tx.* " + BY_ID_FROM + "WHERE r.transaction_id IN (:ids)", nativeQuery = true)
+    List<Transaction> findAllById(@Param("ids") Iterable<UUID> ids);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 " + BY_ID_FROM + "WHERE r.transaction_id = :id)", nativeQuery = true)
+    boolean existsByTransactionId(@Param("id") UUID transactionId);
+
+    /**
+     * Create the monthly partitions of {@code transactions} for {@code months} months starting with
+     * the month of {@code from}. Existing partitions are left untouched.
+     *
+     * @return number of partitions created
+     */
+    @Transactional
+    @Query(value = "SELECT payment.ensure_transaction_partitions(:from, :months)", nativeQuery = true)
+    int ensurePartitions(@Param("from") LocalDate from, @Param("months") int months);
+
+    /**
+     * Detach the monthly partitions of {@code transactions} that end on or before {@code before}.
+     * Detached partitions remain as standalone tables for archival.
      *
-     * @return number of rows inserted into transactions (0 if duplicate, 1 if new)
+     * @return names of the detached partitions
      */
-    @Modifying
     @Transactional
-    @Query(value = """
-        WITH ins AS (
-            INSERT INTO payment.transactions (
-                transaction_id, account_id, currency, amount,
-                ts_utc, business_date, created_at
-            )
-            VALUES (
-                :transactionId, :accountId, :currency, :amount,
-                :tsUtc, :businessDate, CURRENT_TIMESTAMP
-            )
-            ON CONFLICT (transaction_id) DO NOTHING
-            RETURNING account_id, currency, amount, business_date
-        )
-        INSERT INTO payment.daily_balance (account_id, currency, business_date, balance, updated_at)
-        SELECT account_id, currency, business_date, amount, CURRENT_TIMESTAMP
-        FROM ins
-        ON CONFLICT (account_id, currency, business_date)
-        DO UPDATE SET
-            balance = payment.daily_balance.balance + EXCLUDED.balance,
-            updated_at = CURRENT_TIMESTAMP
-        """, nativeQuery = true)
-    int processTransactionAtomically(
-        @Param("transactionId") UUID transactionId,
-        @Param("accountId") String accountId,
-        @Param("currency") String currency,
-        @Param("amount") BigDecimal amount,
-        @Param("tsUtc") OffsetDateTime tsUtc,
-        @Param("businessDate") LocalDate businessDate
-    );
-
-    boolean existsByTransactionId(UUID transactionId);
+    @Query(value = "SELECT partition_name FROM payment.detach_transaction_partitions(:before)", nativeQuery = true)
+    List<String> detachPartitionsBefore(@Param("before") LocalDate before);
 }
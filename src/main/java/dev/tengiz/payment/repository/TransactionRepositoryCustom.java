@@ -0,0 +1,96 @@
+package dev.tengiz.payment.repository;
+
+import dev.tengiz.payment.aggregation.BalanceKey;
+import dev.tengiz.payment.dto.StagedTransaction;
+import dev.tengiz.payment.dto.TransactionImportResult;
+import dev.tengiz.payment.dto.TransactionInsertResult;
+import dev.tengiz.payment.dto.TransactionRecord;
+import dev.tengiz.payment.entity.Transaction;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Atomically insert a transaction and update its daily balance using a single CTE statement.
+     * Ensures idempotency (by transaction_id) and atomic balance increment. When the id already
+     * exists, the same round-trip returns the stored row for conflict detection.
+     *
+     * @param transaction transaction to insert, business date and currency already normalized
+     * @return the inserted row, the row that already existed, or empty if a concurrent transaction
+     *         inserted the id after this statement started and its row is not visible yet
+     */
+    Optional<TransactionInsertResult> processTransactionAtomically(Transaction transaction);
+
+    /**
+     * Insert a transaction without touching its daily balance. The row is flagged as pending and its
+     * amount is applied later by {@link #applyPendingBalances}.
+     *
+     * @return same as {@link #processTransactionAtomically}
+     */
+    Optional<TransactionInsertResult> insertWithPendingBalance(Transaction transaction);
+
+    /**
+     * Atomically insert a batch of transactions and update daily balances in a single statement.
+     * Balance deltas are pre-aggregated per (account_id, currency, business_date), so every
+     * balance row is locked at most once per batch.
+     *
+     * @param transactions transactions to insert, business date and currency already normalized
+     * @return one result per inserted row and one per row that already existed
+     */
+    List<TransactionInsertResult> processTransactionsAtomically(List<Transaction> transactions);
+
+    /**
+     * Apply the balance deltas of the given pending transactions in a single statement.
+     * Transactions are flagged as applied in the same statement, so a delta can never be applied twice
+     * even when another instance is recovering the same rows concurrently.
+     *
+     * @param transactionIds ids of transactions inserted with a pending balance
+     * @return balance rows that were updated
+     */
+    List<BalanceKey> applyPendingBalances(Collection<UUID> transactionIds);
+
+    /**
+     * Apply the balance deltas of every pending transaction, e.g. those left behind by a crashed instance.
+     *
+     * @return balance rows that were updated
+     */
+    List<BalanceKey> applyAllPendingBalances();
+
+    /**
+     * Apply the balance deltas of pending transactions inserted more than {@code minAge} ago by the
+     * database clock. Picks up rows no live flush is tracking, e.g. those of another crashed instance.
+     *
+     * @return balance rows that were updated
+     */
+    List<BalanceKey> applyStalePendingBalances(Duration minAge);
+
+    /**
+     * Bulk-load transactions with {@code COPY} into a temporary staging table and merge them with the
+     * same semantics as {@link #processTransactionsAtomically}: ids are registered in
+     * {@code transaction_ids}, new rows are inserted and their pre-aggregated amounts added to the
+     * (bucketed) daily balances. A repeated id is a duplicate when account, currency and amount match
+     * the stored row, or the first line with that id, and a conflict otherwise. Lines whose stored row
+     * the statement could not see are returned as unresolved for the caller to look up. Must run inside a
+     * transaction; the staging table is dropped on commit.
+     *
+     * @param transactions staged rows, business date and currency already normalized
+     */
+    TransactionImportResult importTransactions(List<StagedTransaction> transactions);
+
+    /**
+     * Stored transactions with a business date between {@code from} and {@code to} inclusive, read
+     * through a server-side cursor and handed to the consumer one at a time. Only the partitions of
+     * the range are scanned; rows are not sorted. Callers must run inside a transaction.
+     *
+     * @param accountId account to export, or null for every account
+     * @param fetchSize rows fetched per round-trip
+     */
+    void streamTransactionRecords(String accountId, LocalDate from, LocalDate to, int fetchSize,
+                                  Consumer<TransactionRecord> consumer);
+}
@@ -0,0 +1,387 @@
+package dev.tengiz.payment.repository;
+
+import dev.tengiz.payment.aggregation.BalanceKey;
+import dev.tengiz.payment.dto.StagedTransaction;
+import dev.tengiz.payment.dto.TransactionImportResult;
+import dev.tengiz.payment.dto.TransactionInsertResult;
+import dev.tengiz.payment.dto.TransactionRecord;
+import dev.tengiz.payment.entity.Transaction;
+import dev.tengiz.payment.money.Money;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    /**
+     * Same as {@link TransactionSql#SINGLE} without the balance upsert; the row is flagged as pending instead.
+     */
+    private static final String PENDING_SQL = """
+        WITH input AS (
+            SELECT ?::uuid AS transaction_id, ?::varchar AS account_id, ?::varchar AS currency,
+                   ?::numeric AS amount, ?::timestamptz AS ts_utc, ?::date AS business_date,
+                   nextval('payment.transactions_seq') AS seq
+        ),
+        reg AS (
+            INSERT INTO payment.transaction_ids (transaction_id, business_date, seq)
+            SELECT transaction_id, business_date, seq FROM input
+            ON CONFLICT (transaction_id) DO NOTHING
+            RETURNING transaction_id
+        ),
+        ins AS (
+            INSERT INTO payment.transactions (
+                transaction_id, account_id, currency, amount,
+                ts_utc, business_date, seq, created_at, balance_applied
+            )
+            SELECT input.transaction_id, account_id, currency, amount,
+                   ts_utc, business_date, seq, CURRENT_TIMESTAMP, FALSE
+            FROM input
+            JOIN reg ON reg.transaction_id = input.transaction_id
+            RETURNING transaction_id, account_id, currency, amount
+        )
+        SELECT transaction_id, TRUE AS inserted, account_id, currency, amount FROM ins
+        UNION ALL
+        SELECT tx.transaction_id, FALSE AS inserted, tx.account_id, tx.currency, tx.amount
+        FROM input
+        JOIN payment.transaction_ids r ON r.transaction_id = input.transaction_id
+        JOIN payment.transactions tx ON tx.business_date = r.business_date AND tx.seq = r.seq
+        """;
+
+    /**
+     * Flags pending transactions as applied and adds their pre-aggregated amounts to daily balances.
+     * Only rows this statement flips are summed, which keeps the upsert exact under concurrent flushes.
+     */
+    private static final String APPLY_PENDING_SQL = """
+        WITH applied AS (
+            UPDATE payment.transactions
+            SET balance_applied = TRUE
+            WHERE NOT balance_applied %s
+            RETURNING transaction_id, account_id, currency, amount, business_date
+        ),
+        agg AS (
+            SELECT applied.account_id, applied.currency, applied.business_date,
+                   COALESCE(mod(get_byte(uuid_send(applied.transaction_id), 15), b.bucket_count), 0) AS bucket,
+                   SUM(applied.amount) AS amount
+            FROM applied
+            LEFT JOIN payment.account_balance_buckets b ON b.account_id = applied.account_id
+            GROUP BY 1, 2, 3, 4
+        ),
+        upsert AS (
+            INSERT INTO payment.daily_balance (account_id, currency, business_date, bucket, balance, updated_at)
+            SELECT account_id, currency, business_date, bucket, amount, CURRENT_TIMESTAMP
+            FROM agg
+            ORDER BY account_id, currency, business_date, bucket
+            ON CONFLICT (account_id, currency, business_date, bucket)
+            DO UPDATE SET
+                balance = payment.daily_balance.balance + EXCLUDED.balance,
+                updated_at = CURRENT_TIMESTAMP
+            RETURNING account_id, currency, business_date
+        )
+        SELECT DISTINCT account_id, currency, business_date FROM upsert
+        """;
+
+    private static final String CREATE_STAGING_SQL = """
+        CREATE TEMPORARY TABLE import_staging (
+            line_no BIGINT NOT NULL,
+            transaction_id UUID NOT NULL,
+            account_id VARCHAR(64) NOT NULL,
+            currency VARCHAR(3) NOT NULL,
+            amount NUMERIC(19,4) NOT NULL,
+            ts_utc TIMESTAMP WITH TIME ZONE NOT NULL,
+            business_date DATE NOT NULL
+        ) ON COMMIT DROP
+        """;
+
+    private static final String COPY_STAGING_SQL =
+        "COPY pg_temp.import_staging (line_no, transaction_id, account_id, currency, amount, ts_utc, business_date) "
+            + "FROM STDIN";
+
+    /**
+     * Merges the staging table like {@link TransactionSql#BATCH}. Each staging line is then classified against a
+     * reference row: the stored transaction when the id existed before the statement, otherwise the
+     * first line with that id. An id that was not inserted but has no visible stored row is left unresolved
+     * rather than compared with its own line.
+     */
+    private static final String MERGE_STAGING_SQL = """
+        WITH input AS (
+            SELECT DISTINCT ON (transaction_id)
+                   line_no, transaction_id, account_id, currency, amount, ts_utc, business_date,
+                   nextval('payment.transactions_seq') AS seq
+            FROM pg_temp.import_staging
+            ORDER BY transaction_id, line_no
+        ),
+        reference AS (
+            SELECT input.transaction_id, input.line_no, tx.transaction_id IS NOT NULL AS stored,
+                   COALESCE(tx.account_id, input.account_id) AS account_id,
+                   COALESCE(tx.currency, input.currency) AS currency,
+                   COALESCE(tx.amount, input.amount) AS amount
+            FROM input
+            LEFT JOIN payment.transaction_ids r ON r.transaction_id = input.transaction_id
+            LEFT JOIN payment.transactions tx ON tx.business_date = r.business_date AND tx.seq = r.seq
+        ),
+        reg AS (
+            INSERT INTO payment.transaction_ids (transaction_id, business_date, seq)
+            SELECT transaction_id, business_date, seq FROM input
+            ORDER BY transaction_id
+            ON CONFLICT (transaction_id) DO NOTHING
+            RETURNING transaction_id
+        ),
+        ins AS (
+            INSERT INTO payment.transactions (
+                transaction_id, account_id, currency, amount,
+                ts_utc, business_date, seq, created_at
+            )
+            SELECT input.transaction_id, account_id, currency, amount,
+                   ts_utc, business_date, seq, CURRENT_TIMESTAMP
+            FROM input
+            JOIN reg ON reg.transaction_id = input.transaction_id
+            RETURNING transaction_id, account_id, currency, amount, business_date
+        ),
+        agg AS (
+            SELECT ins.account_id, ins.currency, ins.business_date,
+                   COALESCE(mod(get_byte(uuid_send(ins.transaction_id), 15), b.bucket_count), 0) AS bucket,
+                   SUM(ins.amount) AS amount
+            FROM ins
+            LEFT JOIN payment.account_balance_buckets b ON b.account_id = ins.account_id
+            GROUP BY 1, 2, 3, 4
+        ),
+        upsert AS (
+            INSERT INTO payment.daily_balance (account_id, currency, business_date, bucket, balance, updated_at)
+            SELECT account_id, currency, business_date, bucket, amount, CURRENT_TIMESTAMP
+            FROM agg
+            ORDER BY account_id, currency, business_date, bucket
+            ON CONFLICT (account_id, currency, business_date, bucket)
+            DO UPDATE SET
+                balance = payment.daily_balance.balance + EXCLUDED.balance,
+                updated_at = CURRENT_TIMESTAMP
+        ),
+        classified AS (
+            SELECT s.line_no,
+                   CASE
+                       WHEN ins.transaction_id IS NOT NULL AND s.line_no = ref.line_no THEN 'CREATED'
+                       WHEN ins.transaction_id IS NULL AND NOT ref.stored THEN 'UNRESOLVED'
+                       WHEN s.account_id = ref.account_id AND s.currency = ref.currency AND s.amount = ref.amount
+                           THEN 'DUPLICATE'
+                       ELSE 'CONFLICT'
+                   END AS status
+            FROM pg_temp.import_staging s
+            JOIN reference ref ON ref.transaction_id = s.transaction_id
+            LEFT JOIN ins ON ins.transaction_id = s.transaction_id
+        )
+        SELECT count(*) FILTER (WHERE status = 'CREATED') AS created,
+               count(*) FILTER (WHERE status = 'DUPLICATE') AS duplicates,
+               array_agg(line_no ORDER BY line_no) FILTER (WHERE status = 'CONFLICT') AS conflict_lines,
+               array_agg(line_no ORDER BY line_no) FILTER (WHERE status = 'UNRESOLVED') AS unresolved_lines
+        FROM classified
+        """;
+
+    private static final String TRANSACTION_RECORDS_SQL = """
+        SELECT transaction_id, account_id, currency, amount, ts_utc, business_date
+        FROM payment.transactions
+        WHERE business_date BETWEEN ? AND ?
+          AND (?::varchar IS NULL OR account_id = ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<TransactionInsertResult> processTransactionAtomically(Transaction transaction) {
+        return querySingle(TransactionSql.SINGLE, transaction);
+    }
+
+    @Override
+    public Optional<TransactionInsertResult> insertWithPendingBalance(Transaction transaction) {
+        return querySingle(PENDING_SQL, transaction);
+    }
+
+    @Override
+    public List<TransactionInsertResult> processTransactionsAtomically(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(con -> prepareBatch(con, transactions), (rs, rowNum) -> toInsertResult(rs));
+    }
+
+    @Override
+    public List<BalanceKey> applyPendingBalances(Collection<UUID> transactionIds) {
+        if (transactionIds.isEmpty()) {
+            return List.of();
+        }
+        String[] ids = transactionIds.stream().map(UUID::toString).toArray(String[]::new);
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                String.format(APPLY_PENDING_SQL, "AND transaction_id = ANY(?::uuid[])"));
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            return ps;
+        }, (rs, rowNum) -> toBalanceKey(rs));
+    }
+
+    @Override
+    public List<BalanceKey> applyAllPendingBalances() {
+        return jdbcTemplate.query(String.format(APPLY_PENDING_SQL, ""), (rs, rowNum) -> toBalanceKey(rs));
+    }
+
+    @Override
+    public List<BalanceKey> applyStalePendingBalances(Duration minAge) {
+        return jdbcTemplate.query(
+            String.format(APPLY_PENDING_SQL, "AND created_at < CURRENT_TIMESTAMP - make_interval(secs => ?)"),
+            (rs, rowNum) -> toBalanceKey(rs), minAge.toMillis() / 1000.0);
+    }
+
+    @Override
+    public TransactionImportResult importTransactions(List<StagedTransaction> transactions) {
+        if (transactions.isEmpty()) {
+            return new TransactionImportResult(0, 0, List.of(), List.of());
+        }
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            copyToStaging(con.unwrap(PGConnection.class), transactions);
+            return null;
+        });
+        return jdbcTemplate.queryForObject(MERGE_STAGING_SQL, (rs, rowNum) -> {
+            return TransactionImportResult.builder()
+                .created(rs.getLong("created"))
+                .duplicates(rs.getLong("duplicates"))
+                .conflictLines(toLineNumbers(rs.getArray("conflict_lines")))
+                .unresolvedLines(toLineNumbers(rs.getArray("unresolved_lines")))
+                .build();
+        });
+    }
+
+    private static List<Long> toLineNumbers(Array lines) throws SQLException {
+        return lines == null ? List.of() : Arrays.asList((Long[]) lines.getArray());
+    }
+
+    @Override
+    public void streamTransactionRecords(String accountId, LocalDate from, LocalDate to, int fetchSize,
+                                         Consumer<TransactionRecord> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(TRANSACTION_RECORDS_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setObject(1, from);
+            ps.setObject(2, to);
+            ps.setString(3, accountId);
+            ps.setString(4, accountId);
+            return ps;
+        }, rs -> {
+            consumer.accept(TransactionRecord.builder()
+                .transactionId(rs.getObject("transaction_id", UUID.class))
+                .accountId(rs.getString("account_id"))
+                .currency(rs.getString("currency"))
+                .amount(rs.getBigDecimal("amount"))
+                .timestamp(rs.getObject("ts_utc", OffsetDateTime.class))
+                .businessDate(rs.getObject("business_date", LocalDate.class))
+                .build());
+        });
+    }
+
+    /**
+     * Writes the rows in COPY text format. Every field was validated beforehand, so none can contain
+     * tabs, newlines or backslashes that would need escaping.
+     */
+    private void copyToStaging(PGConnection con, List<StagedTransaction> transactions) throws SQLException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(con, COPY_STAGING_SQL), StandardCharsets.UTF_8), 65536)) {
+            for (StagedTransaction staged : transactions) {
+                Transaction tx = staged.getTransaction();
+                out.write(Long.toString(staged.getLineNumber()));
+                out.write('\t');
+                out.write(tx.getTransactionId().toString());
+                out.write('\t');
+                out.write(tx.getAccountId());
+                out.write('\t');
+                out.write(tx.getCurrency());
+                out.write('\t');
+                out.write(Money.toPlainString(tx.getAmount()));
+                out.write('\t');
+                out.write(tx.getTsUtc().toString());
+                out.write('\t');
+                out.write(tx.getBusinessDate().toString());
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new SQLException("COPY into import staging table failed", e);
+        }
+    }
+
+    private Optional<TransactionInsertResult> querySingle(String sql, Transaction tx) {
+        List<TransactionInsertResult> rows = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setObject(1, tx.getTransactionId());
+            ps.setString(2, tx.getAccountId());
+            ps.setString(3, tx.getCurrency());
+            ps.setBigDecimal(4, Money.toBigDecimal(tx.getAmount()));
+            ps.setObject(5, tx.getTsUtc());
+            ps.setObject(6, tx.getBusinessDate());
+            return ps;
+        }, (rs, rowNum) -> toInsertResult(rs));
+        return rows.stream().findFirst();
+    }
+
+    private PreparedStatement prepareBatch(Connection con, List<Transaction> transactions) throws SQLException {
+        int size = transactions.size();
+        String[] ids = new String[size];
+        String[] accounts = new String[size];
+        String[] currencies = new String[size];
+        String[] amounts = new String[size];
+        String[] timestamps = new String[size];
+        String[] businessDates = new String[size];
+        for (int i = 0; i < size; i++) {
+            Transaction tx = transactions.get(i);
+            ids[i] = tx.getTransactionId().toString();
+            accounts[i] = tx.getAccountId();
+            currencies[i] = tx.getCurrency();
+            amounts[i] = Money.toPlainString(tx.getAmount());
+            timestamps[i] = tx.getTsUtc().toString();
+            businessDates[i] = tx.getBusinessDate().toString();
+        }
+
+        PreparedStatement ps = con.prepareStatement(TransactionSql.BATCH);
+        ps.setArray(1, con.createArrayOf("uuid", ids));
+        ps.setArray(2, con.createArrayOf("varchar", accounts));
+        ps.setArray(3, con.createArrayOf("varchar", currencies));
+        ps.setArray(4, con.createArrayOf("numeric", amounts));
+        ps.setArray(5, con.createArrayOf("timestamptz", timestamps));
+        ps.setArray(6, con.createArrayOf("date", businessDates));
+        return ps;
+    }
+
+    private TransactionInsertResult toInsertResult(ResultSet rs) throws SQLException {
+        return TransactionInsertResult.builder()
+            .transactionId(rs.getObject("transaction_id", UUID.class))
+            .inserted(rs.getBoolean("inserted"))
+            .accountId(rs.getString("account_id"))
+            .currency(rs.getString("currency"))
+            .amount(Money.toUnits(rs.getBigDecimal("amount")))
+            .build();
+    }
+
+    private BalanceKey toBalanceKey(ResultSet rs) throws SQLException {
+        return new BalanceKey(
+            rs.getString("account_id"),
+            rs.getString("currency"),
+            rs.getObject("business_date", LocalDate.class));
+    }
+}
@@ -0,0 +1,129 @@
+package dev.tengiz.payment.repository;
+
+/**
+ * Insert statements of the transaction write path. They are shared with the reactive module, so they are
+ * written with JDBC {@code ?} placeholders and cast every parameter explicitly.
+ */
+public final class TransactionSql {
+
+    /**
+     * Inserts the transaction and increments its balance row. {@code transactions} is partitioned by
+     * business date, so idempotency is enforced by registering the id in {@code transaction_ids} first:
+     * the transaction row is only inserted when the registration did not conflict. The registration
+     * also records the row's {@code (business_date, seq)} primary key, which is how an existing row is
+     * found again; {@code seq} is drawn from a sequence so the primary key only appends.
+     * <p>
+     * Accounts listed in {@code account_balance_buckets} spread the increment over their bucket rows,
+     * picked from the last byte of the transaction id. All parts of the statement share one snapshot,
+     * so the final SELECT only sees a row that existed before the statement: it returns either the
+     * inserted row or the existing one, never both.
+     */
+    public static final String SINGLE = """
+        WITH input AS (
+            SELECT ?::uuid AS transaction_id, ?::varchar AS account_id, ?::varchar AS currency,
+                   ?::numeric AS amount, ?::timestamptz AS ts_utc, ?::date AS business_date,
+                   nextval('payment.transactions_seq') AS seq
+        ),
+        reg AS (
+            INSERT INTO payment.transaction_ids (transaction_id, business_date, seq)
+            SELECT transaction_id, business_date, seq FROM input
+            ON CONFLICT (transaction_id) DO NOTHING
+            RETURNING transaction_id
+        ),
+        ins AS (
+            INSERT INTO payment.transactions (
+                transaction_id, account_id, currency, amount,
+                ts_utc, business_date, seq, created_at
+            )
+            SELECT input.transaction_id, account_id, currency, amount,
+                   ts_utc, business_date, seq, CURRENT_TIMESTAMP
+            FROM input
+            JOIN reg ON reg.transaction_id = input.transaction_id
+            RETURNING transaction_id, account_id, currency, amount, business_date
+        ),
+        upsert AS (
+            INSERT INTO payment.daily_balance (account_id, currency, business_date, bucket, balance, updated_at)
+            SELECT ins.account_id, ins.currency, ins.business_date,
+                   COALESCE(mod(get_byte(uuid_send(ins.transaction_id), 15), b.bucket_count), 0),
+                   ins.amount, CURRENT_TIMESTAMP
+            FROM ins
+            LEFT JOIN payment.account_balance_buckets b ON b.account_id = ins.account_id
+            ON CONFLICT (account_id, currency, business_date, bucket)
+            DO UPDATE SET
+                balance = payment.daily_balance.balance + EXCLUDED.balance,
+                updated_at = CURRENT_TIMESTAMP
+        )
+        SELECT transaction_id, TRUE AS inserted, account_id, currency, amount FROM ins
+        UNION ALL
+        SELECT tx.transaction_id, FALSE AS inserted, tx.account_id, tx.currency, tx.amount
+        FROM input
+        JOIN payment.transaction_ids r ON r.transaction_id = input.transaction_id
+        JOIN payment.transactions tx ON tx.business_date = r.business_date AND tx.seq = r.seq
+        """;
+
+    /**
+     * Same semantics as {@link TransactionRepositoryCustom#processTransactionAtomically}, applied to a
+     * whole batch: duplicates inside the batch collapse to their first occurrence, ids are registered
+     * and the pre-aggregated balance rows upserted in key order, so concurrent batches with overlapping
+     * ids or accounts take their locks in the same order instead of deadlocking, and rows that
+     * already existed are returned alongside the inserted ones for conflict detection.
+     */
+    public static final String BATCH = """
+        WITH input AS (
+            SELECT DISTINCT ON (t.transaction_id)
+                   t.transaction_id, t.account_id, t.currency, t.amount, t.ts_utc, t.business_date,
+                   nextval('payment.transactions_seq') AS seq
+            FROM unnest(?::uuid[], ?::varchar[], ?::varchar[], ?::numeric[], ?::timestamptz[], ?::date[])
+                 WITH ORDINALITY AS t(transaction_id, account_id, currency, amount, ts_utc, business_date, ord)
+            ORDER BY t.transaction_id, t.ord
+        ),
+        existing AS (
+            SELECT tx.transaction_id, tx.account_id, tx.currency, tx.amount
+            FROM input
+            JOIN payment.transaction_ids r ON r.transaction_id = input.transaction_id
+            JOIN payment.transactions tx ON tx.business_date = r.business_date AND tx.seq = r.seq
+        ),
+        reg AS (
+            INSERT INTO payment.transaction_ids (transaction_id, business_date, seq)
+            SELECT transaction_id, business_date, seq FROM input
+            ORDER BY transaction_id
+            ON CONFLICT (transaction_id) DO NOTHING
+            RETURNING transaction_id
+        ),
+        ins AS (
+            INSERT INTO payment.transactions (
+                transaction_id, account_id, currency, amount,
+                ts_utc, business_date, seq, created_at
+            )
+            SELECT input.transaction_id, account_id, currency, amount,
+                   ts_utc, business_date, seq, CURRENT_TIMESTAMP
+            FROM input
+            JOIN reg ON reg.transaction_id = input.transaction_id
+            RETURNING transaction_id, account_id, currency, amount, business_date
+        ),
+        agg AS (
+            SELECT ins.account_id, ins.currency, ins.business_date,
+                   COALESCE(mod(get_byte(uuid_send(ins.transaction_id), 15), b.bucket_count), 0) AS bucket,
+                   SUM(ins.amount) AS amount
+            FROM ins
+            LEFT JOIN payment.account_balance_buckets b ON b.account_id = ins.account_id
+            GROUP BY 1, 2, 3, 4
+        ),
+        upsert AS (
+            INSERT INTO payment.daily_balance (account_id, currency, business_date, bucket, balance, updated_at)
+            SELECT account_id, currency, business_date, bucket, amount, CURRENT_TIMESTAMP
+            FROM agg
+            ORDER BY account_id, currency, business_date, bucket
+            ON CONFLICT (account_id, currency, business_date, bucket)
+            DO UPDATE SET
+                balance = payment.daily_balance.balance + EXCLUDED.balance,
+                updated_at = CURRENT_TIMESTAMP
+        )
+        SELECT transaction_id, TRUE AS inserted, account_id, currency, amount FROM ins
+        UNION ALL
+        SELECT transaction_id, FALSE AS inserted, account_id, currency, amount FROM existing
+        """;
+
+    private TransactionSql() {
+    }
+}
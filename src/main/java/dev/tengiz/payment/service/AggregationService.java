@@ -1,10 +1,14 @@
 package dev.tengiz.payment.service;
 
 import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.BalanceRangeResponse;
 import dev.tengiz.payment.dto.response.BalanceResponse;
 import dev.tengiz.payment.dto.response.TransactionResponse;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface AggregationService {
 
@@ -15,6 +19,21 @@ public interface AggregationService {
      */
     TransactionResponse processTransaction(TransactionRequest request);
 
+    /**
+     * Process a batch of transactions atomically in a single database round-trip
+     * @param requests transaction details
+     * @return one response per request, in request order
+     */
+    List<TransactionResponse> processTransactions(List<TransactionRequest> requests);
+
+    /**
+     * Answer a request as a retry of an already stored transaction without storing anything
+     * @param request transaction details
+     * @return a duplicate response if the transaction is stored with the same values, empty if it is not stored
+     * @throws dev.tengiz.payment.exception.ConflictException if it is stored with a different amount, account or currency
+     */
+    Optional<TransactionResponse> findStored(TransactionRequest request);
+
     /**
      * Retrieve daily balances for an account
      * @param accountId account identifier
@@ -22,4 +41,23 @@ public interface AggregationService {
      * @return balance response with all currencies
      */
     BalanceResponse getBalance(String accountId, LocalDate date);
+
+    /**
+     * Retrieve per-day balances for an account over a date range in a single query
+     * @param accountId account identifier
+     * @param from first business date (UTC), inclusive
+     * @param to last business date (UTC), inclusive
+     * @param cumulative return running totals since {@code from} instead of daily balances
+     * @return one series per currency, empty if the account had no activity in the range
+     */
+    BalanceRangeResponse getBalances(String accountId, LocalDate from, LocalDate to, boolean cumulative);
+
+    /**
+     * Retrieve the balances of many accounts for one date in a single query, handing each account's
+     * response to the consumer as soon as its rows have been read
+     * @param accountIds account identifiers, at most {@code payment.balance-query.max-accounts}
+     * @param date business date (UTC)
+     * @param consumer receives one response per account with a balance, ordered by account id
+     */
+    void queryBalances(List<String> accountIds, LocalDate date, Consumer<BalanceResponse> consumer);
 }
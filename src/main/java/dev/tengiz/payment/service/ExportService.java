@@ -0,0 +1,25 @@
+package dev.tengiz.payment.service;
+
+import dev.tengiz.payment.dto.BalanceRecord;
+import dev.tengiz.payment.dto.TransactionRecord;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+public interface ExportService {
+
+    /**
+     * Stream stored transactions of a business date range to the consumer, one row at a time
+     * @param accountId account to export, or null for every account
+     * @param from first business date (UTC), inclusive
+     * @param to last business date (UTC), inclusive, not before {@code from}
+     * @param consumer receives every transaction; blocking in it pauses the database cursor
+     */
+    void exportTransactions(String accountId, LocalDate from, LocalDate to, Consumer<? super TransactionRecord> consumer);
+
+    /**
+     * Stream every account's per-currency balance on a business date to the consumer, one row at a time
+     * @param date business date (UTC)
+     * @param consumer receives every balance, ordered by account and currency
+     */
+    void exportBalances(LocalDate date, Consumer<? super BalanceRecord> consumer);
+}
@@ -0,0 +1,18 @@
+package dev.tengiz.payment.service;
+
+import dev.tengiz.payment.dto.request.ImportFormat;
+import dev.tengiz.payment.dto.response.ImportResponse;
+import java.io.InputStream;
+
+public interface ImportService {
+
+    /**
+     * Import a file of transactions, reading it line by line and loading it in chunks with COPY.
+     * Idempotency and conflict detection match {@link AggregationService#processTransactions}; each
+     * chunk is committed on its own, so a failed import can simply be re-run.
+     * @param input CSV or NDJSON content, UTF-8
+     * @param format content format
+     * @return counts per outcome, the first rejected lines and the throughput
+     */
+    ImportResponse importTransactions(InputStream input, ImportFormat format);
+}
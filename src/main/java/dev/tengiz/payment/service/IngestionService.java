@@ -0,0 +1,30 @@
+package dev.tengiz.payment.service;
+
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.TransactionResponse;
+
+public interface IngestionService {
+
+    /**
+     * @return whether {@code POST /transactions} goes through the ingestion log
+     */
+    boolean isEnabled();
+
+    /**
+     * Durably append a validated transaction to the ingestion log; a background consumer stores it
+     * through {@link AggregationService#processTransactions} later
+     * @param request transaction details
+     * @return an {@code ACCEPTED} response carrying the log offset, or a {@code DUPLICATE} response if the
+     * transaction is already stored with the same values
+     * @throws dev.tengiz.payment.exception.ConflictException if the id is waiting in the log or stored with a
+     * different amount, account or currency
+     */
+    TransactionResponse enqueue(TransactionRequest request);
+
+    /**
+     * Look up where a transaction is: waiting in the ingestion log, or the outcome of storing it
+     * @param transactionId transaction id
+     * @return the last known response for the transaction
+     */
+    TransactionResponse getStatus(String transactionId);
+}
@@ -1,19 +1,46 @@
 package dev.tengiz.payment.service.impl;
 
+import dev.tengiz.payment.aggregation.BalanceKey;
+import dev.tengiz.payment.aggregation.HotAccountDetector;
+import dev.tengiz.payment.aggregation.InsertCoalescer;
+import dev.tengiz.payment.aggregation.WriteBehindBalanceAggregator;
+import dev.tengiz.payment.cache.BalanceCache;
+import dev.tengiz.payment.cache.RecentTransactionCache;
+import dev.tengiz.payment.config.BalanceQueryProperties;
+import dev.tengiz.payment.config.ReplicaProperties;
+import dev.tengiz.payment.datasource.ReadDateContext;
+import dev.tengiz.payment.dto.CurrencyBalance;
+import dev.tengiz.payment.dto.DailyCurrencyBalance;
+import dev.tengiz.payment.dto.TransactionInsertResult;
 import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.BalanceRangeResponse;
 import dev.tengiz.payment.dto.response.BalanceResponse;
 import dev.tengiz.payment.dto.response.TransactionResponse;
-import dev.tengiz.payment.entity.DailyBalance;
+import dev.tengiz.payment.dto.response.TransactionStatus;
+import dev.tengiz.payment.entity.Transaction;
 import dev.tengiz.payment.exception.ConflictException;
+import dev.tengiz.payment.exception.InvalidRequestException;
 import dev.tengiz.payment.exception.ResourceNotFoundException;
+import dev.tengiz.payment.logging.LogMarkers;
 import dev.tengiz.payment.mapper.BalanceMapper;
 import dev.tengiz.payment.mapper.TransactionMapper;
+import dev.tengiz.payment.metrics.AggregationMetrics;
 import dev.tengiz.payment.repository.DailyBalanceRepository;
 import dev.tengiz.payment.repository.TransactionRepository;
 import dev.tengiz.payment.service.AggregationService;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -24,40 +51,153 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class AggregationServiceImpl implements AggregationService {
 
+    /** Longest date range served by {@link #getBalances}. */
+    static final int MAX_RANGE_DAYS = 366;
+
     private final TransactionRepository transactionRepository;
     private final DailyBalanceRepository dailyBalanceRepository;
     private final TransactionMapper transactionMapper;
     private final BalanceMapper balanceMapper;
+    private final WriteBehindBalanceAggregator writeBehindAggregator;
+    private final InsertCoalescer insertCoalescer;
+    private final BalanceCache balanceCache;
+    private final HotAccountDetector hotAccountDetector;
+    private final RecentTransactionCache recentTransactionCache;
+    private final BalanceQueryProperties balanceQueryProperties;
+    private final ReplicaProperties replicaProperties;
+    private final AggregationMetrics aggregationMetrics;
 
     @Override
     @Transactional
     public TransactionResponse processTransaction(TransactionRequest request) {
+        long startNanos = System.nanoTime();
+        try {
+            TransactionResponse response = doProcessTransaction(request);
+            aggregationMetrics.recordTransaction(response.getStatus(), System.nanoTime() - startNanos);
+            return response;
+        } catch (ConflictException e) {
+            aggregationMetrics.recordTransaction(TransactionStatus.CONFLICT, System.nanoTime() - startNanos);
+            throw e;
+        }
+    }
+
+    private TransactionResponse doProcessTransaction(TransactionRequest request) {
         log.debug("Processing transaction: {}", request.getTransactionId());
 
-        UUID txId = UUID.fromString(request.getTransactionId());
+        // Normalizes currency and computes business date from UTC timestamp
+        Transaction tx = transactionMapper.toTransaction(request);
+        UUID txId = tx.getTransactionId();
 
-        // Compute business date from UTC timestamp using mapper
-        LocalDate businessDate = transactionMapper.toBusinessDate(request.getTimestamp());
+        // Retries of recently stored transactions are answered without a database round-trip
+        if (recentTransactionCache.isEnabled()) {
+            long lookupNanos = System.nanoTime();
+            TransactionInsertResult recent = recentTransactionCache.find(txId);
+            aggregationMetrics.recordDuplicateCheck(AggregationMetrics.CACHE, System.nanoTime() - lookupNanos);
+            if (recent != null) {
+                return toDuplicateResponse(request, tx, recent);
+            }
+        }
 
-        // Execute atomic CTE operation
-        int rowsAffected = transactionRepository.processTransactionAtomically(
-            txId,
-            request.getAccountId(),
-            request.getCurrency().toUpperCase(),
-            request.getAmount(),
-            request.getTimestamp(),
-            businessDate
-        );
+        TransactionInsertResult result;
+        long startNanos = System.nanoTime();
+        if (writeBehindAggregator.isEnabled()) {
+            // Insert only; the balance delta is flushed in batches after commit
+            Optional<TransactionInsertResult> inserted = transactionRepository.insertWithPendingBalance(tx);
+            aggregationMetrics.recordInsert(AggregationMetrics.WRITE_BEHIND, System.nanoTime() - startNanos);
+            result = inserted.orElseGet(() -> findExisting(txId));
+            if (result.isInserted()) {
+                writeBehindAggregator.addAfterCommit(new BalanceKey(tx.getAccountId(), tx.getCurrency(), tx.getBusinessDate()), txId);
+            }
+        } else {
+            // Execute atomic CTE operation, alone or together with concurrent requests; its duration
+            // tracks the balance row lock wait
+            Optional<TransactionInsertResult> inserted;
+            if (insertCoalescer.isEnabled()) {
+                inserted = insertCoalescer.processTransactionAtomically(tx);
+            } else {
+                inserted = transactionRepository.processTransactionAtomically(tx);
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            aggregationMetrics.recordInsert(insertCoalescer.isEnabled()
+                ? AggregationMetrics.COALESCED : AggregationMetrics.SYNCHRONOUS, elapsedNanos);
+            result = inserted.orElseGet(() -> findExisting(txId));
+            if (result.isInserted()) {
+                // A coalesced insert also waited for its batch to fill and for the other rows of the
+                // statement, which is not this account's lock wait
+                if (!insertCoalescer.isEnabled()) {
+                    hotAccountDetector.record(tx.getAccountId(), elapsedNanos);
+                    if (hotAccountDetector.isBucketed(tx.getAccountId())) {
+                        aggregationMetrics.recordHotAccountUpsert(tx.getAccountId(), elapsedNanos);
+                    }
+                }
+                balanceCache.evictAfterCommit(tx.getAccountId(), tx.getBusinessDate());
+            }
+        }
 
-        if (rowsAffected > 0) {
-            log.info("Transaction {} processed successfully for account {}", txId, request.getAccountId());
+        if (result.isInserted()) {
+            recentTransactionCache.putAfterCommit(result);
+            log.info(LogMarkers.PER_REQUEST, "Transaction {} processed successfully for account {}",
+                txId, request.getAccountId());
             return transactionMapper.toCreatedResponse(request);
-        } else {
-            // Duplicate: verify idempotency by comparing amount with existing transaction
-            validateDuplicateAmount(txId, request);
-            log.info("Duplicate transaction detected: {}", txId);
-            return transactionMapper.toDuplicateResponse(request);
         }
+        // Duplicate: the statement returned the existing, committed row
+        recentTransactionCache.put(result);
+        return toDuplicateResponse(request, tx, result);
+    }
+
+    @Override
+    @Transactional
+    public List<TransactionResponse> processTransactions(List<TransactionRequest> requests) {
+        log.debug("Processing batch of {} transactions", requests.size());
+
+        List<Transaction> transactions = requests.stream()
+            .map(transactionMapper::toTransaction)
+            .collect(Collectors.toList());
+
+        // Execute set-based CTE for the whole batch
+        Map<UUID, TransactionInsertResult> results = new HashMap<>();
+        transactionRepository.processTransactionsAtomically(transactions)
+            .forEach(result -> results.put(result.getTransactionId(), result));
+        resolveConcurrentDuplicates(transactions, results);
+        results.values().stream()
+            .filter(result -> !result.isInserted())
+            .forEach(recentTransactionCache::put);
+
+        List<TransactionResponse> responses = new ArrayList<>(requests.size());
+        Set<UUID> created = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionRequest request = requests.get(i);
+            Transaction tx = transactions.get(i);
+            UUID txId = tx.getTransactionId();
+            TransactionInsertResult result = results.get(txId);
+
+            // Only the first occurrence of an id within the batch is the one that got inserted
+            if (result != null && result.isInserted() && created.add(txId)) {
+                balanceCache.evictAfterCommit(tx.getAccountId(), tx.getBusinessDate());
+                recentTransactionCache.putAfterCommit(result);
+                responses.add(transactionMapper.toCreatedResponse(request));
+            } else if (result == null) {
+                responses.add(transactionMapper.toUnverifiableResponse(request));
+            } else if (isConflicting(result, tx)) {
+                responses.add(transactionMapper.toConflictResponse(request, result));
+            } else {
+                responses.add(transactionMapper.toDuplicateResponse(request));
+            }
+        }
+
+        log.info(LogMarkers.PER_REQUEST, "Batch of {} transactions processed, {} created",
+            requests.size(), created.size());
+        return responses;
+    }
+
+    @Override
+    public Optional<TransactionResponse> findStored(TransactionRequest request) {
+        Transaction tx = transactionMapper.toTransaction(request);
+        TransactionInsertResult stored = recentTransactionCache.find(tx.getTransactionId());
+        if (stored == null) {
+            stored = transactionRepository.findById(tx.getTransactionId()).map(this::toExistingResult).orElse(null);
+        }
+        return Optional.ofNullable(stored).map(existing -> toDuplicateResponse(request, tx, existing));
     }
 
     @Override
@@ -65,7 +205,72 @@ public class AggregationServiceImpl implements AggregationService {
     public BalanceResponse getBalance(String accountId, LocalDate date) {
         log.debug("Retrieving balance for account {} on date {}", accountId, date);
 
-        List<DailyBalance> balances = dailyBalanceRepository.findByAccountAndDate(accountId, date);
+        long startNanos = System.nanoTime();
+        // A miss right after a late transaction's eviction may load the pre-commit balance from the replica, so
+        // a balance read there is cached no longer than the replica may lag
+        try (ReadDateContext.Scope ignored = ReadDateContext.open(date)) {
+            BalanceResponse response = balanceCache.get(accountId, date, () -> loadBalance(accountId, date),
+                () -> ReadDateContext.isReplicaRead() ? replicaProperties.getMaxLag() : null);
+            aggregationMetrics.recordBalanceRead(true, System.nanoTime() - startNanos);
+            return response;
+        } catch (ResourceNotFoundException e) {
+            aggregationMetrics.recordBalanceRead(false, System.nanoTime() - startNanos);
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BalanceRangeResponse getBalances(String accountId, LocalDate from, LocalDate to, boolean cumulative) {
+        log.debug("Retrieving balances for account {} from {} to {}", accountId, from, to);
+
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException(String.format("from %s is after to %s", from, to));
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new InvalidRequestException(String.format("Date range must not exceed %d days", MAX_RANGE_DAYS));
+        }
+
+        List<DailyCurrencyBalance> days;
+        try (ReadDateContext.Scope ignored = ReadDateContext.open(to)) {
+            days = dailyBalanceRepository.findDailyBalances(accountId, from, to);
+        }
+        log.info(LogMarkers.PER_REQUEST, "Retrieved {} daily balances for account {}", days.size(), accountId);
+
+        return balanceMapper.toBalanceRangeResponse(accountId, from, to, cumulative, days);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void queryBalances(List<String> accountIds, LocalDate date, Consumer<BalanceResponse> consumer) {
+        if (accountIds.size() > balanceQueryProperties.getMaxAccounts()) {
+            throw new InvalidRequestException(String.format(
+                "Balance query must contain at most %d accounts", balanceQueryProperties.getMaxAccounts()));
+        }
+        log.debug("Retrieving balances of {} accounts for date {}", accountIds.size(), date);
+
+        // Rows arrive ordered by account, so each account is complete once the next one starts
+        List<CurrencyBalance> balances = new ArrayList<>();
+        String[] current = new String[1];
+        try (ReadDateContext.Scope ignored = ReadDateContext.open(date)) {
+            dailyBalanceRepository.streamCurrencyBalances(new LinkedHashSet<>(accountIds), date,
+                balanceQueryProperties.getFetchSize(), (accountId, balance) -> {
+                    if (current[0] != null && !current[0].equals(accountId)) {
+                        consumer.accept(
+                            balanceMapper.toBalanceResponseFromTotals(current[0], date, List.copyOf(balances)));
+                        balances.clear();
+                    }
+                    current[0] = accountId;
+                    balances.add(balance);
+                });
+        }
+        if (current[0] != null) {
+            consumer.accept(balanceMapper.toBalanceResponseFromTotals(current[0], date, List.copyOf(balances)));
+        }
+    }
+
+    private BalanceResponse loadBalance(String accountId, LocalDate date) {
+        List<CurrencyBalance> balances = dailyBalanceRepository.findCurrencyBalances(accountId, date);
 
         if (balances.isEmpty()) {
             log.warn("No balance found for account {} on date {}", accountId, date);
@@ -74,20 +279,80 @@ public class AggregationServiceImpl implements AggregationService {
             );
         }
 
-        log.info("Retrieved {} currency balances for account {}", balances.size(), accountId);
+        log.info(LogMarkers.PER_REQUEST, "Retrieved {} currency balances for account {}", balances.size(), accountId);
 
-        return balanceMapper.toBalanceResponse(accountId, date, balances);
+        return balanceMapper.toBalanceResponseFromTotals(accountId, date, balances);
     }
 
-    private void validateDuplicateAmount(UUID txId, TransactionRequest request) {
-        transactionRepository.findById(txId).ifPresent(existing -> {
-            if (existing.getAmount() != null && request.getAmount() != null) {
-                if (existing.getAmount().compareTo(request.getAmount()) != 0) {
-                    throw new ConflictException(String.format(
-                        "Transaction %s already exists with a different amount. Existing=%s, Provided=%s",
-                        txId, existing.getAmount(), request.getAmount()));
-                }
-            }
-        });
+    /**
+     * Verify idempotency of a retried request against the stored transaction.
+     */
+    private TransactionResponse toDuplicateResponse(TransactionRequest request, Transaction tx, TransactionInsertResult existing) {
+        if (existing.getAmount() == null) {
+            throw new ConflictException(transactionMapper.toUnverifiableMessage(request));
+        }
+        if (isConflicting(existing, tx)) {
+            throw new ConflictException(transactionMapper.toConflictMessage(request, existing));
+        }
+        log.info(LogMarkers.PER_REQUEST, "Duplicate transaction detected: {}", tx.getTransactionId());
+        return transactionMapper.toDuplicateResponse(request);
+    }
+
+    /**
+     * Fallback for an id inserted by a concurrent request after the statement took its snapshot:
+     * ON CONFLICT skipped it, but the row was not visible to the statement itself. An id whose row is
+     * still not found is registered in a detached partition and comes back without stored values.
+     */
+    private TransactionInsertResult findExisting(UUID txId) {
+        long startNanos = System.nanoTime();
+        TransactionInsertResult existing = transactionRepository.findById(txId)
+            .map(this::toExistingResult)
+            .orElseGet(() -> TransactionInsertResult.builder().transactionId(txId).inserted(false).build());
+        aggregationMetrics.recordDuplicateCheck(AggregationMetrics.DATABASE, System.nanoTime() - startNanos);
+        return existing;
+    }
+
+    /**
+     * Rows inserted by a concurrent request after the batch statement took its snapshot are skipped
+     * by ON CONFLICT but not visible to it, so look them up separately. Ids still missing afterwards
+     * are registered in a detached partition.
+     */
+    private void resolveConcurrentDuplicates(List<Transaction> transactions, Map<UUID, TransactionInsertResult> results) {
+        Set<UUID> missing = transactions.stream()
+            .map(Transaction::getTransactionId)
+            .filter(txId -> !results.containsKey(txId))
+            .collect(Collectors.toSet());
+        if (missing.isEmpty()) {
+            return;
+        }
+        transactionRepository.findAllById(missing)
+            .forEach(existing -> results.put(existing.getTransactionId(), toExistingResult(existing)));
+    }
+
+    private TransactionInsertResult toExistingResult(Transaction existing) {
+        return TransactionInsertResult.builder()
+            .transactionId(existing.getTransactionId())
+            .inserted(false)
+            .accountId(existing.getAccountId())
+            .currency(existing.getCurrency())
+            .amount(existing.getAmount())
+            .build();
+    }
+
+    /**
+     * A retry must carry the same amount, account and currency as the stored transaction.
+     */
+    private boolean isConflicting(TransactionInsertResult existing, Transaction provided) {
+        return differs(existing.getAmount(), provided.getAmount())
+            || differs(existing.getAccountId(), provided.getAccountId())
+            || differs(existing.getCurrency(), provided.getCurrency());
+    }
+
+    private boolean differs(Long existing, long provided) {
+        return existing != null && existing != provided;
+    }
+
+    private boolean differs(String existing, String provided) {
+        return existing != null && provided != null && !existing.equals(provided);
     }
 }
@@ -0,0 +1,60 @@
+package dev.tengiz.payment.service.impl;
+
+import dev.tengiz.payment.config.ExportProperties;
+import dev.tengiz.payment.datasource.ReadDateContext;
+import dev.tengiz.payment.dto.BalanceRecord;
+import dev.tengiz.payment.dto.TransactionRecord;
+import dev.tengiz.payment.repository.DailyBalanceRepository;
+import dev.tengiz.payment.repository.TransactionRepository;
+import dev.tengiz.payment.service.ExportService;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Exports run in a read-only transaction: PostgreSQL only honours the fetch size with auto-commit
+ * disabled, otherwise the driver would buffer the whole result set.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private final TransactionRepository transactionRepository;
+    private final DailyBalanceRepository dailyBalanceRepository;
+    private final ExportProperties exportProperties;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTransactions(String accountId, LocalDate from, LocalDate to,
+                                   Consumer<? super TransactionRecord> consumer) {
+        log.info("Exporting transactions of account {} from {} to {}", accountId == null ? "*" : accountId, from, to);
+
+        long[] count = new long[1];
+        try (ReadDateContext.Scope ignored = ReadDateContext.open(to)) {
+            transactionRepository.streamTransactionRecords(accountId, from, to, exportProperties.getFetchSize(), tx -> {
+                consumer.accept(tx);
+                count[0]++;
+            });
+        }
+        log.info("Exported {} transactions", count[0]);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBalances(LocalDate date, Consumer<? super BalanceRecord> consumer) {
+        log.info("Exporting balances for date {}", date);
+
+        long[] count = new long[1];
+        try (ReadDateContext.Scope ignored = ReadDateContext.open(date)) {
+            dailyBalanceRepository.streamBalanceRecords(date, exportProperties.getFetchSize(), balance -> {
+                consumer.accept(balance);
+                count[0]++;
+            });
+        }
+        log.info("Exported {} balances", count[0]);
+    }
+}
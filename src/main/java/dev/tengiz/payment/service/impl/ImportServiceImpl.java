@@ -0,0 +1,265 @@
+package dev.tengiz.payment.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tengiz.payment.aggregation.BalanceKey;
+import dev.tengiz.payment.cache.BalanceCache;
+import dev.tengiz.payment.config.ImportProperties;
+import dev.tengiz.payment.dto.StagedTransaction;
+import dev.tengiz.payment.dto.TransactionImportResult;
+import dev.tengiz.payment.dto.request.ImportFormat;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.ImportResponse;
+import dev.tengiz.payment.entity.Transaction;
+import dev.tengiz.payment.exception.InvalidRequestException;
+import dev.tengiz.payment.mapper.TransactionMapper;
+import dev.tengiz.payment.repository.TransactionRepository;
+import dev.tengiz.payment.service.ImportService;
+import dev.tengiz.payment.validation.TransactionRequestValidator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.ObjectError;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ImportServiceImpl implements ImportService {
+
+    static final List<String> CSV_COLUMNS = List.of("transactionId", "accountId", "amount", "currency", "timestamp");
+
+    private static final String CONFLICT_REASON = "Transaction already exists with a different account, currency or amount";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionMapper transactionMapper;
+    private final BalanceCache balanceCache;
+    private final ObjectMapper objectMapper;
+    private final TransactionRequestValidator transactionRequestValidator;
+    private final TransactionTemplate transactionTemplate;
+    private final ImportProperties importProperties;
+
+    @Override
+    public ImportResponse importTransactions(InputStream input, ImportFormat format) {
+        log.info("Starting {} transaction import", format);
+        long started = System.nanoTime();
+        Progress progress = new Progress();
+        List<StagedTransaction> chunk = new ArrayList<>(importProperties.getChunkSize());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = format == ImportFormat.CSV ? readCsvHeader(reader) : Map.of();
+            long lineNumber = format == ImportFormat.CSV ? 1 : 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                progress.linesRead++;
+                TransactionRequest request;
+                try {
+                    request = format == ImportFormat.CSV ? parseCsv(line, columns) : parseJson(line);
+                } catch (IllegalArgumentException | DateTimeParseException | JsonProcessingException e) {
+                    progress.reject(lineNumber, null, "Malformed line: " + e.getMessage());
+                    continue;
+                }
+                Errors errors = new BeanPropertyBindingResult(request, "transactionRequest");
+                transactionRequestValidator.validate(request, errors);
+                if (errors.hasErrors()) {
+                    progress.reject(lineNumber, request.getTransactionId(), errors.getAllErrors().stream()
+                        .map(ObjectError::getDefaultMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                    continue;
+                }
+                chunk.add(new StagedTransaction(lineNumber, transactionMapper.toTransaction(request)));
+                if (chunk.size() >= importProperties.getChunkSize()) {
+                    merge(chunk, progress);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read import input", e);
+        }
+        merge(chunk, progress);
+
+        long elapsedNanos = Math.max(System.nanoTime() - started, 1);
+        long rowsPerSecond = progress.linesRead * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        log.info("Imported {} lines in {} ms ({} rows/s): created={}, duplicates={}, conflicts={}, rejected={}",
+            progress.linesRead, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond,
+            progress.created, progress.duplicates, progress.conflicts, progress.rejected);
+
+        return ImportResponse.builder()
+            .linesRead(progress.linesRead)
+            .created(progress.created)
+            .duplicates(progress.duplicates)
+            .conflicts(progress.conflicts)
+            .rejected(progress.rejected)
+            .rejectedLines(progress.rejectedLines)
+            .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+            .rowsPerSecond(rowsPerSecond)
+            .build();
+    }
+
+    /**
+     * Copies and merges one chunk in its own transaction and evicts the cached balances it touched.
+     */
+    private void merge(List<StagedTransaction> chunk, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        TransactionImportResult result = transactionTemplate.execute(status -> {
+            TransactionImportResult merged = transactionRepository.importTransactions(chunk);
+            Set<BalanceKey> touched = new HashSet<>();
+            for (StagedTransaction staged : chunk) {
+                Transaction tx = staged.getTransaction();
+                if (touched.add(new BalanceKey(tx.getAccountId(), tx.getCurrency(), tx.getBusinessDate()))) {
+                    balanceCache.evictAfterCommit(tx.getAccountId(), tx.getBusinessDate());
+                }
+            }
+            return merged;
+        });
+
+        progress.created += result.getCreated();
+        progress.duplicates += result.getDuplicates();
+        progress.conflicts += result.getConflictLines().size();
+        if (!result.getConflictLines().isEmpty() || !result.getUnresolvedLines().isEmpty()) {
+            Map<Long, Transaction> byLine = new HashMap<>();
+            chunk.forEach(staged -> byLine.put(staged.getLineNumber(), staged.getTransaction()));
+            for (Long line : result.getConflictLines()) {
+                progress.report(line, byLine.get(line).getTransactionId().toString(), CONFLICT_REASON);
+            }
+            resolveConcurrentDuplicates(result.getUnresolvedLines(), byLine, progress);
+        }
+        log.debug("Merged {} staged transactions in {} ms", chunk.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Ids inserted by a concurrent request after the merge statement took its snapshot were skipped by
+     * ON CONFLICT but not visible to it, so compare them with the stored rows now. Ids still not found
+     * are registered in a detached partition and cannot be compared.
+     */
+    private void resolveConcurrentDuplicates(List<Long> lines, Map<Long, Transaction> byLine, Progress progress) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        Set<UUID> ids = lines.stream().map(line -> byLine.get(line).getTransactionId()).collect(Collectors.toSet());
+        Map<UUID, Transaction> stored = new HashMap<>();
+        transactionRepository.findAllById(ids).forEach(existing -> stored.put(existing.getTransactionId(), existing));
+        for (Long line : lines) {
+            Transaction tx = byLine.get(line);
+            Transaction existing = stored.get(tx.getTransactionId());
+            if (existing == null) {
+                progress.conflicts++;
+                progress.report(line, tx.getTransactionId().toString(),
+                    "Transaction already exists in an archived partition and cannot be compared");
+            } else if (existing.getAmount() == tx.getAmount() && existing.getAccountId().equals(tx.getAccountId())
+                && existing.getCurrency().equals(tx.getCurrency())) {
+                progress.duplicates++;
+            } else {
+                progress.conflicts++;
+                progress.report(line, tx.getTransactionId().toString(), CONFLICT_REASON);
+            }
+        }
+    }
+
+    private Map<String, Integer> readCsvHeader(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new InvalidRequestException("CSV import must start with a header line");
+        }
+        String[] names = splitCsv(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            columns.put(names[i], i);
+        }
+        List<String> missing = CSV_COLUMNS.stream().filter(name -> !columns.containsKey(name)).toList();
+        if (!missing.isEmpty()) {
+            throw new InvalidRequestException("CSV header is missing columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private TransactionRequest parseCsv(String line, Map<String, Integer> columns) {
+        String[] fields = splitCsv(line);
+        if (fields.length != columns.size()) {
+            throw new IllegalArgumentException(
+                String.format("expected %d fields but found %d", columns.size(), fields.length));
+        }
+        String amount = field(fields, columns, "amount");
+        String timestamp = field(fields, columns, "timestamp");
+        return TransactionRequest.builder()
+            .transactionId(field(fields, columns, "transactionId"))
+            .accountId(field(fields, columns, "accountId"))
+            .amount(amount == null ? null : new BigDecimal(amount))
+            .currency(field(fields, columns, "currency"))
+            .timestamp(timestamp == null ? null : OffsetDateTime.parse(timestamp))
+            .build();
+    }
+
+    private TransactionRequest parseJson(String line) throws JsonProcessingException {
+        return objectMapper.readValue(line, TransactionRequest.class);
+    }
+
+    /**
+     * Valid transaction fields never contain commas or quotes, so values are only trimmed and unquoted.
+     */
+    private static String[] splitCsv(String line) {
+        String[] fields = line.split(",", -1);
+        for (int i = 0; i < fields.length; i++) {
+            String value = fields[i].trim();
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1);
+            }
+            fields[i] = value;
+        }
+        return fields;
+    }
+
+    private static String field(String[] fields, Map<String, Integer> columns, String name) {
+        String value = fields[columns.get(name)];
+        return value.isEmpty() ? null : value;
+    }
+
+    private final class Progress {
+        private long linesRead;
+        private long created;
+        private long duplicates;
+        private long conflicts;
+        private long rejected;
+        private final List<ImportResponse.RejectedLine> rejectedLines = new ArrayList<>();
+
+        void reject(long lineNumber, String transactionId, String reason) {
+            rejected++;
+            report(lineNumber, transactionId, reason);
+        }
+
+        void report(long lineNumber, String transactionId, String reason) {
+            if (rejectedLines.size() < importProperties.getMaxReportedLines()) {
+                rejectedLines.add(new ImportResponse.RejectedLine(lineNumber, transactionId, reason));
+            }
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package dev.tengiz.payment.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.tengiz.payment.codec.TransactionBinaryCodec;
+import dev.tengiz.payment.config.IngestionProperties;
+import dev.tengiz.payment.dto.TransactionInsertResult;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.TransactionResponse;
+import dev.tengiz.payment.dto.response.TransactionStatus;
+import dev.tengiz.payment.entity.Transaction;
+import dev.tengiz.payment.exception.ConflictException;
+import dev.tengiz.payment.exception.InvalidRequestException;
+import dev.tengiz.payment.exception.ResourceNotFoundException;
+import dev.tengiz.payment.ingestion.SegmentLog;
+import dev.tengiz.payment.mapper.TransactionMapper;
+import dev.tengiz.payment.repository.TransactionRepository;
+import dev.tengiz.payment.service.AggregationService;
+import dev.tengiz.payment.service.IngestionService;
+import dev.tengiz.payment.validation.ValidationChecks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+/**
+ * Asynchronous ingestion: {@link #enqueue} appends the request in the binary request layout to a
+ * {@link SegmentLog} and returns once it is on disk, and a single consumer thread drains the log into
+ * the database in batches through {@link AggregationService#processTransactions}.
+ * <p>
+ * The consumer commits its offset only after a batch is stored, so after a crash the last batch may be
+ * stored again; the insert is idempotent by transaction id, so that only changes its status from
+ * {@code CREATED} to {@code DUPLICATE}. Statuses are kept in a bounded in-memory map; ids it no longer
+ * holds are looked up in the database.
+ * <p>
+ * A resubmitted id is checked when it is enqueued, against the records still waiting in the log and then the
+ * stored transaction, so a retry with a different amount, account or currency is rejected with a conflict as in
+ * synchronous mode, and a retry of a stored transaction is answered as a duplicate without being appended.
+ * <p>
+ * A batch the database rejects is split and retried in halves, so only the records that still fail on their own
+ * are moved to a dead-letter log and marked {@code FAILED}; the rest of the log keeps draining. Failures to reach
+ * the database are not the records' fault: the batch is retried as a whole after the drain interval.
+ */
+@Service
+@Slf4j
+public class IngestionServiceImpl implements IngestionService {
+
+    private final AggregationService aggregationService;
+    private final TransactionRepository transactionRepository;
+    private final TransactionMapper transactionMapper;
+    private final MeterRegistry meterRegistry;
+    private final IngestionProperties.Log settings;
+    private final boolean enabled;
+
+    private final Cache<UUID, TransactionResponse> statuses;
+    /** Values of the ids appended to the log and not yet drained, to reject conflicting resubmits. */
+    private final Map<UUID, TransactionInsertResult> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private SegmentLog segmentLog;
+    private SegmentLog deadLetterLog;
+    private Counter deadLetters;
+    private long consumerOffset;
+
+    public IngestionServiceImpl(AggregationService aggregationService,
+                                TransactionRepository transactionRepository,
+                                TransactionMapper transactionMapper,
+                                IngestionProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.aggregationService = aggregationService;
+        this.transactionRepository = transactionRepository;
+        this.transactionMapper = transactionMapper;
+        this.meterRegistry = meterRegistry;
+        this.settings = properties.getLog();
+        this.enabled = properties.getMode() == IngestionProperties.Mode.LOG;
+        this.statuses = enabled ? Caffeine.newBuilder().maximumSize(settings.getStatusCacheSize()).build() : null;
+        this.scheduler = enabled ? Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ingestion-consumer");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Open the log before requests arrive and mark the transactions still waiting in it as accepted.
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        segmentLog = new SegmentLog(settings.getDirectory(), (int) settings.getSegmentSize().toBytes());
+        Path deadLetterDirectory = settings.getDeadLetterDirectory() != null
+            ? settings.getDeadLetterDirectory()
+            : settings.getDirectory().resolve("dead-letter");
+        deadLetterLog = new SegmentLog(deadLetterDirectory, (int) settings.getSegmentSize().toBytes());
+        consumerOffset = segmentLog.committedOffset();
+
+        long offset = consumerOffset;
+        List<SegmentLog.Entry> entries;
+        while (!(entries = segmentLog.read(offset, settings.getDrainBatchSize())).isEmpty()) {
+            for (SegmentLog.Entry entry : entries) {
+                TransactionRequest request = decode(entry.getPayload());
+                Transaction tx = transactionMapper.toTransaction(request);
+                pending.putIfAbsent(tx.getTransactionId(), toPendingValues(tx));
+                statuses.put(tx.getTransactionId(), transactionMapper.toAcceptedResponse(request, entry.getOffset()));
+            }
+            offset = entries.get(entries.size() - 1).getNextOffset();
+        }
+        Gauge.builder("payment.ingestion.lag", this, IngestionServiceImpl::lagBytes)
+            .description("Bytes appended to the ingestion log and not yet stored in the database")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        deadLetters = Counter.builder("payment.ingestion.dead.letters")
+            .description("Ingestion log records the database rejected, moved to the dead-letter log")
+            .register(meterRegistry);
+        log.info("Log ingestion enabled, {} bytes waiting to be drained", offset - consumerOffset);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        long intervalMs = settings.getDrainInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::drainSafely, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public TransactionResponse enqueue(TransactionRequest request) {
+        if (!enabled) {
+            throw new IllegalStateException("Log ingestion is not enabled");
+        }
+        Transaction tx = transactionMapper.toTransaction(request);
+        UUID txId = tx.getTransactionId();
+        TransactionInsertResult values = toPendingValues(tx);
+
+        // Reserving the id first keeps a concurrent resubmit from passing the checks below at the same time
+        TransactionInsertResult waiting = pending.putIfAbsent(txId, values);
+        boolean reserved = waiting == null;
+        try {
+            if (!reserved) {
+                if (isConflicting(waiting, tx)) {
+                    throw new ConflictException(transactionMapper.toConflictMessage(request, waiting));
+                }
+            } else {
+                Optional<TransactionResponse> stored = aggregationService.findStored(request);
+                if (stored.isPresent()) {
+                    pending.remove(txId, values);
+                    return stored.get();
+                }
+            }
+            long offset = segmentLog.append(encode(request));
+            TransactionResponse accepted = transactionMapper.toAcceptedResponse(request, offset);
+            // The consumer may already have stored it; its outcome wins
+            statuses.asMap().putIfAbsent(txId, accepted);
+            return accepted;
+        } catch (IOException e) {
+            if (reserved) {
+                pending.remove(txId, values);
+            }
+            throw new UncheckedIOException("Failed to append transaction to the ingestion log", e);
+        } catch (RuntimeException e) {
+            if (reserved) {
+                pending.remove(txId, values);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public TransactionResponse getStatus(String transactionId) {
+        if (!ValidationChecks.isUuid(transactionId)) {
+            throw new InvalidRequestException("Transaction ID must be a valid UUID");
+        }
+        UUID txId = UUID.fromString(transactionId);
+        if (enabled) {
+            TransactionResponse status = statuses.getIfPresent(txId);
+            if (status != null) {
+                return status;
+            }
+        }
+        if (transactionRepository.existsByTransactionId(txId)) {
+            return transactionMapper.toStoredResponse(txId.toString());
+        }
+        throw new ResourceNotFoundException(String.format("Transaction %s not found", transactionId));
+    }
+
+    /**
+     * Store the next batch of durable log records and commit the consumer offset past them.
+     *
+     * @return number of records drained, 0 when the log is drained
+     */
+    public synchronized int drain() {
+        List<SegmentLog.Entry> entries = segmentLog.read(consumerOffset, settings.getDrainBatchSize());
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        store(entries);
+        log.debug("Drained {} transactions from the ingestion log up to offset {}", entries.size(), consumerOffset);
+        return entries.size();
+    }
+
+    /**
+     * Store the records, or the halves of a rejected batch in log order, committing the offset past each part
+     * that is done, so a retry after a failure to reach the database resumes where it stopped.
+     */
+    private void store(List<SegmentLog.Entry> entries) {
+        List<TransactionResponse> results;
+        try {
+            List<TransactionRequest> requests = new ArrayList<>(entries.size());
+            entries.forEach(entry -> requests.add(decode(entry.getPayload())));
+            results = aggregationService.processTransactions(requests);
+        } catch (RuntimeException e) {
+            if (isRetryable(e)) {
+                throw e;
+            }
+            if (entries.size() == 1) {
+                deadLetter(entries.get(0), e);
+                commit(entries.get(0).getNextOffset());
+                return;
+            }
+            log.warn("Batch of {} transactions from the ingestion log was rejected, retrying it in halves",
+                entries.size(), e);
+            int half = entries.size() / 2;
+            store(entries.subList(0, half));
+            store(entries.subList(half, entries.size()));
+            return;
+        }
+        for (TransactionResponse result : results) {
+            UUID txId = UUID.fromString(result.getTransactionId());
+            // An id appended more than once keeps the outcome of its first record
+            statuses.asMap().compute(txId,
+                (id, current) -> current == null || current.getStatus() == TransactionStatus.ACCEPTED ? result : current);
+            pending.remove(txId);
+        }
+        commit(entries.get(entries.size() - 1).getNextOffset());
+    }
+
+    private void deadLetter(SegmentLog.Entry entry, RuntimeException cause) {
+        try {
+            deadLetterLog.append(entry.getPayload());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append transaction to the dead-letter log", e);
+        }
+        deadLetters.increment();
+        TransactionRequest request;
+        try {
+            request = decode(entry.getPayload());
+        } catch (UncheckedIOException e) {
+            log.error("Moved undecodable ingestion log record at offset {} to the dead-letter log",
+                entry.getOffset(), cause);
+            return;
+        }
+        UUID txId = UUID.fromString(request.getTransactionId());
+        statuses.put(txId, transactionMapper.toFailedResponse(request, entry.getOffset()));
+        pending.remove(txId);
+        log.error("Moved transaction {} at offset {} to the dead-letter log",
+            request.getTransactionId(), entry.getOffset(), cause);
+    }
+
+    private void commit(long next) {
+        try {
+            segmentLog.commit(next);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to commit the ingestion log offset", e);
+        }
+        consumerOffset = next;
+    }
+
+    /**
+     * Whether the failure is the database being unreachable or busy rather than the records being rejected.
+     */
+    private static boolean isRetryable(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+            || e instanceof RecoverableDataAccessException
+            || e instanceof DataAccessResourceFailureException
+            || e instanceof CannotCreateTransactionException;
+    }
+
+    private static TransactionInsertResult toPendingValues(Transaction tx) {
+        return TransactionInsertResult.builder()
+            .transactionId(tx.getTransactionId())
+            .inserted(false)
+            .accountId(tx.getAccountId())
+            .currency(tx.getCurrency())
+            .amount(tx.getAmount())
+            .build();
+    }
+
+    private static boolean isConflicting(TransactionInsertResult waiting, Transaction provided) {
+        return waiting.getAmount() != provided.getAmount()
+            || !waiting.getAccountId().equals(provided.getAccountId())
+            || !waiting.getCurrency().equals(provided.getCurrency());
+    }
+
+    private void drainSafely() {
+        try {
+            while (drain() > 0) {
+                // Keep draining while there is a backlog
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to drain the ingestion log, will retry", e);
+        }
+    }
+
+    private double lagBytes() {
+        return segmentLog.durableOffset() - segmentLog.committedOffset();
+    }
+
+    private static byte[] encode(TransactionRequest request) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        TransactionBinaryCodec.write(request, new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static TransactionRequest decode(byte[] payload) {
+        try {
+            return TransactionBinaryCodec.read(new DataInputStream(new ByteArrayInputStream(payload)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt ingestion log record", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        scheduler.shutdown();
+        scheduler.awaitTermination(settings.getDrainInterval().toMillis() * 10, TimeUnit.MILLISECONDS);
+        segmentLog.close();
+        deadLetterLog.close();
+    }
+}
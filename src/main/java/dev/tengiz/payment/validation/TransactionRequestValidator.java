@@ -0,0 +1,89 @@
+package dev.tengiz.payment.validation;
+
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.money.Money;
+import java.math.BigDecimal;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+/**
+ * Hand-written equivalent of the bean validation constraints on {@link TransactionRequest} for the ingestion
+ * hot path. It reports the same violations with the same messages and error codes as Hibernate Validator,
+ * but a valid request is checked without allocating. The annotations stay on the DTO as the reference, for
+ * the batch endpoint and for the API documentation.
+ */
+@Component
+public class TransactionRequestValidator implements Validator {
+
+    static final String TRANSACTION_ID_REQUIRED = "Transaction ID is required";
+    static final String TRANSACTION_ID_INVALID = "Transaction ID must be a valid UUID";
+    static final String ACCOUNT_ID_REQUIRED = "Account ID is required";
+    static final String ACCOUNT_ID_SIZE = "Account ID must be between 1 and 64 characters";
+    static final String ACCOUNT_ID_PATTERN = "Account ID can only contain letters, numbers, hyphens and underscores";
+    static final String AMOUNT_REQUIRED = "Amount is required";
+    static final String AMOUNT_DIGITS = "Amount must have max 15 integer and 4 decimal digits";
+    static final String CURRENCY_REQUIRED = "Currency is required";
+    static final String CURRENCY_INVALID = "Currency must be a valid ISO 4217 code";
+    static final String TIMESTAMP_REQUIRED = "Timestamp is required";
+
+    private static final int MAX_ACCOUNT_ID_LENGTH = 64;
+    private static final int AMOUNT_INTEGER_DIGITS = 15;
+    private static final int AMOUNT_FRACTION_DIGITS = 4;
+    private static final BigDecimal MIN_AMOUNT = new BigDecimal(Money.MIN_VALUE);
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal(Money.MAX_VALUE);
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return TransactionRequest.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        TransactionRequest request = (TransactionRequest) target;
+
+        String transactionId = request.getTransactionId();
+        if (!ValidationChecks.hasText(transactionId)) {
+            errors.rejectValue("transactionId", "NotBlank", TRANSACTION_ID_REQUIRED);
+        }
+        if (!ValidationChecks.isUuid(transactionId)) {
+            errors.rejectValue("transactionId", "ValidUUID", TRANSACTION_ID_INVALID);
+        }
+
+        String accountId = request.getAccountId();
+        if (!ValidationChecks.hasText(accountId)) {
+            errors.rejectValue("accountId", "NotBlank", ACCOUNT_ID_REQUIRED);
+        }
+        if (accountId != null && (accountId.isEmpty() || accountId.length() > MAX_ACCOUNT_ID_LENGTH)) {
+            errors.rejectValue("accountId", "Size", ACCOUNT_ID_SIZE);
+        }
+        if (!ValidationChecks.isAccountId(accountId)) {
+            errors.rejectValue("accountId", "Pattern", ACCOUNT_ID_PATTERN);
+        }
+
+        if (request.getAmount() == null) {
+            errors.rejectValue("amount", "NotNull", AMOUNT_REQUIRED);
+        } else {
+            if (!ValidationChecks.hasDigits(request.getAmount(), AMOUNT_INTEGER_DIGITS, AMOUNT_FRACTION_DIGITS)) {
+                errors.rejectValue("amount", "Digits", AMOUNT_DIGITS);
+            }
+            if (request.getAmount().compareTo(MIN_AMOUNT) < 0) {
+                errors.rejectValue("amount", "DecimalMin", TransactionRequest.AMOUNT_RANGE_MESSAGE);
+            } else if (request.getAmount().compareTo(MAX_AMOUNT) > 0) {
+                errors.rejectValue("amount", "DecimalMax", TransactionRequest.AMOUNT_RANGE_MESSAGE);
+            }
+        }
+
+        String currency = request.getCurrency();
+        if (!ValidationChecks.hasText(currency)) {
+            errors.rejectValue("currency", "NotBlank", CURRENCY_REQUIRED);
+        }
+        if (!ValidationChecks.isCurrencyCode(currency)) {
+            errors.rejectValue("currency", "ValidCurrency", CURRENCY_INVALID);
+        }
+
+        if (request.getTimestamp() == null) {
+            errors.rejectValue("timestamp", "NotNull", TIMESTAMP_REQUIRED);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package dev.tengiz.payment.validation;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Allocation-free field checks behind {@link TransactionRequestValidator}, {@link UUIDValidator} and
+ * {@link CurrencyValidator}. Each check accepts exactly what the annotation-based constraint it replaces
+ * accepts: the common shape of a value is decided by char-range checks, and the rare remaining inputs fall
+ * back to the original, allocating implementation.
+ */
+public final class ValidationChecks {
+
+    private static final Set<String> CURRENCY_CODES = Currency.getAvailableCurrencies()
+        .stream()
+        .map(Currency::getCurrencyCode)
+        .collect(Collectors.toSet());
+
+    /** One bit per three-letter code A-Z, indexed by {@link #packCurrencyCode}. */
+    private static final long[] CURRENCY_TABLE = new long[(26 * 26 * 26 + 63) / 64];
+
+    static {
+        for (String code : CURRENCY_CODES) {
+            int packed = packCurrencyCode(code);
+            if (packed >= 0) {
+                CURRENCY_TABLE[packed >>> 6] |= 1L << packed;
+            }
+        }
+    }
+
+    private ValidationChecks() {
+    }
+
+    /**
+     * Same as {@code @NotBlank}: at least one character above U+0020, i.e. {@code value.trim()} is not empty.
+     */
+    public static boolean hasText(String value) {
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same as {@link UUID#fromString} not throwing. The canonical 8-4-4-4-12 hex form is checked in place;
+     * the lenient forms {@code fromString} also accepts are rare and parsed by it.
+     */
+    public static boolean isUuid(String value) {
+        if (!hasText(value)) {
+            return false;
+        }
+        int length = value.length();
+        if (length == 36) {
+            boolean canonical = true;
+            for (int i = 0; i < 36 && canonical; i++) {
+                char c = value.charAt(i);
+                canonical = i == 8 || i == 13 || i == 18 || i == 23 ? c == '-' : isHexDigit(c);
+            }
+            if (canonical) {
+                return true;
+            }
+        } else if (length > 36) {
+            return false;
+        }
+        try {
+            UUID.fromString(value);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Same as {@code @Pattern(regexp = "^[A-Za-z0-9-_]+$")}; null is valid, as for the annotation.
+     */
+    public static boolean isAccountId(String value) {
+        if (value == null) {
+            return true;
+        }
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as the previous {@link CurrencyValidator}: three characters that upper-case to an ISO 4217 code.
+     * Upper-case ASCII codes are looked up in a bit table; anything else goes through the locale-dependent
+     * {@link String#toUpperCase()} as before.
+     */
+    public static boolean isCurrencyCode(String value) {
+        if (value == null || value.length() != 3) {
+            return false;
+        }
+        int packed = packCurrencyCode(value);
+        if (packed >= 0) {
+            return (CURRENCY_TABLE[packed >>> 6] & 1L << packed) != 0;
+        }
+        return CURRENCY_CODES.contains(value.toUpperCase());
+    }
+
+    /**
+     * Same as {@code @Digits(integer, fraction)} on a {@link BigDecimal}, which counts trailing zeros.
+     */
+    public static boolean hasDigits(BigDecimal value, int integer, int fraction) {
+        if (value == null) {
+            return true;
+        }
+        return value.precision() - value.scale() <= integer && Math.max(value.scale(), 0) <= fraction;
+    }
+
+    /**
+     * Base-26 index of a code of three upper-case ASCII letters, or -1 for any other string.
+     */
+    private static int packCurrencyCode(String code) {
+        if (code.length() != 3) {
+            return -1;
+        }
+        int packed = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = code.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return -1;
+            }
+            packed = packed * 26 + (c - 'A');
+        }
+        return packed;
+    }
+
+    private static boolean isHexDigit(char c) {
+        return c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F';
+    }
+}
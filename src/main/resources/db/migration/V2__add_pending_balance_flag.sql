@@ -0,0 +1,9 @@
+-- Write-behind aggregation inserts transactions whose amount is not yet part of daily_balance.
+-- Existing rows were aggregated synchronously, hence the TRUE default.
+ALTER TABLE payment.transactions
+    ADD COLUMN IF NOT EXISTS balance_applied BOOLEAN NOT NULL DEFAULT TRUE;
+
+-- Small partial index: only rows still waiting for a balance flush are indexed
+CREATE INDEX IF NOT EXISTS idx_tx_balance_pending
+    ON payment.transactions(transaction_id)
+    WHERE NOT balance_applied;
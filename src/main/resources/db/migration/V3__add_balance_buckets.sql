@@ -0,0 +1,15 @@
+-- Hot accounts spread their daily balance over several bucket rows so concurrent upserts
+-- lock different rows. Regular accounts keep writing to bucket 0, reads sum all buckets.
+ALTER TABLE payment.daily_balance
+    ADD COLUMN IF NOT EXISTS bucket SMALLINT NOT NULL DEFAULT 0;
+
+ALTER TABLE payment.daily_balance DROP CONSTRAINT IF EXISTS daily_balance_pkey;
+ALTER TABLE payment.daily_balance
+    ADD CONSTRAINT daily_balance_pkey PRIMARY KEY (account_id, currency, business_date, bucket);
+
+-- Accounts listed here write to one of bucket_count rows, picked from the transaction id
+CREATE TABLE IF NOT EXISTS payment.account_balance_buckets (
+    account_id VARCHAR(64) PRIMARY KEY,
+    bucket_count SMALLINT NOT NULL CHECK (bucket_count BETWEEN 1 AND 256),
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
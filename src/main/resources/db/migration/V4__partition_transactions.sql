@@ -0,0 +1,124 @@
+-- Range-partition payment.transactions by business_date, one partition per month.
+--
+-- A primary key on a partitioned table must include the partition key, so transaction_id alone is
+-- no longer unique in transactions. Idempotency moves to payment.transaction_ids, an unpartitioned
+-- registry with one narrow row per transaction: a transaction row is only inserted when its id was
+-- registered by the same statement, which keeps ON CONFLICT (transaction_id) exact across partitions.
+
+ALTER TABLE payment.transactions RENAME TO transactions_unpartitioned;
+ALTER TABLE payment.transactions_unpartitioned RENAME CONSTRAINT transactions_pkey TO transactions_unpartitioned_pkey;
+DROP INDEX IF EXISTS payment.idx_tx_balance_pending;
+
+CREATE TABLE payment.transactions (
+    transaction_id UUID NOT NULL,
+    account_id VARCHAR(64) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    amount NUMERIC(19,4) NOT NULL,
+    ts_utc TIMESTAMP WITH TIME ZONE NOT NULL,
+    business_date DATE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    balance_applied BOOLEAN NOT NULL DEFAULT TRUE,
+    PRIMARY KEY (transaction_id, business_date)
+) PARTITION BY RANGE (business_date);
+
+-- Catches dates no monthly partition exists for yet; normally empty
+CREATE TABLE payment.transactions_default PARTITION OF payment.transactions DEFAULT;
+
+CREATE INDEX idx_tx_balance_pending
+    ON payment.transactions(transaction_id)
+    WHERE NOT balance_applied;
+
+CREATE TABLE payment.transaction_ids (
+    transaction_id UUID PRIMARY KEY,
+    business_date DATE NOT NULL
+);
+
+-- Create the monthly partitions covering p_months months starting with the month of p_from.
+-- Rows that landed in the default partition for a new month are moved into it.
+CREATE OR REPLACE FUNCTION payment.ensure_transaction_partitions(p_from DATE, p_months INT)
+RETURNS INT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_start DATE;
+    v_end DATE;
+    v_name TEXT;
+    v_created INT := 0;
+BEGIN
+    -- Serialize concurrent maintenance runs from several instances
+    PERFORM pg_advisory_xact_lock(hashtext('payment.transactions partitions'));
+
+    FOR i IN 0 .. p_months - 1 LOOP
+        v_start := (date_trunc('month', p_from) + make_interval(months => i))::date;
+        v_end := (v_start + INTERVAL '1 month')::date;
+        v_name := 'transactions_' || to_char(v_start, '"y"YYYY"m"MM');
+
+        CONTINUE WHEN to_regclass('payment.' || v_name) IS NOT NULL;
+
+        EXECUTE format(
+            'CREATE TABLE payment.%I (LIKE payment.transactions INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name);
+        EXECUTE format(
+            'WITH moved AS (DELETE FROM payment.transactions_default'
+            ' WHERE business_date >= %L AND business_date < %L RETURNING *)'
+            ' INSERT INTO payment.%I SELECT * FROM moved', v_start, v_end, v_name);
+        EXECUTE format(
+            'ALTER TABLE payment.transactions ATTACH PARTITION payment.%I FOR VALUES FROM (%L) TO (%L)',
+            v_name, v_start, v_end);
+        v_created := v_created + 1;
+    END LOOP;
+
+    RETURN v_created;
+END;
+$$;
+
+-- Detach the monthly partitions that end on or before p_before. Detached tables are kept as plain
+-- tables for archival; their ids stay in transaction_ids so late retries are still recognized.
+CREATE OR REPLACE FUNCTION payment.detach_transaction_partitions(p_before DATE)
+RETURNS TABLE (partition_name TEXT)
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_name TEXT;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('payment.transactions partitions'));
+
+    FOR v_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'payment.transactions'::regclass
+          AND c.relname ~ '^transactions_y[0-9]{4}m[0-9]{2}$'
+          AND (to_date(substring(c.relname FROM 15), 'YYYY"m"MM') + INTERVAL '1 month')::date <= p_before
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE payment.transactions DETACH PARTITION payment.%I', v_name);
+        partition_name := v_name;
+        RETURN NEXT;
+    END LOOP;
+END;
+$$;
+
+-- Partitions for existing data and the months ahead, then move the rows over
+SELECT payment.ensure_transaction_partitions(
+    LEAST(COALESCE((SELECT MIN(business_date) FROM payment.transactions_unpartitioned), CURRENT_DATE), CURRENT_DATE),
+    (
+        SELECT (EXTRACT(YEAR FROM age(date_trunc('month', CURRENT_DATE), date_trunc('month', m))) * 12
+              + EXTRACT(MONTH FROM age(date_trunc('month', CURRENT_DATE), date_trunc('month', m))))::int + 3
+        FROM (
+            SELECT LEAST(COALESCE(MIN(business_date), CURRENT_DATE), CURRENT_DATE) AS m
+            FROM payment.transactions_unpartitioned
+        ) oldest
+    )
+);
+
+INSERT INTO payment.transactions (
+    transaction_id, account_id, currency, amount, ts_utc, business_date, created_at, balance_applied
+)
+SELECT transaction_id, account_id, currency, amount, ts_utc, business_date, created_at, balance_applied
+FROM payment.transactions_unpartitioned;
+
+INSERT INTO payment.transaction_ids (transaction_id, business_date)
+SELECT transaction_id, business_date
+FROM payment.transactions_unpartitioned;
+
+DROP TABLE payment.transactions_unpartitioned;
@@ -0,0 +1,31 @@
+-- Key payment.transactions by (business_date, seq) instead of the client's transaction_id.
+--
+-- Client ids are random v4 UUIDs, so every insert into a B-tree keyed by them lands on a random leaf
+-- page; past the buffer cache that means a page read per insert, and after each checkpoint a full-page
+-- image in the WAL. With V4 every new transaction wrote two such indexes: transaction_ids and the
+-- per-partition primary key of transactions. seq comes from a sequence, so within a business date the
+-- primary key only ever appends to its rightmost leaf.
+--
+-- transaction_ids stays the single UUID-keyed structure. It enforces idempotency as before and now
+-- also holds the (business_date, seq) locator, so looking a transaction up by id goes through the
+-- registry and then the sequential primary key.
+
+CREATE SEQUENCE payment.transactions_seq AS BIGINT;
+
+ALTER TABLE payment.transactions
+    ADD COLUMN seq BIGINT NOT NULL DEFAULT nextval('payment.transactions_seq');
+ALTER SEQUENCE payment.transactions_seq OWNED BY payment.transactions.seq;
+
+ALTER TABLE payment.transactions DROP CONSTRAINT transactions_pkey;
+ALTER TABLE payment.transactions ADD PRIMARY KEY (business_date, seq);
+
+ALTER TABLE payment.transaction_ids ADD COLUMN seq BIGINT;
+
+UPDATE payment.transaction_ids r
+SET seq = tx.seq
+FROM payment.transactions tx
+WHERE tx.transaction_id = r.transaction_id
+  AND tx.business_date = r.business_date;
+
+-- Ids whose partition was already detached keep a NULL locator: they are still registered, so a
+-- late retry is recognized, but there is no row left to return for them
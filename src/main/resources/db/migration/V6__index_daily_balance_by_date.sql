@@ -0,0 +1,4 @@
+-- Index for balance exports of one business date: reads only that day's rows, already ordered by account and
+-- currency. No index column is ever updated, so balance upserts stay HOT updates.
+CREATE INDEX IF NOT EXISTS idx_bal_date_account
+    ON payment.daily_balance(business_date, account_id, currency);
@@ -0,0 +1,83 @@
+package dev.tengiz.payment.aggregation;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.tengiz.payment.config.AggregationProperties;
+import dev.tengiz.payment.repository.DailyBalanceRepository;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HotAccountDetectorTest {
+
+    private static final long SLOW = Duration.ofMillis(80).toNanos();
+    private static final long FAST = Duration.ofMillis(2).toNanos();
+
+    private final DailyBalanceRepository dailyBalanceRepository = mock(DailyBalanceRepository.class);
+    private final AggregationProperties.HotAccounts settings = new AggregationProperties.HotAccounts();
+
+    private HotAccountDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        settings.setLockWaitThreshold(Duration.ofMillis(50));
+        settings.setMinSamples(5);
+        settings.setBucketCount(4);
+        detector = new HotAccountDetector(dailyBalanceRepository, settings, Runnable::run);
+    }
+
+    @Test
+    void record_SlowUpsertsPromoteAccountOnce() {
+        when(dailyBalanceRepository.promoteToBuckets("HOT", 4)).thenReturn(1);
+
+        for (int i = 0; i < 20; i++) {
+            detector.record("HOT", SLOW);
+        }
+
+        verify(dailyBalanceRepository, times(1)).promoteToBuckets("HOT", 4);
+    }
+
+    @Test
+    void record_FastOrTooFewSamplesDoNotPromote() {
+        for (int i = 0; i < 20; i++) {
+            detector.record("COLD", FAST);
+        }
+        for (int i = 0; i < 4; i++) {
+            detector.record("NEW", SLOW);
+        }
+
+        verify(dailyBalanceRepository, never()).promoteToBuckets(anyString(), anyInt());
+    }
+
+    @Test
+    void record_FailedPromotionIsRetried() {
+        when(dailyBalanceRepository.promoteToBuckets("HOT", 4))
+            .thenThrow(new IllegalStateException("db down"))
+            .thenReturn(1);
+
+        for (int i = 0; i < 6; i++) {
+            detector.record("HOT", SLOW);
+        }
+
+        verify(dailyBalanceRepository, times(2)).promoteToBuckets("HOT", 4);
+    }
+
+    @Test
+    void applyConfiguredBuckets_WritesStaticCountsAndSkipsDetection() {
+        settings.getBuckets().put("MERCHANT-1", 16);
+
+        detector.applyConfiguredBuckets();
+        for (int i = 0; i < 20; i++) {
+            detector.record("MERCHANT-1", SLOW);
+        }
+
+        verify(dailyBalanceRepository).configureBuckets("MERCHANT-1", 16);
+        verify(dailyBalanceRepository, never()).promoteToBuckets(anyString(), anyInt());
+    }
+}
@@ -0,0 +1,193 @@
+package dev.tengiz.payment.aggregation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.tengiz.payment.config.AggregationProperties;
+import dev.tengiz.payment.dto.TransactionInsertResult;
+import dev.tengiz.payment.entity.Transaction;
+import dev.tengiz.payment.metrics.AggregationMetrics;
+import dev.tengiz.payment.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class InsertCoalescerTest {
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private InsertCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (coalescer != null) {
+            coalescer.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void processTransactionAtomically_ConcurrentCallersShareOneStatement() throws Exception {
+        coalescer = start(Duration.ofSeconds(10), 3);
+        when(transactionRepository.processTransactionsAtomically(anyList()))
+            .thenAnswer(invocation -> inserted(invocation.getArgument(0)));
+
+        List<Transaction> transactions = List.of(transaction(), transaction(), transaction());
+        ExecutorService callers = Executors.newFixedThreadPool(transactions.size());
+        try {
+            List<Future<Optional<TransactionInsertResult>>> futures = new ArrayList<>();
+            transactions.forEach(tx -> futures.add(callers.submit(() -> coalescer.processTransactionAtomically(tx))));
+
+            for (int i = 0; i < transactions.size(); i++) {
+                assertThat(futures.get(i).get()).get()
+                    .extracting(TransactionInsertResult::getTransactionId)
+                    .isEqualTo(transactions.get(i).getTransactionId());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).processTransactionsAtomically(captor.capture());
+        assertThat(captor.getValue()).containsExactlyInAnyOrderElementsOf(transactions);
+        verify(transactionRepository, never()).processTransactionAtomically(any());
+        assertThat(meterRegistry.get("payment.transactions.coalesced.batch").summary().totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    void processTransactionAtomically_IdleService_DoesNotWaitForMore() {
+        coalescer = start(Duration.ofMillis(1), 64);
+        Transaction tx = transaction();
+        when(transactionRepository.processTransactionsAtomically(List.of(tx))).thenReturn(inserted(List.of(tx)));
+
+        assertThat(coalescer.processTransactionAtomically(tx)).get()
+            .extracting(TransactionInsertResult::isInserted).isEqualTo(true);
+    }
+
+    @Test
+    void execute_DistributesRowsByTransactionId() {
+        coalescer = coalescer(Duration.ofMillis(2), 64);
+        Transaction first = transaction();
+        Transaction retry = copyOf(first);
+        Transaction existing = transaction();
+        Transaction invisible = transaction();
+        when(transactionRepository.processTransactionsAtomically(anyList())).thenReturn(List.of(
+            result(first, true), result(existing, false)));
+
+        List<InsertCoalescer.PendingInsert> batch = pending(first, retry, existing, invisible);
+        coalescer.execute(batch);
+
+        assertThat(batch.get(0).result.join()).get().extracting(TransactionInsertResult::isInserted).isEqualTo(true);
+        // The second caller with the same id gets the first one's row as existing, like a retry would
+        assertThat(batch.get(1).result.join()).get().satisfies(row -> {
+            assertThat(row.isInserted()).isFalse();
+            assertThat(row.getAmount()).isEqualTo(first.getAmount());
+        });
+        assertThat(batch.get(2).result.join()).get().extracting(TransactionInsertResult::isInserted).isEqualTo(false);
+        assertThat(batch.get(3).result.join()).isEmpty();
+    }
+
+    @Test
+    void execute_FailedBatch_RetriesOneByOne() {
+        coalescer = coalescer(Duration.ofMillis(2), 64);
+        Transaction good = transaction();
+        Transaction bad = transaction();
+        when(transactionRepository.processTransactionsAtomically(anyList()))
+            .thenThrow(new IllegalStateException("numeric overflow"));
+        when(transactionRepository.processTransactionAtomically(good)).thenReturn(Optional.of(result(good, true)));
+        when(transactionRepository.processTransactionAtomically(bad)).thenThrow(new IllegalStateException("numeric overflow"));
+
+        List<InsertCoalescer.PendingInsert> batch = pending(good, bad);
+        coalescer.execute(batch);
+
+        assertThat(batch.get(0).result.join()).isPresent();
+        assertThatThrownBy(() -> batch.get(1).result.join())
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(IllegalStateException.class);
+        verify(transactionRepository, times(2)).processTransactionAtomically(any());
+    }
+
+    @Test
+    void processTransactionAtomically_Disabled_CallsRepositoryDirectly() {
+        AggregationProperties properties = new AggregationProperties();
+        coalescer = new InsertCoalescer(transactionRepository, new AggregationMetrics(meterRegistry), properties);
+        coalescer.start();
+        Transaction tx = transaction();
+        when(transactionRepository.processTransactionAtomically(tx)).thenReturn(Optional.of(result(tx, true)));
+
+        assertThat(coalescer.isEnabled()).isFalse();
+        assertThat(coalescer.processTransactionAtomically(tx)).isPresent();
+        verify(transactionRepository, never()).processTransactionsAtomically(anyList());
+    }
+
+    private InsertCoalescer start(Duration maxWait, int maxBatchSize) {
+        InsertCoalescer started = coalescer(maxWait, maxBatchSize);
+        started.start();
+        return started;
+    }
+
+    private InsertCoalescer coalescer(Duration maxWait, int maxBatchSize) {
+        AggregationProperties properties = new AggregationProperties();
+        properties.getCoalescing().setEnabled(true);
+        properties.getCoalescing().setMaxWait(maxWait);
+        properties.getCoalescing().setMaxBatchSize(maxBatchSize);
+        properties.getCoalescing().setWorkers(1);
+        return new InsertCoalescer(transactionRepository, new AggregationMetrics(meterRegistry), properties);
+    }
+
+    private static List<InsertCoalescer.PendingInsert> pending(Transaction... transactions) {
+        List<InsertCoalescer.PendingInsert> batch = new ArrayList<>();
+        for (Transaction tx : transactions) {
+            batch.add(new InsertCoalescer.PendingInsert(tx));
+        }
+        return batch;
+    }
+
+    private static List<TransactionInsertResult> inserted(List<Transaction> transactions) {
+        return transactions.stream().map(tx -> result(tx, true)).collect(Collectors.toList());
+    }
+
+    private static TransactionInsertResult result(Transaction tx, boolean inserted) {
+        return TransactionInsertResult.builder()
+            .transactionId(tx.getTransactionId())
+            .inserted(inserted)
+            .accountId(tx.getAccountId())
+            .currency(tx.getCurrency())
+            .amount(tx.getAmount())
+            .build();
+    }
+
+    private static Transaction transaction() {
+        Transaction tx = new Transaction();
+        tx.setTransactionId(UUID.randomUUID());
+        tx.setAccountId("ACC-1");
+        tx.setCurrency("USD");
+        tx.setAmount(1_000_000L);
+        return tx;
+    }
+
+    private static Transaction copyOf(Transaction original) {
+        Transaction tx = transaction();
+        tx.setTransactionId(original.getTransactionId());
+        return tx;
+    }
+}
@@ -0,0 +1,110 @@
+package dev.tengiz.payment.aggregation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.tengiz.payment.cache.BalanceCache;
+import dev.tengiz.payment.config.AggregationProperties;
+import dev.tengiz.payment.repository.TransactionRepository;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class WriteBehindBalanceAggregatorTest {
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final BalanceCache balanceCache = mock(BalanceCache.class);
+    private final BalanceKey key = new BalanceKey("ACC-1", "USD", LocalDate.of(2025, 1, 1));
+
+    private final AggregationProperties properties = new AggregationProperties();
+
+    private WriteBehindBalanceAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMode(AggregationProperties.Mode.WRITE_BEHIND);
+        properties.getWriteBehind().setMaxPendingDeltas(Integer.MAX_VALUE);
+        aggregator = new WriteBehindBalanceAggregator(transactionRepository, balanceCache, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        aggregator.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_AppliesAllPendingDeltasInOneCall() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        aggregator.addAfterCommit(key, first);
+        aggregator.addAfterCommit(key, second);
+        when(transactionRepository.applyPendingBalances(anyCollection())).thenReturn(List.of(key));
+
+        assertThat(aggregator.flush()).containsExactly(key);
+
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(transactionRepository).applyPendingBalances(ids.capture());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(first, second);
+        verify(balanceCache).evict(key.getAccountId(), key.getBusinessDate());
+        assertThat(aggregator.flush()).isEmpty();
+    }
+
+    @Test
+    void flush_Failure_KeepsDeltasForNextFlush() {
+        UUID txId = UUID.randomUUID();
+        aggregator.addAfterCommit(key, txId);
+        when(transactionRepository.applyPendingBalances(anyCollection()))
+            .thenThrow(new IllegalStateException("db down"))
+            .thenReturn(List.of(key));
+
+        assertThatThrownBy(aggregator::flush).isInstanceOf(IllegalStateException.class);
+        assertThat(aggregator.flush()).containsExactly(key);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void add_MaxTrackedDeltasPending_LeavesFurtherDeltasToRecovery() throws InterruptedException {
+        aggregator.stop();
+        properties.getWriteBehind().setMaxTrackedDeltas(2);
+        aggregator = new WriteBehindBalanceAggregator(transactionRepository, balanceCache, properties);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        aggregator.addAfterCommit(key, first);
+        aggregator.addAfterCommit(key, second);
+        aggregator.addAfterCommit(key, UUID.randomUUID());
+        when(transactionRepository.applyPendingBalances(anyCollection())).thenReturn(List.of(key));
+
+        aggregator.flush();
+
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(transactionRepository).applyPendingBalances(ids.capture());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    void recover_AppliesStalePendingRowsAndEvictsCache() {
+        when(transactionRepository.applyStalePendingBalances(Duration.ofMinutes(1))).thenReturn(List.of(key));
+
+        assertThat(aggregator.recover()).containsExactly(key);
+
+        verify(balanceCache).evict(key.getAccountId(), key.getBusinessDate());
+    }
+
+    @Test
+    void flush_NothingPending_SkipsDatabase() {
+        assertThat(aggregator.flush()).isEmpty();
+        verify(transactionRepository, never()).applyPendingBalances(anyCollection());
+    }
+}
@@ -0,0 +1,103 @@
+package dev.tengiz.payment.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import dev.tengiz.payment.config.CacheProperties;
+import dev.tengiz.payment.dto.response.BalanceResponse;
+import dev.tengiz.payment.exception.ResourceNotFoundException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BalanceCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 10);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private BalanceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        CacheProperties.Balance settings = new CacheProperties.Balance();
+        settings.setTtl(Duration.ofSeconds(5));
+        settings.setPastDateTtl(Duration.ofHours(1));
+        Clock clock = Clock.fixed(Instant.parse("2025-01-10T12:00:00Z"), ZoneOffset.UTC);
+        cache = new BalanceCache(settings, nanos::get, clock);
+    }
+
+    @Test
+    void get_SecondRead_IsHit() {
+        load("ACC-1", TODAY);
+        load("ACC-1", TODAY);
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void evict_ForcesReload() {
+        load("ACC-1", TODAY);
+        cache.evict("ACC-1", TODAY);
+        load("ACC-1", TODAY);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_PastDate_OutlivesTodayTtl() {
+        LocalDate yesterday = TODAY.minusDays(1);
+        load("ACC-1", TODAY);
+        load("ACC-1", yesterday);
+
+        nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+        load("ACC-1", TODAY);
+        load("ACC-1", yesterday);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void get_MaxTtl_CapsPastDateTtl() {
+        LocalDate yesterday = TODAY.minusDays(1);
+        cache.get("ACC-1", yesterday, loader("ACC-1", yesterday), () -> Duration.ofSeconds(5));
+        cache.get("ACC-2", yesterday, loader("ACC-2", yesterday), () -> null);
+
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+        load("ACC-1", yesterday);
+        load("ACC-2", yesterday);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void get_LoaderThrows_NothingCached() {
+        assertThatThrownBy(() -> cache.get("ACC-1", TODAY, () -> {
+            throw new ResourceNotFoundException("none");
+        })).isInstanceOf(ResourceNotFoundException.class);
+
+        load("ACC-1", TODAY);
+        assertThat(loads).hasValue(1);
+    }
+
+    private BalanceResponse load(String accountId, LocalDate date) {
+        return cache.get(accountId, date, loader(accountId, date));
+    }
+
+    private Supplier<BalanceResponse> loader(String accountId, LocalDate date) {
+        return () -> {
+            loads.incrementAndGet();
+            return BalanceResponse.builder().accountId(accountId).date(date).build();
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package dev.tengiz.payment.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.tengiz.payment.config.CacheProperties;
+import dev.tengiz.payment.dto.TransactionInsertResult;
+import dev.tengiz.payment.money.Money;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class RecentTransactionCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final UUID txId = UUID.randomUUID();
+
+    private RecentTransactionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        CacheProperties.RecentTransactions settings = new CacheProperties.RecentTransactions();
+        settings.setEnabled(true);
+        settings.setTtl(Duration.ofMinutes(10));
+        cache = new RecentTransactionCache(settings, nanos::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void find_StoredTransaction_ReturnsItAsExisting() {
+        cache.put(stored(true));
+
+        TransactionInsertResult found = cache.find(txId);
+
+        assertThat(found.isInserted()).isFalse();
+        assertThat(Money.toBigDecimal(found.getAmount())).isEqualByComparingTo("10.00");
+        assertThat(cache.find(UUID.randomUUID())).isNull();
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void putAfterCommit_RolledBack_RemembersNothing() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.putAfterCommit(stored(true));
+        assertThat(cache.find(txId)).isNull();
+
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(cache.find(txId)).isNull();
+    }
+
+    @Test
+    void putAfterCommit_Committed_RemembersTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.putAfterCommit(stored(true));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(cache.find(txId)).isNotNull();
+    }
+
+    @Test
+    void find_AfterTtl_Misses() {
+        cache.put(stored(false));
+
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        assertThat(cache.find(txId)).isNull();
+    }
+
+    private TransactionInsertResult stored(boolean inserted) {
+        return TransactionInsertResult.builder()
+            .transactionId(txId)
+            .inserted(inserted)
+            .accountId("ACC-1")
+            .currency("USD")
+            .amount(Money.toUnits(new BigDecimal("10.00")))
+            .build();
+    }
+}
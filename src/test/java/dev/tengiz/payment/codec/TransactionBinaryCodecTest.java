@@ -0,0 +1,100 @@
+package dev.tengiz.payment.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import dev.tengiz.payment.dto.request.BatchTransactionRequest;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TransactionBinaryCodecTest {
+
+    @Test
+    void writeAndRead_RoundTripsRequestInUtc() throws IOException {
+        TransactionRequest request = request("ACC-123", "150.75", "2025-01-30T23:30:00.123456-02:00");
+
+        byte[] bytes = encode(request);
+        TransactionRequest decoded = TransactionBinaryCodec.read(input(bytes));
+
+        assertThat(bytes).hasSize(36 + "ACC-123".length());
+        assertThat(decoded.getTransactionId()).isEqualTo(request.getTransactionId());
+        assertThat(decoded.getAccountId()).isEqualTo("ACC-123");
+        assertThat(decoded.getAmount()).isEqualTo(new BigDecimal("150.7500"));
+        assertThat(decoded.getCurrency()).isEqualTo("USD");
+        assertThat(decoded.getTimestamp()).isEqualTo(OffsetDateTime.parse("2025-01-31T01:30:00.123456Z"));
+    }
+
+    @Test
+    void writeAndReadBatch_KeepsOrderAndNegativeAmounts() throws IOException {
+        BatchTransactionRequest batch = new BatchTransactionRequest(List.of(
+            request("ACC-1", "-10.5", "1969-12-31T23:59:59.999999Z"),
+            request("ACC-2", "0.0001", "2025-01-30T12:00:00Z")));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TransactionBinaryCodec.writeBatch(batch, new DataOutputStream(bytes));
+        BatchTransactionRequest decoded = TransactionBinaryCodec.readBatch(input(bytes.toByteArray()));
+
+        assertThat(decoded.getTransactions()).extracting(TransactionRequest::getAccountId)
+            .containsExactly("ACC-1", "ACC-2");
+        assertThat(decoded.getTransactions().get(0).getAmount()).isEqualByComparingTo("-10.5");
+        assertThat(decoded.getTransactions().get(0).getTimestamp())
+            .isEqualTo(OffsetDateTime.parse("1969-12-31T23:59:59.999999Z"));
+        assertThat(decoded.getTransactions().get(1).getAmount()).isEqualByComparingTo("0.0001");
+    }
+
+    @Test
+    void write_AmountWithMoreThanFourDecimals_Throws() {
+        TransactionRequest request = request("ACC-123", "1.12345", "2025-01-30T12:00:00Z");
+
+        assertThatThrownBy(() -> encode(request))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("1.12345");
+    }
+
+    @Test
+    void read_TruncatedInput_ThrowsEof() throws IOException {
+        byte[] bytes = encode(request("ACC-123", "1", "2025-01-30T12:00:00Z"));
+
+        assertThatThrownBy(() -> TransactionBinaryCodec.read(input(Arrays.copyOf(bytes, bytes.length - 1))))
+            .isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    void readBatch_CountAboveLimit_Throws() {
+        byte[] bytes = {0, 0, 0x10, 0};
+
+        assertThatThrownBy(() -> TransactionBinaryCodec.readBatch(input(bytes)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("4096");
+    }
+
+    private static byte[] encode(TransactionRequest request) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TransactionBinaryCodec.write(request, new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static DataInputStream input(byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+
+    private static TransactionRequest request(String accountId, String amount, String timestamp) {
+        return TransactionRequest.builder()
+            .transactionId("550e8400-e29b-41d4-a716-446655440000")
+            .accountId(accountId)
+            .amount(new BigDecimal(amount))
+            .currency("USD")
+            .timestamp(OffsetDateTime.parse(timestamp))
+            .build();
+    }
+}
@@ -0,0 +1,42 @@
+package dev.tengiz.payment.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import dev.tengiz.payment.datasource.ThrottlingDataSource;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+class ThrottlingDataSourcePostProcessorTest {
+
+    private final ExecutionProperties properties = new ExecutionProperties();
+
+    @Test
+    void postProcess_SinglePool_ThrottlesDataSource() {
+        VirtualThreadConfig.ThrottlingDataSourcePostProcessor processor =
+            new VirtualThreadConfig.ThrottlingDataSourcePostProcessor(properties, false);
+
+        assertThat(processor.postProcessAfterInitialization(mock(DataSource.class), "dataSource"))
+            .isInstanceOf(ThrottlingDataSource.class);
+    }
+
+    @Test
+    void postProcess_ReplicaRouting_ThrottlesEachPoolWithItsOwnLimit() {
+        properties.setMaxConcurrentConnections(10);
+        properties.setReplicaMaxConcurrentConnections(4);
+        VirtualThreadConfig.ThrottlingDataSourcePostProcessor processor =
+            new VirtualThreadConfig.ThrottlingDataSourcePostProcessor(properties, true);
+
+        Object primary = processor.postProcessAfterInitialization(mock(DataSource.class), "primaryDataSource");
+        Object replica = processor.postProcessAfterInitialization(mock(DataSource.class), "replicaDataSource");
+        Object routing = processor.postProcessAfterInitialization(new LazyConnectionDataSourceProxy(), "dataSource");
+
+        assertThat(primary).isInstanceOfSatisfying(ThrottlingDataSource.class,
+            dataSource -> assertThat(dataSource.availablePermits()).isEqualTo(10));
+        assertThat(replica).isInstanceOfSatisfying(ThrottlingDataSource.class,
+            dataSource -> assertThat(dataSource.availablePermits()).isEqualTo(4));
+        // The lazy routing proxy hands out logical connections, which must not hold permits
+        assertThat(routing).isInstanceOf(LazyConnectionDataSourceProxy.class);
+    }
+}
@@ -1,9 +1,15 @@
 package dev.tengiz.payment.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tengiz.payment.codec.TransactionBinaryCodec;
+import dev.tengiz.payment.dto.request.BalanceQueryRequest;
+import dev.tengiz.payment.dto.request.BatchTransactionRequest;
 import dev.tengiz.payment.dto.request.TransactionRequest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
@@ -11,14 +17,19 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
@@ -26,12 +37,16 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@AutoConfigureMetrics
 @ActiveProfiles("test")
 @Testcontainers
 class TransactionControllerIntegrationTest {
@@ -48,6 +63,7 @@ class TransactionControllerIntegrationTest {
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
         registry.add("spring.flyway.enabled", () -> true);
         registry.add("spring.flyway.locations", () -> "classpath:db/migration,classpath:db/testdata");
+        registry.add("payment.balance-query.max-accounts", () -> 100);
     }
 
     @Autowired
@@ -74,6 +90,98 @@ class TransactionControllerIntegrationTest {
             .andExpect(jsonPath("$.transactionId").value(request.getTransactionId()));
     }
 
+    @Test
+    void getTransactionStatus_StoredAndUnknownIds() throws Exception {
+        TransactionRequest request = TransactionRequest.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .accountId("ACC-101")
+            .amount(new BigDecimal("12.00"))
+            .currency("USD")
+            .timestamp(OffsetDateTime.now())
+            .build();
+        mockMvc.perform(post("/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/transactions/{id}/status", request.getTransactionId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("CREATED"));
+        mockMvc.perform(get("/transactions/{id}/status", UUID.randomUUID()))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/transactions/{id}/status", "not-a-uuid"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void processTransaction_InvalidRequest_Returns400WithFieldErrors() throws Exception {
+        TransactionRequest request = TransactionRequest.builder()
+            .transactionId("not-a-uuid")
+            .accountId("ACC 100")
+            .amount(new BigDecimal("1.12345"))
+            .currency("XYZ")
+            .timestamp(OffsetDateTime.now())
+            .build();
+
+        mockMvc.perform(post("/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("VALIDATION_ERROR"))
+            .andExpect(jsonPath("$.details.transactionId").value("Transaction ID must be a valid UUID"))
+            .andExpect(jsonPath("$.details.accountId")
+                .value("Account ID can only contain letters, numbers, hyphens and underscores"))
+            .andExpect(jsonPath("$.details.amount").value("Amount must have max 15 integer and 4 decimal digits"))
+            .andExpect(jsonPath("$.details.currency").value("Currency must be a valid ISO 4217 code"));
+    }
+
+    @Test
+    void processTransaction_BinaryBody_ProcessedLikeJson() throws Exception {
+        String transactionId = UUID.randomUUID().toString();
+        TransactionRequest request = TransactionRequest.builder()
+            .transactionId(transactionId)
+            .accountId("ACC-BIN")
+            .amount(new BigDecimal("12.5"))
+            .currency("USD")
+            .timestamp(OffsetDateTime.parse("2025-05-10T10:00:00Z"))
+            .build();
+        ByteArrayOutputStream single = new ByteArrayOutputStream();
+        TransactionBinaryCodec.write(request, new DataOutputStream(single));
+
+        mockMvc.perform(post("/transactions")
+                .contentType(TransactionBinaryCodec.MEDIA_TYPE_VALUE)
+                .content(single.toByteArray()))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.transactionId").value(transactionId));
+
+        BatchTransactionRequest batch = new BatchTransactionRequest(List.of(request, TransactionRequest.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .accountId("ACC-BIN")
+            .amount(new BigDecimal("7.5"))
+            .currency("USD")
+            .timestamp(OffsetDateTime.parse("2025-05-10T11:00:00Z"))
+            .build()));
+        ByteArrayOutputStream batchBytes = new ByteArrayOutputStream();
+        TransactionBinaryCodec.writeBatch(batch, new DataOutputStream(batchBytes));
+
+        mockMvc.perform(post("/transactions/batch")
+                .contentType(TransactionBinaryCodec.MEDIA_TYPE_VALUE)
+                .content(batchBytes.toByteArray()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.results[0].status").value("DUPLICATE"))
+            .andExpect(jsonPath("$.results[1].status").value("CREATED"));
+
+        mockMvc.perform(get("/balances/ACC-BIN").param("date", "2025-05-10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balances[0].balance").value(20.00));
+
+        mockMvc.perform(post("/transactions")
+                .contentType(TransactionBinaryCodec.MEDIA_TYPE_VALUE)
+                .content(Arrays.copyOf(single.toByteArray(), 20)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("MALFORMED_REQUEST"));
+    }
+
     @Test
     void processTransaction_DuplicateRequest_Returns200() throws Exception {
         String transactionId = UUID.randomUUID().toString();
@@ -145,6 +253,54 @@ class TransactionControllerIntegrationTest {
             .andExpect(jsonPath("$.balances[0].balance").value(expectedBalance.doubleValue()));
     }
 
+    @Test
+    void processTransactions_ConcurrentOverlappingBatchesInOppositeOrder_NoDeadlock() throws Exception {
+        String accountId = "ACC-BATCH-OVERLAP";
+        int threadCount = 4;
+        List<TransactionRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(TransactionRequest.builder()
+                .transactionId(UUID.randomUUID().toString())
+                .accountId(accountId)
+                .amount(new BigDecimal("1.00"))
+                .currency("USD")
+                .timestamp(OffsetDateTime.now())
+                .build());
+        }
+        List<TransactionRequest> reversed = new ArrayList<>(requests);
+        Collections.reverse(reversed);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<JsonNode>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            BatchTransactionRequest batch = BatchTransactionRequest.builder()
+                .transactions(i % 2 == 0 ? requests : reversed)
+                .build();
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                MvcResult result = mockMvc.perform(post("/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+                return objectMapper.readTree(result.getResponse().getContentAsString());
+            }));
+        }
+        startLatch.countDown();
+        int created = 0;
+        for (Future<JsonNode> future : futures) {
+            created += future.get().get("created").asInt();
+        }
+        executor.shutdown();
+
+        assertThat(created).isEqualTo(requests.size());
+        mockMvc.perform(get("/balances/{accountId}", accountId)
+                .param("date", LocalDate.now().toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balances[0].balance").value(100.00));
+    }
+
     @Test
     void getBalance_ExistingBalance_Returns200() throws Exception {
         String accountId = "ACC-200";
@@ -177,6 +333,212 @@ class TransactionControllerIntegrationTest {
             .andExpect(jsonPath("$.error").value("NOT_FOUND"));
     }
     
+    @Test
+    void getBalances_DateRange_ReturnsDailyAndCumulativeSeries() throws Exception {
+        String accountId = "ACC-RANGE";
+        OffsetDateTime firstDay = OffsetDateTime.parse("2025-03-01T10:00:00Z");
+        for (int day = 0; day < 3; day += 2) {
+            TransactionRequest request = TransactionRequest.builder()
+                .transactionId(UUID.randomUUID().toString())
+                .accountId(accountId)
+                .amount(new BigDecimal("10.00"))
+                .currency("EUR")
+                .timestamp(firstDay.plusDays(day))
+                .build();
+            mockMvc.perform(post("/transactions")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/balances/{accountId}", accountId)
+                .param("from", "2025-03-01")
+                .param("to", "2025-03-31"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.series[0].currency").value("EUR"))
+            .andExpect(jsonPath("$.series[0].points.length()").value(2))
+            .andExpect(jsonPath("$.series[0].points[1].date").value("2025-03-03"))
+            .andExpect(jsonPath("$.series[0].points[1].balance").value(10.00));
+
+        mockMvc.perform(get("/balances/{accountId}", accountId)
+                .param("from", "2025-03-01")
+                .param("to", "2025-03-31")
+                .param("cumulative", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.cumulative").value(true))
+            .andExpect(jsonPath("$.series[0].points[1].balance").value(20.00));
+
+        mockMvc.perform(get("/balances/{accountId}", accountId)
+                .param("from", "2025-03-31")
+                .param("to", "2025-03-01"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("INVALID_REQUEST"));
+    }
+
+    @Test
+    void queryBalances_ManyAccounts_StreamsOneResponsePerAccount() throws Exception {
+        LocalDate date = LocalDate.of(2025, 4, 2);
+        for (String accountId : List.of("ACC-BULK-1", "ACC-BULK-2")) {
+            TransactionRequest request = TransactionRequest.builder()
+                .transactionId(UUID.randomUUID().toString())
+                .accountId(accountId)
+                .amount(new BigDecimal("12.50"))
+                .currency("USD")
+                .timestamp(OffsetDateTime.parse("2025-04-02T08:00:00Z"))
+                .build();
+            mockMvc.perform(post("/transactions")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        }
+
+        BalanceQueryRequest query = BalanceQueryRequest.builder()
+            .accountIds(List.of("ACC-BULK-2", "ACC-BULK-1", "ACC-BULK-NONE"))
+            .date(date)
+            .build();
+        MvcResult result = mockMvc.perform(post("/balances/query")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(query)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].accountId").value("ACC-BULK-1"))
+            .andExpect(jsonPath("$[1].accountId").value("ACC-BULK-2"))
+            .andExpect(jsonPath("$[1].balances[0].balance").value(12.50));
+    }
+
+    @Test
+    void queryBalances_TooManyAccounts_Returns400BeforeStreaming() throws Exception {
+        List<String> accountIds = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            accountIds.add("ACC-" + i);
+        }
+        BalanceQueryRequest query = BalanceQueryRequest.builder()
+            .accountIds(accountIds)
+            .date(LocalDate.now())
+            .build();
+        mockMvc.perform(post("/balances/query")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(query)))
+            .andExpect(request().asyncNotStarted())
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("INVALID_REQUEST"));
+    }
+
+    @Test
+    void exportTransactionsAndBalances_StreamNdjson() throws Exception {
+        String accountId = "ACC-EXPORT";
+        for (String amount : List.of("3.00", "4.50")) {
+            TransactionRequest request = TransactionRequest.builder()
+                .transactionId(UUID.randomUUID().toString())
+                .accountId(accountId)
+                .amount(new BigDecimal(amount))
+                .currency("CHF")
+                .timestamp(OffsetDateTime.parse("2025-05-20T12:00:00Z"))
+                .build();
+            mockMvc.perform(post("/transactions")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        }
+
+        MvcResult transactions = mockMvc.perform(get("/exports/transactions")
+                .param("accountId", accountId)
+                .param("from", "2025-05-01")
+                .param("to", "2025-05-31"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String[] lines = mockMvc.perform(asyncDispatch(transactions))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andReturn().getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("businessDate").asText()).isEqualTo("2025-05-20");
+
+        MvcResult balances = mockMvc.perform(get("/exports/balances").param("date", "2025-05-20"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = mockMvc.perform(asyncDispatch(balances))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertThat(body).endsWith("\n");
+        assertThat(body.lines().map(this::readJson).filter(line -> accountId.equals(line.get("accountId").asText())))
+            .singleElement()
+            .satisfies(line -> assertThat(line.get("balance").decimalValue()).isEqualByComparingTo("7.50"));
+    }
+
+    @Test
+    void exportTransactions_InvalidRange_Returns400() throws Exception {
+        mockMvc.perform(get("/exports/transactions")
+                .param("from", "2025-05-31")
+                .param("to", "2025-05-01"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("INVALID_REQUEST"));
+    }
+
+    private JsonNode readJson(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void importTransactions_Csv_MergesValidLinesAndReportsRejected() throws Exception {
+        String accountId = "ACC-IMPORT";
+        String existingId = UUID.randomUUID().toString();
+        String csv = String.join("\n",
+            "transactionId,accountId,amount,currency,timestamp",
+            UUID.randomUUID() + "," + accountId + ",10.00,usd,2025-06-01T09:00:00Z",
+            existingId + "," + accountId + ",2.50,USD,2025-06-01T10:00:00Z",
+            existingId + "," + accountId + ",2.50,USD,2025-06-01T10:00:00Z",
+            existingId + "," + accountId + ",3.00,USD,2025-06-01T10:00:00Z",
+            "not-a-uuid," + accountId + ",1.00,USD,2025-06-01T10:00:00Z",
+            UUID.randomUUID() + "," + accountId + ",abc,USD,2025-06-01T10:00:00Z");
+
+        mockMvc.perform(post("/admin/imports/transactions")
+                .contentType("text/csv")
+                .content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.linesRead").value(6))
+            .andExpect(jsonPath("$.created").value(2))
+            .andExpect(jsonPath("$.duplicates").value(1))
+            .andExpect(jsonPath("$.conflicts").value(1))
+            .andExpect(jsonPath("$.rejected").value(2))
+            .andExpect(jsonPath("$.rejectedLines[0].lineNumber").value(6))
+            .andExpect(jsonPath("$.rejectedLines[2].lineNumber").value(5));
+
+        mockMvc.perform(get("/balances/{accountId}", accountId)
+                .param("date", "2025-06-01"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balances[0].balance").value(12.50));
+    }
+
+    @Test
+    void prometheusEndpoint_ExposesAggregationAndPoolMetrics() throws Exception {
+        TransactionRequest request = TransactionRequest.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .accountId("ACC-METRICS")
+            .amount(new BigDecimal("1.00"))
+            .currency("USD")
+            .timestamp(OffsetDateTime.now())
+            .build();
+        mockMvc.perform(post("/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("payment_transactions_process_seconds_count")))
+            .andExpect(content().string(containsString("payment_transactions_insert_seconds_bucket")))
+            .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")));
+    }
+
     @Test
     void processTransaction_DuplicateWithDifferentAmount_Returns409() throws Exception {
         String transactionId = UUID.randomUUID().toString();
@@ -207,4 +569,56 @@ class TransactionControllerIntegrationTest {
             .andExpect(status().isConflict())
             .andExpect(jsonPath("$.error").value("CONFLICT"));
     }
+
+    @Test
+    void processTransactions_Batch_ReturnsPerItemStatusAndAggregatesBalance() throws Exception {
+        String accountId = "ACC-BATCH";
+        String existingId = UUID.randomUUID().toString();
+        TransactionRequest existing = TransactionRequest.builder()
+            .transactionId(existingId)
+            .accountId(accountId)
+            .amount(new BigDecimal("10.00"))
+            .currency("USD")
+            .timestamp(OffsetDateTime.now())
+            .build();
+
+        mockMvc.perform(post("/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(existing)))
+            .andExpect(status().isCreated());
+
+        TransactionRequest fresh = TransactionRequest.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .accountId(accountId)
+            .amount(new BigDecimal("40.00"))
+            .currency("USD")
+            .timestamp(OffsetDateTime.now())
+            .build();
+        TransactionRequest conflicting = TransactionRequest.builder()
+            .transactionId(existingId)
+            .accountId(accountId)
+            .amount(new BigDecimal("11.00"))
+            .currency("USD")
+            .timestamp(OffsetDateTime.now())
+            .build();
+        BatchTransactionRequest batch = BatchTransactionRequest.builder()
+            .transactions(List.of(fresh, existing, conflicting))
+            .build();
+
+        mockMvc.perform(post("/transactions/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(1))
+            .andExpect(jsonPath("$.duplicates").value(1))
+            .andExpect(jsonPath("$.conflicts").value(1))
+            .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+            .andExpect(jsonPath("$.results[1].status").value("DUPLICATE"))
+            .andExpect(jsonPath("$.results[2].status").value("CONFLICT"));
+
+        mockMvc.perform(get("/balances/{accountId}", accountId)
+                .param("date", LocalDate.now().toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balances[0].balance").value(50.00));
+    }
 }
@@ -0,0 +1,55 @@
+package dev.tengiz.payment.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+
+class ReplicaLagMonitorTest {
+
+    private final DataSource replica = mock(DataSource.class);
+    private final ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, Duration.ofSeconds(1));
+
+    @Test
+    void isWithin_ComparesMeasuredLag() throws SQLException {
+        assertThat(monitor.isWithin(Duration.ofHours(1))).isFalse();
+
+        stubLag(1500L);
+        monitor.check();
+
+        assertThat(monitor.isWithin(Duration.ofSeconds(2))).isTrue();
+        assertThat(monitor.isWithin(Duration.ofSeconds(1))).isFalse();
+        assertThat(monitor.lagSeconds()).isEqualTo(1.5);
+    }
+
+    @Test
+    void check_ReplicaUnreachable_LagBecomesUnknown() throws SQLException {
+        stubLag(0L);
+        monitor.check();
+        assertThat(monitor.isWithin(Duration.ZERO)).isTrue();
+
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        monitor.check();
+
+        assertThat(monitor.isWithin(Duration.ofHours(1))).isFalse();
+        assertThat(monitor.lagSeconds()).isEqualTo(-1);
+    }
+
+    private void stubLag(long lagMillis) throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaLagMonitor.LAG_SQL)).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+        when(rs.getLong(1)).thenReturn(lagMillis);
+    }
+}
@@ -0,0 +1,130 @@
+package dev.tengiz.payment.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.tengiz.payment.config.ReplicaProperties;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+    private final ReplicaProperties properties = new ReplicaProperties();
+    private final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, lagMonitor,
+        properties, Clock.fixed(Instant.parse("2026-03-10T12:00:00Z"), ZoneOffset.UTC));
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(primaryConnection.createStatement()).thenReturn(mock(Statement.class));
+        when(replicaConnection.createStatement()).thenReturn(mock(Statement.class));
+        when(lagMonitor.isWithin(any())).thenReturn(true);
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(routing);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.afterPropertiesSet();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readOnlyTransaction_BehindLazyProxy_RunsOnReplica() throws SQLException {
+        transactionTemplate.setReadOnly(true);
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+
+        verify(replicaConnection).createStatement();
+        verify(primaryConnection, never()).createStatement();
+    }
+
+    @Test
+    void readWriteTransaction_RunsOnPrimary() throws SQLException {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute("INSERT INTO t VALUES (1)"));
+
+        verify(primaryConnection).createStatement();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void determineCurrentLookupKey_LagUnknownOrTooLarge_UsesPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isWithin(properties.getMaxLag())).thenReturn(false);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Target.PRIMARY);
+    }
+
+    @Test
+    void determineCurrentLookupKey_ReadOfRecentBusinessDate_UsesPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        properties.setPrimaryDays(2);
+
+        try (ReadDateContext.Scope ignored = ReadDateContext.open(TODAY.minusDays(1))) {
+            assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Target.PRIMARY);
+        }
+        try (ReadDateContext.Scope ignored = ReadDateContext.open(TODAY.minusDays(2))) {
+            assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+        }
+        assertThat(ReadDateContext.current()).isNull();
+    }
+
+    @Test
+    void determineCurrentLookupKey_ReplicaChosen_MarksBoundRead() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        try (ReadDateContext.Scope ignored = ReadDateContext.open(TODAY)) {
+            routing.determineCurrentLookupKey();
+            assertThat(ReadDateContext.isReplicaRead()).isFalse();
+        }
+        try (ReadDateContext.Scope ignored = ReadDateContext.open(TODAY.minusDays(30))) {
+            routing.determineCurrentLookupKey();
+            assertThat(ReadDateContext.isReplicaRead()).isTrue();
+        }
+        assertThat(ReadDateContext.isReplicaRead()).isFalse();
+    }
+
+    @Test
+    void determineCurrentLookupKey_PrimaryDaysZero_ReadsTodayFromReplica() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        properties.setPrimaryDays(0);
+
+        try (ReadDateContext.Scope ignored = ReadDateContext.open(TODAY)) {
+            assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Target.REPLICA);
+        }
+    }
+}
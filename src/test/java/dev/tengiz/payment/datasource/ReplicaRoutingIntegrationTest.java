@@ -0,0 +1,163 @@
+package dev.tengiz.payment.datasource;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * A second, independent PostgreSQL stands in for the replica. Rows seeded only there show which database a
+ * read was served from.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Testcontainers
+class ReplicaRoutingIntegrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    static final PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void registerDataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("payment.replica.enabled", () -> true);
+        registry.add("payment.replica.url", replica::getJdbcUrl);
+        registry.add("payment.replica.username", replica::getUsername);
+        registry.add("payment.replica.password", replica::getPassword);
+        registry.add("payment.replica.lag-check-interval", () -> "100ms");
+        registry.add("payment.replica.max-lag", () -> "1s");
+        registry.add("payment.cache.balance.enabled", () -> true);
+    }
+
+    private static JdbcTemplate replicaJdbcTemplate;
+
+    @BeforeAll
+    static void migrateReplica() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            replica.getJdbcUrl(), replica.getUsername(), replica.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        replicaJdbcTemplate = new JdbcTemplate(dataSource);
+        String insert = "INSERT INTO payment.daily_balance (account_id, currency, business_date, balance) "
+            + "VALUES (?, ?, ?, ?)";
+        replicaJdbcTemplate.update(insert, "ACC-REPLICA", "USD", today().minusDays(1), new BigDecimal("42.0000"));
+        // The replica has not replayed the late transaction of ACC-LATE yet
+        replicaJdbcTemplate.update(insert, "ACC-LATE", "USD", today().minusDays(1), new BigDecimal("5.0000"));
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Test
+    void getBalances_PastDates_ReadFromReplica() throws Exception {
+        awaitLagMeasured();
+        String yesterday = today().minusDays(1).toString();
+
+        mockMvc.perform(get("/balances/ACC-REPLICA").param("from", yesterday).param("to", yesterday))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.series[0].points[0].balance").value(42.0));
+    }
+
+    @Test
+    void getBalance_PastDateCacheMiss_ReadFromReplica() throws Exception {
+        awaitLagMeasured();
+
+        mockMvc.perform(get("/balances/ACC-REPLICA").param("date", today().minusDays(1).toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balances[0].balance").value(42.0));
+    }
+
+    @Test
+    void getBalance_LateTransactionReadFromLaggingReplica_CachedOnlyForMaxLag() throws Exception {
+        awaitLagMeasured();
+        OffsetDateTime yesterday = OffsetDateTime.now(ZoneOffset.UTC).minusDays(1);
+        String date = yesterday.toLocalDate().toString();
+
+        postTransaction("ACC-LATE", "5.00", yesterday);
+        postTransaction("ACC-LATE", "7.00", yesterday);
+        mockMvc.perform(get("/balances/ACC-LATE").param("date", date))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balances[0].balance").value(5.0));
+
+        // The replica catches up; the stale balance is served from the cache until max-lag has passed
+        replicaJdbcTemplate.update("UPDATE payment.daily_balance SET balance = 12 WHERE account_id = 'ACC-LATE'");
+        mockMvc.perform(get("/balances/ACC-LATE").param("date", date))
+            .andExpect(jsonPath("$.balances[0].balance").value(5.0));
+
+        Thread.sleep(1500);
+        mockMvc.perform(get("/balances/ACC-LATE").param("date", date))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balances[0].balance").value(12.0));
+    }
+
+    @Test
+    void getBalance_Today_ReadFromPrimary() throws Exception {
+        awaitLagMeasured();
+
+        postTransaction("ACC-PRIMARY", "10.00", OffsetDateTime.now(ZoneOffset.UTC));
+
+        mockMvc.perform(get("/balances/ACC-PRIMARY").param("date", today().toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balances[0].balance").value(10.0));
+    }
+
+    private void postTransaction(String accountId, String amount, OffsetDateTime timestamp) throws Exception {
+        TransactionRequest request = TransactionRequest.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .accountId(accountId)
+            .amount(new BigDecimal(amount))
+            .currency("USD")
+            .timestamp(timestamp)
+            .build();
+
+        mockMvc.perform(post("/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated());
+    }
+
+    private void awaitLagMeasured() throws InterruptedException {
+        for (int i = 0; i < 50 && replicaLagMonitor.lagSeconds() < 0; i++) {
+            Thread.sleep(100);
+        }
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+}
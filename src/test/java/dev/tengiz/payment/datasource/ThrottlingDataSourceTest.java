@@ -0,0 +1,44 @@
+package dev.tengiz.payment.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+
+class ThrottlingDataSourceTest {
+
+    private final DataSource target = mock(DataSource.class);
+    private final ThrottlingDataSource dataSource = new ThrottlingDataSource(target, 1, Duration.ofMillis(50));
+
+    @Test
+    void getConnection_PermitHeldUntilClose() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection first = dataSource.getConnection();
+        assertThat(dataSource.availablePermits()).isZero();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        first.close();
+        verify(connection, times(2)).close();
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void getConnection_TargetFails_ReleasesPermit() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,162 @@
+package dev.tengiz.payment.ingestion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SegmentLogTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_RecordsAreReadBackInOrder() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory, SEGMENT_SIZE)) {
+            long first = log.append(bytes("first"));
+            long second = log.append(bytes("second"));
+
+            assertThat(first).isZero();
+            assertThat(second).isEqualTo(SegmentLog.HEADER_SIZE + 5);
+            assertThat(log.durableOffset()).isEqualTo(second + SegmentLog.HEADER_SIZE + 6);
+
+            List<SegmentLog.Entry> entries = log.read(0, 10);
+            assertThat(entries).extracting(entry -> text(entry.getPayload())).containsExactly("first", "second");
+            assertThat(entries.get(0).getNextOffset()).isEqualTo(second);
+            assertThat(log.read(second, 10)).hasSize(1);
+            assertThat(log.read(log.durableOffset(), 10)).isEmpty();
+        }
+    }
+
+    @Test
+    void append_RejectsEmptyAndOversizedRecords() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory, SEGMENT_SIZE)) {
+            assertThatThrownBy(() -> log.append(new byte[0])).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> log.append(new byte[SEGMENT_SIZE])).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void append_AfterClose_Throws() throws IOException {
+        SegmentLog log = new SegmentLog(directory, SEGMENT_SIZE);
+        log.close();
+
+        assertThatThrownBy(() -> log.append(bytes("late"))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void reopen_ResumesFromCommittedOffset() throws IOException {
+        long second;
+        try (SegmentLog log = new SegmentLog(directory, SEGMENT_SIZE)) {
+            log.append(bytes("first"));
+            second = log.append(bytes("second"));
+            log.commit(second);
+        }
+
+        try (SegmentLog log = new SegmentLog(directory, SEGMENT_SIZE)) {
+            assertThat(log.committedOffset()).isEqualTo(second);
+            assertThat(log.read(log.committedOffset(), 10))
+                .extracting(entry -> text(entry.getPayload())).containsExactly("second");
+
+            long third = log.append(bytes("third"));
+            assertThat(third).isEqualTo(second + SegmentLog.HEADER_SIZE + 6);
+        }
+    }
+
+    @Test
+    void reopen_IgnoresTornRecordAtTheEnd() throws IOException {
+        long end;
+        try (SegmentLog log = new SegmentLog(directory, SEGMENT_SIZE)) {
+            log.append(bytes("complete"));
+            end = log.durableOffset();
+        }
+        // A record header whose payload never made it to disk
+        try (FileChannel channel = FileChannel.open(directory.resolve(String.format("%020d.log", 0)),
+            StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(SegmentLog.HEADER_SIZE).putInt(0, 100).putInt(4, 12345), end);
+        }
+
+        try (SegmentLog log = new SegmentLog(directory, SEGMENT_SIZE)) {
+            assertThat(log.durableOffset()).isEqualTo(end);
+            assertThat(log.read(0, 10)).extracting(entry -> text(entry.getPayload())).containsExactly("complete");
+            assertThat(log.append(bytes("next"))).isEqualTo(end);
+        }
+    }
+
+    @Test
+    void commit_DeletesSegmentsBeforeTheOffset() throws IOException {
+        byte[] payload = new byte[1000];
+        try (SegmentLog log = new SegmentLog(directory, SEGMENT_SIZE)) {
+            List<Long> offsets = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                offsets.add(log.append(payload));
+            }
+            assertThat(log.segmentCount()).isGreaterThan(2);
+            assertThat(log.read(0, 100)).hasSize(10);
+
+            long last = offsets.get(offsets.size() - 1);
+            log.commit(last);
+
+            assertThat(log.segmentCount()).isEqualTo(1);
+            assertThat(log.read(last, 100)).hasSize(1);
+            assertThatThrownBy(() -> log.read(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        try (SegmentLog log = new SegmentLog(directory, SEGMENT_SIZE)) {
+            assertThat(log.read(log.committedOffset(), 100)).hasSize(1);
+        }
+    }
+
+    @Test
+    void append_ConcurrentAppendsAreAllDurable() throws Exception {
+        int threads = 8;
+        int perThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (SegmentLog log = new SegmentLog(directory, 64 * 1024)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        log.append(bytes(thread + "-" + i));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            Set<String> records = log.read(0, Integer.MAX_VALUE).stream()
+                .map(entry -> text(entry.getPayload()))
+                .collect(Collectors.toSet());
+            assertThat(records).hasSize(threads * perThread).contains("0-0", "7-199");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] payload) {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
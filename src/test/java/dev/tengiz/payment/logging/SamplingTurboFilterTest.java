@@ -0,0 +1,65 @@
+package dev.tengiz.payment.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final SamplingTurboFilter filter = new SamplingTurboFilter();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        filter.setSampleRate(10);
+        filter.start();
+        context.addTurboFilter(filter);
+        appender.setContext(context);
+        appender.start();
+        logger = context.getLogger("sampling");
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+    }
+
+    @Test
+    void decide_KeepsOneInSampleRatePerRequestEvents() {
+        for (int i = 0; i < 100; i++) {
+            logger.info(LogMarkers.PER_REQUEST, "Transaction {} processed", i);
+        }
+
+        assertThat(appender.list).hasSize(10);
+        assertThat(appender.list.get(0).getFormattedMessage()).isEqualTo("Transaction 0 processed");
+        assertThat(appender.list.get(1).getFormattedMessage()).isEqualTo("Transaction 10 processed");
+    }
+
+    @Test
+    void decide_NeverDropsUnmarkedOrWarnEventsOrLevelChecks() {
+        for (int i = 0; i < 20; i++) {
+            logger.info("Partition maintenance run {}", i);
+            logger.warn(LogMarkers.PER_REQUEST, "Conflict for transaction {}", i);
+            assertThat(logger.isInfoEnabled(LogMarkers.PER_REQUEST)).isTrue();
+        }
+
+        assertThat(appender.list).hasSize(40);
+    }
+
+    @Test
+    void decide_SampleRateOfOneKeepsEverything() {
+        filter.setSampleRate(1);
+
+        for (int i = 0; i < 20; i++) {
+            logger.info(LogMarkers.PER_REQUEST, "Transaction {} processed", i);
+        }
+
+        assertThat(appender.list).hasSize(20);
+    }
+}
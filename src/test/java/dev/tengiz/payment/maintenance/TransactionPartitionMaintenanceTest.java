@@ -0,0 +1,55 @@
+package dev.tengiz.payment.maintenance;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.tengiz.payment.config.PartitioningProperties;
+import dev.tengiz.payment.repository.TransactionRepository;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TransactionPartitionMaintenanceTest {
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final PartitioningProperties properties = new PartitioningProperties();
+    private final Clock clock = Clock.fixed(Instant.parse("2025-03-10T02:15:00Z"), ZoneOffset.UTC);
+    private final TransactionPartitionMaintenance maintenance =
+        new TransactionPartitionMaintenance(transactionRepository, properties, clock);
+
+    @Test
+    void run_WithoutRetention_OnlyCreatesPartitionsAhead() {
+        maintenance.run();
+
+        verify(transactionRepository).ensurePartitions(LocalDate.of(2025, 3, 10), 3);
+        verify(transactionRepository, never()).detachPartitionsBefore(any());
+    }
+
+    @Test
+    void run_WithRetention_DetachesPartitionsOlderThanRetention() {
+        properties.setRetention(Period.ofMonths(24));
+        when(transactionRepository.detachPartitionsBefore(any())).thenReturn(List.of("transactions_y2023m02"));
+
+        maintenance.run();
+
+        verify(transactionRepository).detachPartitionsBefore(LocalDate.of(2023, 3, 10));
+    }
+
+    @Test
+    void run_FailingDatabase_DoesNotPropagate() {
+        when(transactionRepository.ensurePartitions(any(), anyInt()))
+            .thenThrow(new IllegalStateException("db down"));
+
+        maintenance.run();
+
+        verify(transactionRepository, never()).detachPartitionsBefore(any());
+    }
+}
@@ -1,6 +1,10 @@
 package dev.tengiz.payment.mapper;
 
+import dev.tengiz.payment.dto.BalancePoint;
 import dev.tengiz.payment.dto.CurrencyBalance;
+import dev.tengiz.payment.dto.CurrencyBalanceSeries;
+import dev.tengiz.payment.dto.DailyCurrencyBalance;
+import dev.tengiz.payment.dto.response.BalanceRangeResponse;
 import dev.tengiz.payment.dto.response.BalanceResponse;
 import dev.tengiz.payment.entity.DailyBalance;
 import org.junit.jupiter.api.Test;
@@ -57,4 +61,42 @@ class BalanceMapperTest {
         assertThat(resp.getBalances().get(0).getCurrency()).isEqualTo("USD");
         assertThat(resp.getBalances().get(0).getBalance()).isEqualTo(new BigDecimal("100.00"));
     }
+
+    @Test
+    void toCurrencyBalances_SumsBucketRowsPerCurrency() {
+        LocalDate date = LocalDate.of(2025, 1, 1);
+        List<DailyBalance> rows = List.of(
+            DailyBalance.builder().accountId("A1").currency("EUR").businessDate(date)
+                .bucket((short) 0).balance(new BigDecimal("5.00")).build(),
+            DailyBalance.builder().accountId("A1").currency("USD").businessDate(date)
+                .bucket((short) 0).balance(new BigDecimal("100.00")).build(),
+            DailyBalance.builder().accountId("A1").currency("USD").businessDate(date)
+                .bucket((short) 3).balance(new BigDecimal("-20.50")).build());
+
+        List<CurrencyBalance> items = mapper.toCurrencyBalances(rows);
+
+        assertThat(items).extracting(CurrencyBalance::getCurrency).containsExactly("EUR", "USD");
+        assertThat(items.get(1).getBalance()).isEqualByComparingTo("79.50");
+    }
+
+    @Test
+    void toBalanceRangeResponse_GroupsPerCurrencyAndAccumulates() {
+        LocalDate first = LocalDate.of(2025, 1, 1);
+        LocalDate second = LocalDate.of(2025, 1, 3);
+        List<DailyCurrencyBalance> days = List.of(
+            new DailyCurrencyBalance("EUR", first, new BigDecimal("5.00")),
+            new DailyCurrencyBalance("USD", first, new BigDecimal("100.00")),
+            new DailyCurrencyBalance("USD", second, new BigDecimal("-20.50")));
+
+        BalanceRangeResponse daily = mapper.toBalanceRangeResponse("A1", first, second, false, days);
+        BalanceRangeResponse cumulative = mapper.toBalanceRangeResponse("A1", first, second, true, days);
+
+        assertThat(daily.getSeries()).extracting(CurrencyBalanceSeries::getCurrency).containsExactly("EUR", "USD");
+        assertThat(daily.getSeries().get(1).getPoints()).extracting(BalancePoint::getDate)
+            .containsExactly(first, second);
+        assertThat(daily.getSeries().get(1).getPoints().get(1).getBalance()).isEqualByComparingTo("-20.50");
+        assertThat(cumulative.isCumulative()).isTrue();
+        assertThat(cumulative.getSeries().get(0).getPoints().get(0).getBalance()).isEqualByComparingTo("5.00");
+        assertThat(cumulative.getSeries().get(1).getPoints().get(1).getBalance()).isEqualByComparingTo("79.50");
+    }
 }
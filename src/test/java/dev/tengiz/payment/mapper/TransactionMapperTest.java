@@ -1,12 +1,17 @@
 package dev.tengiz.payment.mapper;
 
+import dev.tengiz.payment.dto.TransactionInsertResult;
 import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.BatchTransactionResponse;
 import dev.tengiz.payment.dto.response.TransactionResponse;
 import dev.tengiz.payment.dto.response.TransactionStatus;
+import dev.tengiz.payment.entity.Transaction;
+import dev.tengiz.payment.money.Money;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.*;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -62,4 +67,60 @@ class TransactionMapperTest {
         assertThat(resp.getStatus()).isEqualTo(TransactionStatus.DUPLICATE);
         assertThat(resp.getMessage()).contains("already processed");
     }
+
+    @Test
+    void toTransaction_NormalizesCurrencyAndBusinessDate() {
+        TransactionRequest req = TransactionRequest.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .accountId("ACC-1")
+            .amount(new BigDecimal("10.00"))
+            .currency("usd")
+            .timestamp(OffsetDateTime.of(2025, 1, 1, 23, 30, 0, 0, ZoneOffset.ofHours(-2)))
+            .build();
+
+        Transaction tx = mapper.toTransaction(req);
+        assertThat(tx.getTransactionId()).isEqualTo(UUID.fromString(req.getTransactionId()));
+        assertThat(tx.getCurrency()).isEqualTo("USD");
+        assertThat(tx.getBusinessDate()).isEqualTo(LocalDate.of(2025, 1, 2));
+    }
+
+    @Test
+    void toBatchResponse_CountsStatuses() {
+        TransactionRequest req = TransactionRequest.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .accountId("ACC-1")
+            .amount(new BigDecimal("10.00"))
+            .currency("USD")
+            .timestamp(OffsetDateTime.now())
+            .build();
+
+        BatchTransactionResponse resp = mapper.toBatchResponse(List.of(
+            mapper.toCreatedResponse(req),
+            mapper.toDuplicateResponse(req),
+            mapper.toConflictResponse(req, TransactionInsertResult.builder().amount(110_000L).build())
+        ));
+        assertThat(resp.getCreated()).isEqualTo(1);
+        assertThat(resp.getDuplicates()).isEqualTo(1);
+        assertThat(resp.getConflicts()).isEqualTo(1);
+        assertThat(resp.getResults().get(2).getMessage()).contains("different amount");
+    }
+
+    @Test
+    void toConflictMessage_SameAmountDifferentAccount_DescribesAccountAndCurrency() {
+        TransactionRequest req = TransactionRequest.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .accountId("A2")
+            .currency("usd")
+            .amount(new BigDecimal("10.00"))
+            .build();
+        TransactionInsertResult existing = TransactionInsertResult.builder()
+            .accountId("A1")
+            .currency("USD")
+            .amount(100_000L)
+            .build();
+
+        assertThat(mapper.toConflictMessage(req, existing))
+            .contains("different account or currency")
+            .contains("Existing=A1/USD, Provided=A2/USD");
+    }
 }
@@ -0,0 +1,51 @@
+package dev.tengiz.payment.money;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+    @Test
+    void toUnits_ScalesToFourDecimals() {
+        assertThat(Money.toUnits(new BigDecimal("150.75"))).isEqualTo(1_507_500L);
+        assertThat(Money.toUnits(new BigDecimal("-0.0001"))).isEqualTo(-1L);
+        assertThat(Money.toUnits(new BigDecimal("1.12340000"))).isEqualTo(11_234L);
+        assertThat(Money.toUnits(new BigDecimal("1E+2"))).isEqualTo(1_000_000L);
+        assertThat(Money.toUnits(new BigDecimal(Money.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+        assertThat(Money.toUnits(new BigDecimal(Money.MIN_VALUE))).isEqualTo(Long.MIN_VALUE);
+    }
+
+    @Test
+    void toUnits_RejectsExtraDecimalsAndOutOfRange() {
+        assertThatThrownBy(() -> Money.toUnits(new BigDecimal("1.12345")))
+            .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.toUnits(new BigDecimal("922337203685477.5808")))
+            .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void toBigDecimal_RoundTripsWithScaleFour() {
+        BigDecimal amount = Money.toBigDecimal(Money.toUnits(new BigDecimal("-12.5")));
+
+        assertThat(amount).isEqualTo(new BigDecimal("-12.5000"));
+    }
+
+    @Test
+    void toPlainString_MatchesBigDecimal() {
+        long[] samples = {0L, 1L, -1L, 5_000L, -5_000L, 1_507_500L, -1_507_501L, Long.MAX_VALUE, Long.MIN_VALUE};
+
+        for (long units : samples) {
+            assertThat(Money.toPlainString(units)).isEqualTo(Money.toBigDecimal(units).toPlainString());
+        }
+    }
+
+    @Test
+    void add_ThrowsOnOverflow() {
+        assertThat(Money.add(1_507_500L, -5_000L)).isEqualTo(1_502_500L);
+        assertThatThrownBy(() -> Money.add(Long.MAX_VALUE, 1L))
+            .isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -2,11 +2,20 @@ package dev.tengiz.payment.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import dev.tengiz.payment.aggregation.BalanceKey;
+import dev.tengiz.payment.dto.CurrencyBalance;
+import dev.tengiz.payment.dto.StagedTransaction;
+import dev.tengiz.payment.dto.TransactionImportResult;
+import dev.tengiz.payment.dto.TransactionInsertResult;
 import dev.tengiz.payment.entity.DailyBalance;
+import dev.tengiz.payment.entity.Transaction;
+import dev.tengiz.payment.money.Money;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,7 +55,7 @@ class TransactionRepositoryTest {
     private DailyBalanceRepository dailyBalanceRepository;
 
     @Test
-    void processTransactionAtomically_NewTransaction_ReturnsOne() {
+    void processTransactionAtomically_NewTransaction_ReturnsInsertedRow() {
         UUID transactionId = UUID.randomUUID();
         String accountId = "TEST-001";
         String currency = "USD";
@@ -55,11 +64,11 @@ class TransactionRepositoryTest {
         OffsetDateTime timestamp = OffsetDateTime.parse("2025-01-10T10:15:30Z");
         LocalDate businessDate = timestamp.toLocalDate();
 
-        int result = transactionRepository.processTransactionAtomically(
-            transactionId, accountId, currency, amount, timestamp, businessDate
+        Optional<TransactionInsertResult> result = transactionRepository.processTransactionAtomically(
+            transaction(transactionId, accountId, currency, amount, timestamp)
         );
 
-        assertThat(result).isEqualTo(1);
+        assertThat(result).hasValueSatisfying(r -> assertThat(r.isInserted()).isTrue());
         assertThat(transactionRepository.existsByTransactionId(transactionId)).isTrue();
 
         // Assert daily balance inserted/updated correctly
@@ -74,7 +83,7 @@ class TransactionRepositoryTest {
     }
 
     @Test
-    void processTransactionAtomically_DuplicateTransaction_ReturnsZero() {
+    void processTransactionAtomically_DuplicateTransaction_ReturnsExistingRow() {
         UUID transactionId = UUID.randomUUID();
         String accountId = "TEST-002";
         String currency = "EUR";
@@ -83,10 +92,10 @@ class TransactionRepositoryTest {
         OffsetDateTime timestamp = OffsetDateTime.parse("2025-01-11T08:00:00Z");
         LocalDate businessDate = timestamp.toLocalDate();
 
-        int first = transactionRepository.processTransactionAtomically(
-            transactionId, accountId, currency, amount, timestamp, businessDate
+        Optional<TransactionInsertResult> first = transactionRepository.processTransactionAtomically(
+            transaction(transactionId, accountId, currency, amount, timestamp)
         );
-        assertThat(first).isEqualTo(1);
+        assertThat(first).hasValueSatisfying(r -> assertThat(r.isInserted()).isTrue());
 
         // Capture balance after first insert
         BigDecimal before = dailyBalanceRepository.findByAccountAndDate(accountId, businessDate).stream()
@@ -96,11 +105,17 @@ class TransactionRepositoryTest {
             .orElse(BigDecimal.ZERO);
         assertThat(before).isEqualByComparingTo(amount);
 
-        int result = transactionRepository.processTransactionAtomically(
-            transactionId, accountId, currency, amount, timestamp, businessDate
+        // Retry with a different amount: the same round-trip returns the stored row
+        Optional<TransactionInsertResult> result = transactionRepository.processTransactionAtomically(
+            transaction(transactionId, accountId, currency, new BigDecimal("51.00"), timestamp)
         );
 
-        assertThat(result).isEqualTo(0);
+        assertThat(result).hasValueSatisfying(r -> {
+            assertThat(r.isInserted()).isFalse();
+            assertThat(r.getAccountId()).isEqualTo(accountId);
+            assertThat(r.getCurrency()).isEqualTo(currency);
+            assertThat(Money.toBigDecimal(r.getAmount())).isEqualByComparingTo(amount);
+        });
 
         // Ensure balance unchanged after duplicate
         BigDecimal after = dailyBalanceRepository.findByAccountAndDate(accountId, businessDate).stream()
@@ -110,4 +125,213 @@ class TransactionRepositoryTest {
             .orElse(BigDecimal.ZERO);
         assertThat(after).isEqualByComparingTo(before);
     }
+
+    @Test
+    void processTransactionsAtomically_Batch_AggregatesBalanceAndReportsExisting() {
+        String accountId = "TEST-003";
+        OffsetDateTime timestamp = OffsetDateTime.parse("2025-01-12T08:00:00Z");
+        LocalDate businessDate = timestamp.toLocalDate();
+        UUID existingId = UUID.randomUUID();
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+
+        transactionRepository.processTransactionAtomically(transaction(existingId, accountId, "5.00", timestamp));
+
+        List<TransactionInsertResult> results = transactionRepository.processTransactionsAtomically(List.of(
+            transaction(existingId, accountId, "5.00", timestamp),
+            transaction(firstId, accountId, "10.00", timestamp),
+            transaction(secondId, accountId, "20.00", timestamp),
+            transaction(secondId, accountId, "20.00", timestamp)
+        ));
+
+        assertThat(results).hasSize(3);
+        assertThat(results).filteredOn(TransactionInsertResult::isInserted)
+            .extracting(TransactionInsertResult::getTransactionId)
+            .containsExactlyInAnyOrder(firstId, secondId);
+        assertThat(results).filteredOn(r -> !r.isInserted())
+            .extracting(TransactionInsertResult::getTransactionId)
+            .containsExactly(existingId);
+
+        List<DailyBalance> balances = dailyBalanceRepository.findByAccountAndDate(accountId, businessDate);
+        assertThat(balances).hasSize(1);
+        assertThat(balances.get(0).getBalance()).isEqualByComparingTo("35.00");
+    }
+
+    @Test
+    void findById_LooksUpRowsThroughIdRegistry() {
+        String accountId = "TEST-009";
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        transactionRepository.processTransactionsAtomically(List.of(
+            transaction(firstId, accountId, "10.00", OffsetDateTime.parse("2025-01-15T08:00:00Z")),
+            transaction(secondId, accountId, "20.00", OffsetDateTime.parse("2025-01-16T08:00:00Z"))
+        ));
+
+        assertThat(transactionRepository.findById(firstId)).hasValueSatisfying(tx -> {
+            assertThat(tx.getAccountId()).isEqualTo(accountId);
+            assertThat(tx.getBusinessDate()).isEqualTo(LocalDate.of(2025, 1, 15));
+            assertThat(Money.toBigDecimal(tx.getAmount())).isEqualByComparingTo("10.00");
+        });
+        assertThat(transactionRepository.findAllById(List.of(firstId, secondId, UUID.randomUUID())))
+            .extracting(Transaction::getTransactionId)
+            .containsExactlyInAnyOrder(firstId, secondId);
+        assertThat(transactionRepository.findById(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void applyPendingBalances_WriteBehindInsert_AppliesDeltaExactlyOnce() {
+        UUID transactionId = UUID.randomUUID();
+        String accountId = "TEST-004";
+        OffsetDateTime timestamp = OffsetDateTime.parse("2025-01-13T08:00:00Z");
+        LocalDate businessDate = timestamp.toLocalDate();
+
+        Optional<TransactionInsertResult> inserted = transactionRepository.insertWithPendingBalance(
+            transaction(transactionId, accountId, "42.00", timestamp)
+        );
+        assertThat(inserted).hasValueSatisfying(r -> assertThat(r.isInserted()).isTrue());
+        assertThat(transactionRepository.insertWithPendingBalance(transaction(transactionId, accountId, "42.00", timestamp)))
+            .hasValueSatisfying(r -> assertThat(r.isInserted()).isFalse());
+        assertThat(dailyBalanceRepository.findByAccountAndDate(accountId, businessDate)).isEmpty();
+        // Too young for the recovery sweep
+        assertThat(transactionRepository.applyStalePendingBalances(Duration.ofMinutes(1))).isEmpty();
+
+        List<BalanceKey> updated = transactionRepository.applyPendingBalances(List.of(transactionId));
+        assertThat(updated).containsExactly(new BalanceKey(accountId, "USD", businessDate));
+
+        // Second flush and recovery find nothing left to apply
+        assertThat(transactionRepository.applyPendingBalances(List.of(transactionId))).isEmpty();
+        assertThat(transactionRepository.applyAllPendingBalances()).isEmpty();
+
+        List<DailyBalance> balances = dailyBalanceRepository.findByAccountAndDate(accountId, businessDate);
+        assertThat(balances).hasSize(1);
+        assertThat(balances.get(0).getBalance()).isEqualByComparingTo("42.00");
+    }
+
+    @Test
+    void processTransactionAtomically_BucketedAccount_SpreadsRowsAndSumsOnRead() {
+        String accountId = "TEST-005";
+        OffsetDateTime timestamp = OffsetDateTime.parse("2025-01-14T08:00:00Z");
+        LocalDate businessDate = timestamp.toLocalDate();
+        dailyBalanceRepository.configureBuckets(accountId, 4);
+
+        // Last byte of the id picks the bucket: 0x01 -> 1, 0x06 -> 2, 0x0b -> 3
+        for (String suffix : List.of("01", "06", "0b")) {
+            transactionRepository.processTransactionAtomically(transaction(
+                UUID.fromString("00000000-0000-0000-0000-0000000000" + suffix), accountId, "10.00", timestamp
+            ));
+        }
+        transactionRepository.processTransactionsAtomically(List.of(
+            transaction(UUID.fromString("00000000-0000-0000-0000-000000000105"), accountId, "2.50", timestamp)
+        ));
+
+        List<DailyBalance> balances = dailyBalanceRepository.findByAccountAndDate(accountId, businessDate);
+        assertThat(balances).extracting(DailyBalance::getBucket)
+            .containsExactly((short) 1, (short) 2, (short) 3);
+        assertThat(balances.stream().map(DailyBalance::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add))
+            .isEqualByComparingTo("32.50");
+
+        List<CurrencyBalance> totals = dailyBalanceRepository.findCurrencyBalances(accountId, businessDate);
+        assertThat(totals).hasSize(1);
+        assertThat(totals.get(0).getCurrency()).isEqualTo("USD");
+        assertThat(totals.get(0).getBalance()).isEqualByComparingTo("32.50");
+    }
+
+    @Test
+    void processTransactionAtomically_SameIdInAnotherPartition_ReturnsExistingRow() {
+        UUID transactionId = UUID.randomUUID();
+        String accountId = "TEST-006";
+        transactionRepository.ensurePartitions(LocalDate.of(2024, 11, 1), 3);
+
+        transactionRepository.processTransactionAtomically(
+            transaction(transactionId, accountId, "10.00", OffsetDateTime.parse("2024-11-15T08:00:00Z")));
+        Optional<TransactionInsertResult> retry = transactionRepository.processTransactionAtomically(
+            transaction(transactionId, accountId, "10.00", OffsetDateTime.parse("2025-01-03T08:00:00Z")));
+
+        assertThat(retry).hasValueSatisfying(r -> {
+            assertThat(r.isInserted()).isFalse();
+            assertThat(Money.toBigDecimal(r.getAmount())).isEqualByComparingTo("10.00");
+        });
+        assertThat(dailyBalanceRepository.findCurrencyBalances(accountId, LocalDate.of(2025, 1, 3))).isEmpty();
+    }
+
+    @Test
+    void ensurePartitions_MovesDefaultPartitionRowsAndDetachesOldMonths() {
+        UUID transactionId = UUID.randomUUID();
+        // No partition exists for this month yet, so the row lands in the default partition
+        transactionRepository.processTransactionAtomically(
+            transaction(transactionId, "TEST-007", "10.00", OffsetDateTime.parse("2019-05-10T08:00:00Z")));
+
+        assertThat(transactionRepository.ensurePartitions(LocalDate.of(2019, 5, 20), 2)).isEqualTo(2);
+        assertThat(transactionRepository.ensurePartitions(LocalDate.of(2019, 5, 20), 2)).isZero();
+        assertThat(transactionRepository.existsByTransactionId(transactionId)).isTrue();
+
+        assertThat(transactionRepository.detachPartitionsBefore(LocalDate.of(2019, 6, 1)))
+            .containsExactly("transactions_y2019m05");
+        assertThat(transactionRepository.existsByTransactionId(transactionId)).isFalse();
+
+        // The id stays registered, so a late retry is still not inserted again
+        assertThat(transactionRepository.processTransactionAtomically(
+            transaction(transactionId, "TEST-007", "10.00", OffsetDateTime.parse("2019-05-10T08:00:00Z"))))
+            .isEmpty();
+    }
+
+    @Test
+    void importTransactions_StagedRows_MergesAndClassifiesEveryLine() {
+        String accountId = "TEST-008";
+        OffsetDateTime timestamp = OffsetDateTime.parse("2025-01-14T08:00:00Z");
+        UUID existingId = UUID.randomUUID();
+        UUID newId = UUID.randomUUID();
+        UUID repeatedId = UUID.randomUUID();
+        transactionRepository.processTransactionAtomically(transaction(existingId, accountId, "5.00", timestamp));
+
+        TransactionImportResult result = transactionRepository.importTransactions(List.of(
+            new StagedTransaction(2, transaction(existingId, accountId, "5.00", timestamp)),
+            new StagedTransaction(3, transaction(existingId, accountId, "6.00", timestamp)),
+            new StagedTransaction(4, transaction(newId, accountId, "10.00", timestamp)),
+            new StagedTransaction(5, transaction(repeatedId, accountId, "20.00", timestamp)),
+            new StagedTransaction(6, transaction(repeatedId, accountId, "20.0000", timestamp)),
+            new StagedTransaction(7, transaction(repeatedId, accountId, "21.00", timestamp))
+        ));
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getDuplicates()).isEqualTo(2);
+        assertThat(result.getConflictLines()).containsExactly(3L, 7L);
+        assertThat(transactionRepository.existsByTransactionId(newId)).isTrue();
+        assertThat(dailyBalanceRepository.findCurrencyBalances(accountId, timestamp.toLocalDate()))
+            .singleElement()
+            .satisfies(balance -> assertThat(balance.getBalance()).isEqualByComparingTo("35.00"));
+    }
+
+    @Test
+    void importTransactions_IdInDetachedPartition_IsUnresolvedInsteadOfDuplicate() {
+        UUID archivedId = UUID.randomUUID();
+        OffsetDateTime timestamp = OffsetDateTime.parse("2018-03-10T08:00:00Z");
+        transactionRepository.processTransactionAtomically(transaction(archivedId, "TEST-009", "10.00", timestamp));
+        transactionRepository.ensurePartitions(LocalDate.of(2018, 3, 1), 1);
+        transactionRepository.detachPartitionsBefore(LocalDate.of(2018, 4, 1));
+
+        TransactionImportResult result = transactionRepository.importTransactions(List.of(
+            new StagedTransaction(2, transaction(archivedId, "TEST-009", "99.00", timestamp))));
+
+        assertThat(result.getCreated()).isZero();
+        assertThat(result.getDuplicates()).isZero();
+        assertThat(result.getConflictLines()).isEmpty();
+        assertThat(result.getUnresolvedLines()).containsExactly(2L);
+    }
+
+    private Transaction transaction(UUID transactionId, String accountId, String amount, OffsetDateTime timestamp) {
+        return transaction(transactionId, accountId, "USD", new BigDecimal(amount), timestamp);
+    }
+
+    private Transaction transaction(UUID transactionId, String accountId, String currency, BigDecimal amount,
+                                    OffsetDateTime timestamp) {
+        return Transaction.builder()
+            .transactionId(transactionId)
+            .accountId(accountId)
+            .currency(currency)
+            .amount(Money.toUnits(amount))
+            .tsUtc(timestamp)
+            .businessDate(timestamp.toLocalDate())
+            .build();
+    }
 }
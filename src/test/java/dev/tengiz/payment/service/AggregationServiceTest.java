@@ -1,17 +1,33 @@
 package dev.tengiz.payment.service;
 
+import dev.tengiz.payment.aggregation.BalanceKey;
+import dev.tengiz.payment.aggregation.HotAccountDetector;
+import dev.tengiz.payment.aggregation.InsertCoalescer;
+import dev.tengiz.payment.aggregation.WriteBehindBalanceAggregator;
+import dev.tengiz.payment.cache.BalanceCache;
+import dev.tengiz.payment.cache.RecentTransactionCache;
+import dev.tengiz.payment.config.BalanceQueryProperties;
+import dev.tengiz.payment.config.CacheProperties;
+import dev.tengiz.payment.dto.CurrencyBalance;
+import dev.tengiz.payment.dto.DailyCurrencyBalance;
+import dev.tengiz.payment.dto.TransactionInsertResult;
 import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.BalanceRangeResponse;
 import dev.tengiz.payment.dto.response.BalanceResponse;
 import dev.tengiz.payment.dto.response.TransactionResponse;
-import dev.tengiz.payment.entity.DailyBalance;
+import dev.tengiz.payment.dto.response.TransactionStatus;
 import dev.tengiz.payment.entity.Transaction;
 import dev.tengiz.payment.exception.ConflictException;
+import dev.tengiz.payment.exception.InvalidRequestException;
 import dev.tengiz.payment.exception.ResourceNotFoundException;
 import dev.tengiz.payment.mapper.BalanceMapper;
 import dev.tengiz.payment.mapper.TransactionMapper;
+import dev.tengiz.payment.metrics.AggregationMetrics;
+import dev.tengiz.payment.money.Money;
 import dev.tengiz.payment.repository.DailyBalanceRepository;
 import dev.tengiz.payment.repository.TransactionRepository;
 import dev.tengiz.payment.service.impl.AggregationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,13 +39,19 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiConsumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -48,6 +70,29 @@ class AggregationServiceTest {
     @Spy
     private BalanceMapper balanceMapper = new BalanceMapper();
 
+    @Mock
+    private WriteBehindBalanceAggregator writeBehindAggregator;
+
+    @Mock
+    private InsertCoalescer insertCoalescer;
+
+    @Spy
+    private BalanceCache balanceCache = new BalanceCache(new CacheProperties());
+
+    @Mock
+    private HotAccountDetector hotAccountDetector;
+
+    @Spy
+    private RecentTransactionCache recentTransactionCache = new RecentTransactionCache(recentTransactionsEnabled());
+
+    @Spy
+    private BalanceQueryProperties balanceQueryProperties = new BalanceQueryProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private AggregationMetrics aggregationMetrics = new AggregationMetrics(meterRegistry);
+
     @InjectMocks
     private AggregationServiceImpl aggregationService;
 
@@ -66,33 +111,125 @@ class AggregationServiceTest {
 
     @Test
     void processTransaction_NewTransaction_ReturnsCreated() {
-        when(transactionRepository.processTransactionAtomically(
-            any(), any(), any(), any(), any(), any()
-        )).thenReturn(1);
+        when(transactionRepository.processTransactionAtomically(any()))
+            .thenReturn(Optional.of(inserted(validRequest)));
 
         TransactionResponse response = aggregationService.processTransaction(validRequest);
 
         assertThat(response.getStatus()).isEqualTo(dev.tengiz.payment.dto.response.TransactionStatus.CREATED);
         assertThat(response.getTransactionId()).isEqualTo(validRequest.getTransactionId());
-        verify(transactionRepository, times(1)).processTransactionAtomically(
-            any(), any(), any(), any(), any(), any()
+        verify(transactionRepository, times(1)).processTransactionAtomically(any());
+        verify(balanceCache).evictAfterCommit(
+            validRequest.getAccountId(), transactionMapper.toBusinessDate(validRequest.getTimestamp()));
+        verify(hotAccountDetector).record(eq(validRequest.getAccountId()), anyLong());
+    }
+
+    @Test
+    void processTransaction_CoalescingEnabled_InsertsThroughCoalescer() {
+        when(insertCoalescer.isEnabled()).thenReturn(true);
+        when(insertCoalescer.processTransactionAtomically(any()))
+            .thenReturn(Optional.of(inserted(validRequest)));
+
+        TransactionResponse response = aggregationService.processTransaction(validRequest);
+
+        assertThat(response.getStatus()).isEqualTo(TransactionStatus.CREATED);
+        verify(transactionRepository, never()).processTransactionAtomically(any());
+        verify(balanceCache).evictAfterCommit(
+            validRequest.getAccountId(), transactionMapper.toBusinessDate(validRequest.getTimestamp()));
+        assertThat(meterRegistry.get("payment.transactions.insert").tag("mode", "coalesced").timer().count())
+            .isEqualTo(1);
+        verify(hotAccountDetector, never()).record(any(), anyLong());
+    }
+
+    @Test
+    void processTransaction_WriteBehindMode_DefersBalanceUpdate() {
+        when(writeBehindAggregator.isEnabled()).thenReturn(true);
+        when(transactionRepository.insertWithPendingBalance(any()))
+            .thenReturn(Optional.of(inserted(validRequest)));
+
+        TransactionResponse response = aggregationService.processTransaction(validRequest);
+
+        assertThat(response.getStatus()).isEqualTo(TransactionStatus.CREATED);
+        verify(transactionRepository, never()).processTransactionAtomically(any());
+        verify(writeBehindAggregator).addAfterCommit(
+            eq(new BalanceKey("ACC-123", "USD", transactionMapper.toBusinessDate(validRequest.getTimestamp()))),
+            eq(UUID.fromString(validRequest.getTransactionId()))
         );
     }
 
     @Test
     void processTransaction_DuplicateTransaction_ReturnsDuplicate() {
-        when(transactionRepository.processTransactionAtomically(
-            any(), any(), any(), any(), any(), any()
-        )).thenReturn(0);
-        // Simulate same amount for idempotent duplicate
-        when(transactionRepository.findById(any())).thenReturn(java.util.Optional.of(
-            Transaction.builder().amount(validRequest.getAmount()).build()
+        // Statement returns the existing row with the same amount: idempotent duplicate
+        when(transactionRepository.processTransactionAtomically(any())).thenReturn(Optional.of(
+            existing(validRequest.getAccountId(), "USD", validRequest.getAmount())
         ));
 
         TransactionResponse response = aggregationService.processTransaction(validRequest);
 
         assertThat(response.getStatus()).isEqualTo(dev.tengiz.payment.dto.response.TransactionStatus.DUPLICATE);
         assertThat(response.getMessage()).contains("already processed");
+        verify(transactionRepository, never()).findById(any());
+        verify(hotAccountDetector, never()).record(any(), anyLong());
+    }
+
+    @Test
+    void processTransaction_RepeatedRetry_AnsweredFromRecentTransactionCache() {
+        when(transactionRepository.processTransactionAtomically(any())).thenReturn(Optional.of(
+            existing(validRequest.getAccountId(), "USD", validRequest.getAmount())
+        ));
+
+        aggregationService.processTransaction(validRequest);
+        TransactionResponse retry = aggregationService.processTransaction(validRequest);
+
+        assertThat(retry.getStatus()).isEqualTo(TransactionStatus.DUPLICATE);
+        verify(transactionRepository, times(1)).processTransactionAtomically(any());
+        assertThat(recentTransactionCache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void processTransaction_RetryWithDifferentAmountAfterInsert_ConflictsWithoutDatabase() {
+        when(transactionRepository.processTransactionAtomically(any()))
+            .thenReturn(Optional.of(inserted(validRequest)));
+        aggregationService.processTransaction(validRequest);
+
+        validRequest.setAmount(new BigDecimal("1.00"));
+
+        assertThatThrownBy(() -> aggregationService.processTransaction(validRequest))
+            .isInstanceOf(ConflictException.class);
+        verify(transactionRepository, times(1)).processTransactionAtomically(any());
+    }
+
+    @Test
+    void processTransaction_ConcurrentlyInsertedDuplicate_FallsBackToLookup() {
+        when(transactionRepository.processTransactionAtomically(any())).thenReturn(Optional.empty());
+        when(transactionRepository.findById(any())).thenReturn(Optional.of(
+            Transaction.builder().amount(Money.toUnits(validRequest.getAmount())).build()
+        ));
+
+        TransactionResponse response = aggregationService.processTransaction(validRequest);
+
+        assertThat(response.getStatus()).isEqualTo(TransactionStatus.DUPLICATE);
+    }
+
+    @Test
+    void processTransaction_RegisteredIdInDetachedPartition_ThrowsConflictInsteadOfDuplicate() {
+        when(transactionRepository.processTransactionAtomically(any())).thenReturn(Optional.empty());
+        when(transactionRepository.findById(any())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> aggregationService.processTransaction(validRequest))
+            .isInstanceOf(ConflictException.class)
+            .hasMessageContaining("archived partition");
+    }
+
+    @Test
+    void processTransaction_DuplicateWithDifferentAccount_ThrowsConflict() {
+        when(transactionRepository.processTransactionAtomically(any())).thenReturn(Optional.of(
+            existing("ACC-OTHER", "USD", validRequest.getAmount())
+        ));
+
+        assertThatThrownBy(() -> aggregationService.processTransaction(validRequest))
+            .isInstanceOf(ConflictException.class)
+            .hasMessageContaining("different account or currency");
     }
 
     @Test
@@ -100,16 +237,85 @@ class AggregationServiceTest {
         UUID txId = UUID.randomUUID();
         validRequest.setTransactionId(txId.toString());
 
-        when(transactionRepository.processTransactionAtomically(
-            any(), any(), any(), any(), any(), any()
-        )).thenReturn(0);
-        when(transactionRepository.findById(eq(txId))).thenReturn(java.util.Optional.of(
-            Transaction.builder().transactionId(txId).amount(new java.math.BigDecimal("999.99")).build()
+        when(transactionRepository.processTransactionAtomically(any())).thenReturn(Optional.of(
+            existing(validRequest.getAccountId(), "USD", new BigDecimal("999.99"))
         ));
 
         assertThatThrownBy(() -> aggregationService.processTransaction(validRequest))
             .isInstanceOf(ConflictException.class)
             .hasMessageContaining("already exists with a different amount");
+        assertThat(meterRegistry.get("payment.transactions.process").tag("status", "CONFLICT").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void processTransaction_BucketedAccount_RecordsOutcomeInsertAndHotAccountTimers() {
+        when(hotAccountDetector.isBucketed("ACC-123")).thenReturn(true);
+        when(transactionRepository.processTransactionAtomically(any()))
+            .thenReturn(Optional.of(inserted(validRequest)));
+
+        aggregationService.processTransaction(validRequest);
+
+        assertThat(meterRegistry.get("payment.transactions.process").tag("status", "CREATED").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("payment.transactions.insert").tag("mode", "synchronous").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("payment.balances.hot.upsert").tag("account", "ACC-123").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void processTransactions_MixedBatch_ReturnsPerItemStatus() {
+        UUID newId = UUID.randomUUID();
+        UUID existingId = UUID.randomUUID();
+        UUID conflictingId = UUID.randomUUID();
+
+        TransactionRequest created = requestFor(newId, "10.00");
+        TransactionRequest repeatedInBatch = requestFor(newId, "10.00");
+        TransactionRequest duplicate = requestFor(existingId, "20.00");
+        TransactionRequest conflict = requestFor(conflictingId, "30.00");
+
+        when(transactionRepository.processTransactionsAtomically(any())).thenReturn(List.of(
+            TransactionInsertResult.builder().transactionId(newId).inserted(true).amount(100_000L).build(),
+            TransactionInsertResult.builder().transactionId(existingId).inserted(false).amount(200_000L).build(),
+            TransactionInsertResult.builder().transactionId(conflictingId).inserted(false).amount(999_900L).build()
+        ));
+
+        List<TransactionResponse> responses = aggregationService.processTransactions(
+            List.of(created, repeatedInBatch, duplicate, conflict));
+
+        assertThat(responses).extracting(TransactionResponse::getStatus).containsExactly(
+            TransactionStatus.CREATED, TransactionStatus.DUPLICATE, TransactionStatus.DUPLICATE, TransactionStatus.CONFLICT);
+        verify(transactionRepository, times(1)).processTransactionsAtomically(any());
+        verify(transactionRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void processTransactions_ConcurrentlyInsertedId_FallsBackToLookup() {
+        UUID txId = UUID.randomUUID();
+        TransactionRequest request = requestFor(txId, "10.00");
+
+        when(transactionRepository.processTransactionsAtomically(any())).thenReturn(Collections.emptyList());
+        when(transactionRepository.findAllById(any())).thenReturn(List.of(
+            Transaction.builder().transactionId(txId).amount(110_000L).build()
+        ));
+
+        List<TransactionResponse> responses = aggregationService.processTransactions(List.of(request));
+
+        assertThat(responses).extracting(TransactionResponse::getStatus).containsExactly(TransactionStatus.CONFLICT);
+    }
+
+    @Test
+    void processTransactions_RegisteredIdInDetachedPartition_ReturnsConflict() {
+        TransactionRequest request = requestFor(UUID.randomUUID(), "10.00");
+
+        when(transactionRepository.processTransactionsAtomically(any())).thenReturn(Collections.emptyList());
+        when(transactionRepository.findAllById(any())).thenReturn(Collections.emptyList());
+
+        List<TransactionResponse> responses = aggregationService.processTransactions(List.of(request));
+
+        assertThat(responses).extracting(TransactionResponse::getStatus).containsExactly(TransactionStatus.CONFLICT);
+        assertThat(responses.get(0).getMessage()).contains("archived partition");
     }
 
     @Test
@@ -117,21 +323,17 @@ class AggregationServiceTest {
         LocalDate date = LocalDate.now();
         String accountId = "ACC-123";
 
-        DailyBalance balance1 = DailyBalance.builder()
-            .accountId(accountId)
+        CurrencyBalance balance1 = CurrencyBalance.builder()
             .currency("USD")
-            .businessDate(date)
             .balance(new BigDecimal("1000.00"))
             .build();
 
-        DailyBalance balance2 = DailyBalance.builder()
-            .accountId(accountId)
+        CurrencyBalance balance2 = CurrencyBalance.builder()
             .currency("EUR")
-            .businessDate(date)
             .balance(new BigDecimal("500.00"))
             .build();
 
-        when(dailyBalanceRepository.findByAccountAndDate(accountId, date))
+        when(dailyBalanceRepository.findCurrencyBalances(accountId, date))
             .thenReturn(Arrays.asList(balance1, balance2));
 
         BalanceResponse response = aggregationService.getBalance(accountId, date);
@@ -142,16 +344,132 @@ class AggregationServiceTest {
         assertThat(response.getBalances().get(0).getCurrency()).isIn("USD", "EUR");
     }
 
+    @Test
+    void getBalance_RepeatedRead_ServedFromCache() {
+        LocalDate date = LocalDate.now();
+        String accountId = "ACC-123";
+
+        when(dailyBalanceRepository.findCurrencyBalances(accountId, date)).thenReturn(List.of(
+            CurrencyBalance.builder()
+                .currency("USD")
+                .balance(new BigDecimal("1000.00"))
+                .build()
+        ));
+
+        aggregationService.getBalance(accountId, date);
+        BalanceResponse cached = aggregationService.getBalance(accountId, date);
+
+        assertThat(cached.getBalances()).hasSize(1);
+        verify(dailyBalanceRepository, times(1)).findCurrencyBalances(accountId, date);
+    }
+
     @Test
     void getBalance_NoBalance_ThrowsResourceNotFoundException() {
         LocalDate date = LocalDate.now();
         String accountId = "ACC-999";
 
-        when(dailyBalanceRepository.findByAccountAndDate(accountId, date))
+        when(dailyBalanceRepository.findCurrencyBalances(accountId, date))
             .thenReturn(Collections.emptyList());
 
         assertThatThrownBy(() -> aggregationService.getBalance(accountId, date))
             .isInstanceOf(ResourceNotFoundException.class)
             .hasMessageContaining("No balance found");
+        assertThat(meterRegistry.get("payment.balances.read").tag("result", "not_found").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void getBalances_Range_ReturnsSeriesFromSingleQuery() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        when(dailyBalanceRepository.findDailyBalances("ACC-123", from, to)).thenReturn(List.of(
+            new DailyCurrencyBalance("USD", from, new BigDecimal("10.00")),
+            new DailyCurrencyBalance("USD", to, new BigDecimal("5.00"))));
+
+        BalanceRangeResponse response = aggregationService.getBalances("ACC-123", from, to, true);
+
+        assertThat(response.getSeries()).hasSize(1);
+        assertThat(response.getSeries().get(0).getPoints().get(1).getBalance()).isEqualByComparingTo("15.00");
+        verify(dailyBalanceRepository, times(1)).findDailyBalances("ACC-123", from, to);
+    }
+
+    @Test
+    void getBalances_InvalidRange_ThrowsInvalidRequestException() {
+        LocalDate from = LocalDate.of(2025, 2, 1);
+
+        assertThatThrownBy(() -> aggregationService.getBalances("ACC-123", from, from.minusDays(1), false))
+            .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> aggregationService.getBalances("ACC-123", from, from.plusYears(2), false))
+            .isInstanceOf(InvalidRequestException.class)
+            .hasMessageContaining("must not exceed");
+        verifyNoInteractions(dailyBalanceRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void queryBalances_ManyAccounts_GroupsRowsPerAccount() {
+        LocalDate date = LocalDate.of(2025, 1, 1);
+        doAnswer(invocation -> {
+            BiConsumer<String, CurrencyBalance> rows = invocation.getArgument(3);
+            rows.accept("ACC-1", new CurrencyBalance("EUR", new BigDecimal("5.00")));
+            rows.accept("ACC-1", new CurrencyBalance("USD", new BigDecimal("10.00")));
+            rows.accept("ACC-2", new CurrencyBalance("USD", new BigDecimal("7.00")));
+            return null;
+        }).when(dailyBalanceRepository).streamCurrencyBalances(any(), eq(date), anyInt(), any(BiConsumer.class));
+
+        List<BalanceResponse> responses = new ArrayList<>();
+        aggregationService.queryBalances(List.of("ACC-1", "ACC-2", "ACC-1", "ACC-3"), date, responses::add);
+
+        assertThat(responses).extracting(BalanceResponse::getAccountId).containsExactly("ACC-1", "ACC-2");
+        assertThat(responses.get(0).getBalances()).extracting(CurrencyBalance::getCurrency).containsExactly("EUR", "USD");
+        verify(dailyBalanceRepository).streamCurrencyBalances(
+            eq(Set.of("ACC-1", "ACC-2", "ACC-3")), eq(date), anyInt(), any(BiConsumer.class));
+    }
+
+    @Test
+    void queryBalances_TooManyAccounts_ThrowsInvalidRequestException() {
+        balanceQueryProperties.setMaxAccounts(2);
+
+        assertThatThrownBy(() -> aggregationService.queryBalances(
+                List.of("ACC-1", "ACC-2", "ACC-3"), LocalDate.now(), response -> { }))
+            .isInstanceOf(InvalidRequestException.class)
+            .hasMessageContaining("at most 2 accounts");
+        verifyNoInteractions(dailyBalanceRepository);
+    }
+
+    private static CacheProperties recentTransactionsEnabled() {
+        CacheProperties properties = new CacheProperties();
+        properties.getRecentTransactions().setEnabled(true);
+        return properties;
+    }
+
+    private TransactionInsertResult inserted(TransactionRequest request) {
+        return TransactionInsertResult.builder()
+            .transactionId(UUID.fromString(request.getTransactionId()))
+            .inserted(true)
+            .accountId(request.getAccountId())
+            .currency(request.getCurrency())
+            .amount(Money.toUnits(request.getAmount()))
+            .build();
+    }
+
+    private TransactionInsertResult existing(String accountId, String currency, BigDecimal amount) {
+        return TransactionInsertResult.builder()
+            .transactionId(UUID.fromString(validRequest.getTransactionId()))
+            .inserted(false)
+            .accountId(accountId)
+            .currency(currency)
+            .amount(Money.toUnits(amount))
+            .build();
+    }
+
+    private TransactionRequest requestFor(UUID txId, String amount) {
+        return TransactionRequest.builder()
+            .transactionId(txId.toString())
+            .accountId("ACC-123")
+            .amount(new BigDecimal(amount))
+            .currency("usd")
+            .timestamp(OffsetDateTime.now())
+            .build();
     }
 }
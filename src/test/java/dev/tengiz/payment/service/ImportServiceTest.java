@@ -0,0 +1,140 @@
+package dev.tengiz.payment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dev.tengiz.payment.cache.BalanceCache;
+import dev.tengiz.payment.config.CacheProperties;
+import dev.tengiz.payment.config.ImportProperties;
+import dev.tengiz.payment.dto.TransactionImportResult;
+import dev.tengiz.payment.dto.request.ImportFormat;
+import dev.tengiz.payment.dto.response.ImportResponse;
+import dev.tengiz.payment.entity.Transaction;
+import dev.tengiz.payment.exception.InvalidRequestException;
+import dev.tengiz.payment.mapper.TransactionMapper;
+import dev.tengiz.payment.repository.TransactionRepository;
+import dev.tengiz.payment.service.impl.ImportServiceImpl;
+import dev.tengiz.payment.validation.TransactionRequestValidator;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ImportProperties importProperties = new ImportProperties();
+
+    private ImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        importProperties.setChunkSize(2);
+        importService = new ImportServiceImpl(
+            transactionRepository,
+            new TransactionMapper(),
+            new BalanceCache(new CacheProperties()),
+            new ObjectMapper().registerModule(new JavaTimeModule()),
+            new TransactionRequestValidator(),
+            transactionTemplate,
+            importProperties);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importTransactions_Ndjson_MergesInChunksAndRejectsInvalidLines() {
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        when(transactionRepository.importTransactions(any()))
+            .thenReturn(new TransactionImportResult(2, 0, List.of(), List.of()))
+            .thenReturn(new TransactionImportResult(0, 0, List.of(5L), List.of()));
+
+        ImportResponse response = importService.importTransactions(input(
+            line(UUID.randomUUID(), "10.00"),
+            line(UUID.randomUUID(), "11.00"),
+            "{\"transactionId\":\"broken\"",
+            "",
+            line(UUID.randomUUID(), "12.00"),
+            line(UUID.randomUUID(), "1.12345")
+        ), ImportFormat.NDJSON);
+
+        verify(transactionRepository, times(2)).importTransactions(any());
+        assertThat(response.getLinesRead()).isEqualTo(5);
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getConflicts()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getRejectedLines()).extracting(ImportResponse.RejectedLine::getLineNumber)
+            .containsExactly(3L, 6L, 5L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importTransactions_UnresolvedLines_ComparedWithRowsReadAfterTheMerge() {
+        UUID duplicateId = UUID.randomUUID();
+        UUID conflictingId = UUID.randomUUID();
+        UUID archivedId = UUID.randomUUID();
+        importProperties.setChunkSize(10);
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        when(transactionRepository.importTransactions(any()))
+            .thenReturn(new TransactionImportResult(0, 0, List.of(), List.of(1L, 2L, 3L)));
+        when(transactionRepository.findAllById(any())).thenReturn(List.of(
+            stored(duplicateId, 100_000L), stored(conflictingId, 999_900L)));
+
+        ImportResponse response = importService.importTransactions(input(
+            line(duplicateId, "10.00"),
+            line(conflictingId, "11.00"),
+            line(archivedId, "12.00")
+        ), ImportFormat.NDJSON);
+
+        assertThat(response.getDuplicates()).isEqualTo(1);
+        assertThat(response.getConflicts()).isEqualTo(2);
+        assertThat(response.getRejectedLines())
+            .extracting(ImportResponse.RejectedLine::getLineNumber, ImportResponse.RejectedLine::getReason)
+            .containsExactly(
+                tuple(2L, "Transaction already exists with a different account, currency or amount"),
+                tuple(3L, "Transaction already exists in an archived partition and cannot be compared"));
+    }
+
+    @Test
+    void importTransactions_CsvWithoutRequiredColumns_ThrowsInvalidRequestException() {
+        assertThatThrownBy(() -> importService.importTransactions(
+                input("transactionId,accountId,amount"), ImportFormat.CSV))
+            .isInstanceOf(InvalidRequestException.class)
+            .hasMessageContaining("currency, timestamp");
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private static Transaction stored(UUID transactionId, long amount) {
+        return Transaction.builder().transactionId(transactionId).accountId("ACC-1").currency("USD").amount(amount).build();
+    }
+
+    private static String line(UUID transactionId, String amount) {
+        return String.format(
+            "{\"transactionId\":\"%s\",\"accountId\":\"ACC-1\",\"amount\":%s,\"currency\":\"USD\","
+                + "\"timestamp\":\"2025-01-01T10:00:00Z\"}", transactionId, amount);
+    }
+
+    private static InputStream input(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
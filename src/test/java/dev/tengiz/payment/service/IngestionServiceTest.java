@@ -0,0 +1,232 @@
+package dev.tengiz.payment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.tengiz.payment.config.IngestionProperties;
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import dev.tengiz.payment.dto.response.TransactionResponse;
+import dev.tengiz.payment.dto.response.TransactionStatus;
+import dev.tengiz.payment.exception.ConflictException;
+import dev.tengiz.payment.exception.InvalidRequestException;
+import dev.tengiz.payment.exception.ResourceNotFoundException;
+import dev.tengiz.payment.mapper.TransactionMapper;
+import dev.tengiz.payment.repository.TransactionRepository;
+import dev.tengiz.payment.service.impl.IngestionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+class IngestionServiceTest {
+
+    private final AggregationService aggregationService = mock(AggregationService.class);
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final TransactionMapper transactionMapper = new TransactionMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path directory;
+
+    private IngestionProperties properties;
+    private IngestionServiceImpl ingestionService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new IngestionProperties();
+        properties.setMode(IngestionProperties.Mode.LOG);
+        properties.getLog().setDirectory(directory);
+        ingestionService = open();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ingestionService.stop();
+    }
+
+    @Test
+    void enqueue_ReturnsAcceptedWithOffset() {
+        TransactionResponse first = ingestionService.enqueue(request());
+        TransactionResponse second = ingestionService.enqueue(request());
+
+        assertThat(first.getStatus()).isEqualTo(TransactionStatus.ACCEPTED);
+        assertThat(first.getOffset()).isZero();
+        assertThat(second.getOffset()).isGreaterThan(first.getOffset());
+        assertThat(ingestionService.getStatus(first.getTransactionId())).isEqualTo(first);
+        verify(aggregationService, never()).processTransactions(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drain_StoresLoggedRequestsAndUpdatesStatus() {
+        TransactionRequest request = request();
+        ingestionService.enqueue(request);
+        when(aggregationService.processTransactions(anyList()))
+            .thenAnswer(invocation -> created(invocation.getArgument(0)));
+
+        assertThat(meterRegistry.get("payment.ingestion.lag").gauge().value()).isPositive();
+        assertThat(ingestionService.drain()).isEqualTo(1);
+        assertThat(ingestionService.drain()).isZero();
+        assertThat(meterRegistry.get("payment.ingestion.lag").gauge().value()).isZero();
+
+        ArgumentCaptor<List<TransactionRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(aggregationService).processTransactions(captor.capture());
+        assertThat(captor.getValue()).containsExactly(request);
+        assertThat(ingestionService.getStatus(request.getTransactionId()).getStatus())
+            .isEqualTo(TransactionStatus.CREATED);
+    }
+
+    @Test
+    void drain_AfterRestart_ContinuesFromCommittedOffset() throws Exception {
+        TransactionRequest drained = request();
+        ingestionService.enqueue(drained);
+        when(aggregationService.processTransactions(anyList()))
+            .thenAnswer(invocation -> created(invocation.getArgument(0)));
+        ingestionService.drain();
+        TransactionRequest pending = request();
+        ingestionService.enqueue(pending);
+        ingestionService.stop();
+
+        ingestionService = open();
+
+        assertThat(ingestionService.getStatus(pending.getTransactionId()).getStatus())
+            .isEqualTo(TransactionStatus.ACCEPTED);
+        assertThat(ingestionService.drain()).isEqualTo(1);
+        assertThat(ingestionService.getStatus(pending.getTransactionId()).getStatus())
+            .isEqualTo(TransactionStatus.CREATED);
+    }
+
+    @Test
+    void drain_FailedBatch_IsRetried() {
+        TransactionRequest request = request();
+        ingestionService.enqueue(request);
+        when(aggregationService.processTransactions(anyList()))
+            .thenThrow(new DataAccessResourceFailureException("database down"))
+            .thenAnswer(invocation -> created(invocation.getArgument(0)));
+
+        assertThatThrownBy(() -> ingestionService.drain()).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(ingestionService.getStatus(request.getTransactionId()).getStatus())
+            .isEqualTo(TransactionStatus.ACCEPTED);
+
+        assertThat(ingestionService.drain()).isEqualTo(1);
+        assertThat(ingestionService.getStatus(request.getTransactionId()).getStatus())
+            .isEqualTo(TransactionStatus.CREATED);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drain_RejectedRecord_IsDeadLetteredAndTheRestIsStored() {
+        TransactionRequest first = request();
+        TransactionRequest poison = request();
+        TransactionRequest last = request();
+        List.of(first, poison, last).forEach(ingestionService::enqueue);
+        when(aggregationService.processTransactions(anyList())).thenAnswer(invocation -> {
+            List<TransactionRequest> requests = invocation.getArgument(0);
+            if (requests.contains(poison)) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return created(requests);
+        });
+
+        assertThat(ingestionService.drain()).isEqualTo(3);
+        assertThat(ingestionService.drain()).isZero();
+
+        assertThat(ingestionService.getStatus(first.getTransactionId()).getStatus()).isEqualTo(TransactionStatus.CREATED);
+        assertThat(ingestionService.getStatus(poison.getTransactionId()).getStatus()).isEqualTo(TransactionStatus.FAILED);
+        assertThat(ingestionService.getStatus(last.getTransactionId()).getStatus()).isEqualTo(TransactionStatus.CREATED);
+        assertThat(meterRegistry.get("payment.ingestion.dead.letters").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("payment.ingestion.lag").gauge().value()).isZero();
+        assertThat(directory.resolve("dead-letter")).isNotEmptyDirectory();
+    }
+
+    @Test
+    void enqueue_WaitingIdWithDifferentAmount_Conflicts() {
+        TransactionRequest request = request();
+        ingestionService.enqueue(request);
+        TransactionRequest retry = TransactionRequest.builder()
+            .transactionId(request.getTransactionId())
+            .accountId(request.getAccountId())
+            .amount(new BigDecimal("200.0000"))
+            .currency(request.getCurrency())
+            .timestamp(request.getTimestamp())
+            .build();
+
+        assertThatThrownBy(() -> ingestionService.enqueue(retry))
+            .isInstanceOf(ConflictException.class)
+            .hasMessageContaining("different amount");
+        assertThat(ingestionService.enqueue(request).getStatus()).isEqualTo(TransactionStatus.ACCEPTED);
+    }
+
+    @Test
+    void enqueue_StoredId_IsCheckedAgainstStoredTransactionAndNotAppended() {
+        TransactionRequest stored = request();
+        TransactionRequest conflicting = request();
+        when(aggregationService.findStored(stored)).thenReturn(Optional.of(transactionMapper.toDuplicateResponse(stored)));
+        when(aggregationService.findStored(conflicting)).thenThrow(new ConflictException("different amount"));
+
+        assertThat(ingestionService.enqueue(stored).getStatus()).isEqualTo(TransactionStatus.DUPLICATE);
+        assertThatThrownBy(() -> ingestionService.enqueue(conflicting)).isInstanceOf(ConflictException.class);
+        assertThat(ingestionService.drain()).isZero();
+        verify(aggregationService, never()).processTransactions(anyList());
+    }
+
+    @Test
+    void getStatus_UnknownToLog_FallsBackToRepository() {
+        UUID stored = UUID.randomUUID();
+        when(transactionRepository.existsByTransactionId(stored)).thenReturn(true);
+
+        assertThat(ingestionService.getStatus(stored.toString()).getStatus()).isEqualTo(TransactionStatus.CREATED);
+        assertThatThrownBy(() -> ingestionService.getStatus(UUID.randomUUID().toString()))
+            .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> ingestionService.getStatus("not-a-uuid"))
+            .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void enqueue_SynchronousMode_Throws() {
+        IngestionServiceImpl synchronous = new IngestionServiceImpl(
+            aggregationService, transactionRepository, transactionMapper, new IngestionProperties(), meterRegistry);
+
+        assertThat(synchronous.isEnabled()).isFalse();
+        assertThatThrownBy(() -> synchronous.enqueue(request())).isInstanceOf(IllegalStateException.class);
+    }
+
+    private IngestionServiceImpl open() throws IOException {
+        IngestionServiceImpl service = new IngestionServiceImpl(
+            aggregationService, transactionRepository, transactionMapper, properties, meterRegistry);
+        service.open();
+        return service;
+    }
+
+    private List<TransactionResponse> created(List<TransactionRequest> requests) {
+        return requests.stream().map(transactionMapper::toCreatedResponse).collect(Collectors.toList());
+    }
+
+    private static TransactionRequest request() {
+        return TransactionRequest.builder()
+            .transactionId(UUID.randomUUID().toString())
+            .accountId("ACC-123")
+            .amount(new BigDecimal("100.5000"))
+            .currency("USD")
+            .timestamp(OffsetDateTime.of(2025, 1, 15, 10, 0, 0, 0, ZoneOffset.UTC))
+            .build();
+    }
+}
@@ -0,0 +1,135 @@
+package dev.tengiz.payment.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.tengiz.payment.dto.request.TransactionRequest;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+class TransactionRequestValidatorTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator beanValidator;
+
+    private final TransactionRequestValidator validator = new TransactionRequestValidator();
+
+    @BeforeAll
+    static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void validate_ValidRequest_NoErrors() {
+        Errors errors = validate(validRequest());
+
+        assertThat(errors.hasErrors()).isFalse();
+    }
+
+    @Test
+    void validate_ReportsSameViolationsAsBeanValidation() {
+        List<Consumer<TransactionRequest.TransactionRequestBuilder>> variants = List.of(
+            b -> { },
+            b -> b.transactionId(null),
+            b -> b.transactionId(""),
+            b -> b.transactionId("   "),
+            b -> b.transactionId("not-a-uuid"),
+            b -> b.transactionId("550E8400-E29B-41D4-A716-446655440000"),
+            b -> b.transactionId("550e8400-e29b-41d4-a716-44665544000g"),
+            b -> b.transactionId("550e8400-e29b-41d4-a716-4466554400000"),
+            b -> b.transactionId("1-2-3-4-5"),
+            b -> b.transactionId("550e8400e29b41d4a716446655440000"),
+            b -> b.accountId(null),
+            b -> b.accountId(""),
+            b -> b.accountId("  "),
+            b -> b.accountId("ACC 123"),
+            b -> b.accountId("acc_123-x"),
+            b -> b.accountId("ACC-ü"),
+            b -> b.accountId("A".repeat(64)),
+            b -> b.accountId("A".repeat(65)),
+            b -> b.amount(null),
+            b -> b.amount(new BigDecimal("123456789012345.1234")),
+            b -> b.amount(new BigDecimal("1234567890123456")),
+            b -> b.amount(new BigDecimal("1.12345")),
+            b -> b.amount(new BigDecimal("1.12340000")),
+            b -> b.amount(new BigDecimal("-99.5")),
+            b -> b.amount(new BigDecimal("0E+20")),
+            b -> b.amount(new BigDecimal("1E+14")),
+            b -> b.amount(new BigDecimal("1E+15")),
+            b -> b.amount(new BigDecimal("922337203685477.5807")),
+            b -> b.amount(new BigDecimal("922337203685477.5808")),
+            b -> b.amount(new BigDecimal("-922337203685477.5808")),
+            b -> b.amount(new BigDecimal("-922337203685477.5809")),
+            b -> b.amount(new BigDecimal("999999999999999.99999")),
+            b -> b.currency(null),
+            b -> b.currency(""),
+            b -> b.currency("   "),
+            b -> b.currency("usd"),
+            b -> b.currency("EUR"),
+            b -> b.currency("ABC"),
+            b -> b.currency("US"),
+            b -> b.currency("USDX"),
+            b -> b.currency("U1D"),
+            b -> b.timestamp(null),
+            b -> b.transactionId(null).accountId(null).amount(null).currency(null).timestamp(null)
+        );
+
+        for (Consumer<TransactionRequest.TransactionRequestBuilder> variant : variants) {
+            TransactionRequest.TransactionRequestBuilder builder = validBuilder();
+            variant.accept(builder);
+            TransactionRequest request = builder.build();
+
+            Set<String> expected = beanValidator.validate(request).stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .collect(Collectors.toSet());
+            Set<String> actual = validate(request).getFieldErrors().stream()
+                .map(e -> e.getField() + ": " + e.getDefaultMessage())
+                .collect(Collectors.toSet());
+
+            assertThat(actual).as(request.toString()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void validate_UsesConstraintNamesAsErrorCodes() {
+        Errors errors = validate(validBuilder().currency("XYZ").build());
+
+        assertThat(errors.getFieldError("currency").getCode()).isEqualTo("ValidCurrency");
+    }
+
+    private Errors validate(TransactionRequest request) {
+        Errors errors = new BeanPropertyBindingResult(request, "transactionRequest");
+        validator.validate(request, errors);
+        return errors;
+    }
+
+    private static TransactionRequest validRequest() {
+        return validBuilder().build();
+    }
+
+    private static TransactionRequest.TransactionRequestBuilder validBuilder() {
+        return TransactionRequest.builder()
+            .transactionId("550e8400-e29b-41d4-a716-446655440000")
+            .accountId("ACC-123")
+            .amount(new BigDecimal("150.75"))
+            .currency("USD")
+            .timestamp(OffsetDateTime.parse("2025-01-30T12:34:56Z"));
+    }
+}